@@ -0,0 +1,47 @@
+package com.cookingfox.chefling.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so the allocation per operation is reported: first
+ * single-threaded, then with a thread per processor. The JMH command line options can be used to
+ * select benchmarks or change the settings, for example:
+ *
+ * <pre>
+ * java -jar chefling-benchmarks/target/benchmarks.jar ResolutionBenchmark -f 2
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTOR
+    //----------------------------------------------------------------------------------------------
+
+    private BenchmarkRunner() {
+        // should not be instantiated
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // MAIN
+    //----------------------------------------------------------------------------------------------
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        int[] threadCounts = {1, Runtime.getRuntime().availableProcessors()};
+
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .addProfiler(GCProfiler.class)
+                    .threads(threads)
+                    .build();
+
+            new Runner(options).run();
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.cookingfox.chefling.benchmarks;
+
+import com.cookingfox.fixtures.chefling.benchmarks.BenchmarkGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways to call a constructor with resolved arguments: a direct call, reflection, and
+ * a method handle that takes the arguments as an array, as the container does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+public class ConstructionBenchmark {
+
+    //----------------------------------------------------------------------------------------------
+    // SETUP
+    //----------------------------------------------------------------------------------------------
+
+    protected Object[] arguments;
+    protected Constructor<BenchmarkGraph.Wide> constructor;
+    protected MethodHandle instantiator;
+
+    @Setup
+    public void setUp() throws Exception {
+        arguments = new Object[]{
+                new BenchmarkGraph.Leaf0(), new BenchmarkGraph.Leaf1(),
+                new BenchmarkGraph.Leaf2(), new BenchmarkGraph.Leaf3(),
+                new BenchmarkGraph.Leaf4(), new BenchmarkGraph.Leaf5(),
+                new BenchmarkGraph.Leaf6(), new BenchmarkGraph.Leaf7()
+        };
+
+        constructor = BenchmarkGraph.Wide.class.getConstructor(BenchmarkGraph.LEAF_TYPES);
+
+        // the same adaptation as `CreateInstanceCommandImpl.ConstructorParameters`
+        instantiator = MethodHandles.publicLookup().unreflectConstructor(constructor)
+                .asSpreader(Object[].class, arguments.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // BENCHMARKS
+    //----------------------------------------------------------------------------------------------
+
+    @Benchmark
+    public Object direct() {
+        Object[] a = arguments;
+
+        return new BenchmarkGraph.Wide((BenchmarkGraph.Leaf0) a[0], (BenchmarkGraph.Leaf1) a[1],
+                (BenchmarkGraph.Leaf2) a[2], (BenchmarkGraph.Leaf3) a[3], (BenchmarkGraph.Leaf4) a[4],
+                (BenchmarkGraph.Leaf5) a[5], (BenchmarkGraph.Leaf6) a[6], (BenchmarkGraph.Leaf7) a[7]);
+    }
+
+    @Benchmark
+    public Object methodHandle() throws Throwable {
+        return (Object) instantiator.invokeExact(arguments);
+    }
+
+    @Benchmark
+    public Object reflection() throws Exception {
+        return constructor.newInstance(arguments);
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.cookingfox.chefling.benchmarks;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.impl.Chefling;
+import com.cookingfox.fixtures.chefling.benchmarks.BenchmarkGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for operations on container trees: adding a child container, which checks the
+ * mappings of the child against the tree, and disposing a tree with thousands of containers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+public class ContainerTreeBenchmark {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTANTS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The number of children of every container in a disposed tree.
+     */
+    public static final int FAN_OUT = 10;
+
+    //----------------------------------------------------------------------------------------------
+    // STATES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * A parent container with mapped instances, and the instances that every new child maps.
+     */
+    @State(Scope.Thread)
+    public static class AddChildState {
+
+        protected Object[] childInstances;
+        protected CheflingContainer parent;
+
+        @Setup
+        public void setUp() {
+            parent = Chefling.createContainer();
+
+            for (Class type : BenchmarkGraph.LEAF_TYPES) {
+                parent.getInstance(type);
+            }
+
+            // create the instances of the deep graph in a separate container
+            CheflingContainer source = Chefling.createContainer();
+            childInstances = new Object[BenchmarkGraph.DEEP_TYPES.length];
+
+            for (int i = 0; i < childInstances.length; i++) {
+                childInstances[i] = source.getInstance(BenchmarkGraph.DEEP_TYPES[i]);
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            parent.disposeContainer();
+        }
+
+    }
+
+    /**
+     * A tree of containers, which is built again before every disposal.
+     */
+    @State(Scope.Thread)
+    public static class TreeState {
+
+        @Param({"1000", "10000"})
+        public int numContainers;
+
+        protected CheflingContainer root;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            root = Chefling.createContainer();
+            root.mapType(BenchmarkGraph.Service.class, BenchmarkGraph.ServiceImpl.class);
+            root.getInstance(BenchmarkGraph.Service.class);
+
+            Deque<CheflingContainer> parents = new ArrayDeque<>();
+            parents.add(root);
+
+            // breadth-first, so the tree is balanced
+            for (int created = 1; created < numContainers; ) {
+                CheflingContainer parent = parents.poll();
+
+                for (int i = 0; i < FAN_OUT && created < numContainers; i++, created++) {
+                    parents.add(parent.createChildContainer());
+                }
+            }
+        }
+
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // BENCHMARKS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Maps instances in a new container, adds it as a child and disposes it again, so the parent
+     * does not grow.
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void addChildContainer(AddChildState state) {
+        CheflingContainer child = Chefling.createContainer();
+
+        for (Object instance : state.childInstances) {
+            child.mapInstance((Class) instance.getClass(), instance);
+        }
+
+        state.parent.addChildContainer(child);
+        state.parent.disposeChildContainer(child);
+    }
+
+    @Benchmark
+    public void disposeContainer(TreeState state) {
+        state.root.disposeContainer();
+    }
+
+}
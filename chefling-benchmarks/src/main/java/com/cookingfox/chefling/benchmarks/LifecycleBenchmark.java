@@ -0,0 +1,84 @@
+package com.cookingfox.chefling.benchmarks;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.impl.Chefling;
+import com.cookingfox.fixtures.chefling.benchmarks.BenchmarkGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the container lifecycle: validating a new container, sequentially and in
+ * parallel, and disposing a container with life cycle instances. Every operation uses a new
+ * container, so it includes creating the container and its mappings.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+public class LifecycleBenchmark {
+
+    //----------------------------------------------------------------------------------------------
+    // SETUP
+    //----------------------------------------------------------------------------------------------
+
+    protected ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // BENCHMARKS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Resolves the graph and disposes the container, which disposes the life cycle instances.
+     */
+    @Benchmark
+    public void disposeContainer() {
+        CheflingContainer container = createContainer();
+        container.getInstance(BenchmarkGraph.Service.class);
+        container.disposeContainer();
+    }
+
+    @Benchmark
+    public CheflingContainer validateContainer() {
+        CheflingContainer container = createContainer();
+        container.validateContainer();
+
+        return container;
+    }
+
+    @Benchmark
+    public CheflingContainer validateContainerParallel() {
+        CheflingContainer container = createContainer();
+        container.validateContainer(pool);
+
+        return container;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPERS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @return A new container with a mapping for the service.
+     */
+    protected CheflingContainer createContainer() {
+        CheflingContainer container = Chefling.createContainer();
+        container.mapType(BenchmarkGraph.Service.class, BenchmarkGraph.ServiceImpl.class);
+
+        return container;
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.cookingfox.chefling.benchmarks;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.impl.Chefling;
+import com.cookingfox.chefling.impl.metrics.ResolutionMetrics;
+import com.cookingfox.fixtures.chefling.benchmarks.BenchmarkGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for resolving instances: cached singletons, with and without metrics, new instances
+ * using a compiled resolution plan, and complete graphs in a new container.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+public class ResolutionBenchmark {
+
+    //----------------------------------------------------------------------------------------------
+    // SETUP
+    //----------------------------------------------------------------------------------------------
+
+    protected CheflingContainer container;
+    protected CheflingContainer metricsContainer;
+
+    @Setup
+    public void setUp() {
+        container = Chefling.createContainer();
+        container.mapType(BenchmarkGraph.Service.class, BenchmarkGraph.ServiceImpl.class);
+
+        // resolve the graph, so the instances are cached and the resolution plans are compiled
+        container.getInstance(BenchmarkGraph.Service.class);
+        container.createInstance(BenchmarkGraph.Wide.class);
+
+        metricsContainer = Chefling.createBuilder().setMetrics(new ResolutionMetrics()).buildContainer();
+        metricsContainer.mapType(BenchmarkGraph.Service.class, BenchmarkGraph.ServiceImpl.class);
+        metricsContainer.getInstance(BenchmarkGraph.Service.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        container.disposeContainer();
+        metricsContainer.disposeContainer();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // BENCHMARKS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a new instance using the compiled resolution plan. The dependencies are cached.
+     */
+    @Benchmark
+    public Object createInstance() {
+        return container.createInstance(BenchmarkGraph.Wide.class);
+    }
+
+    /**
+     * Creates a new instance in a new container, so the resolution plan is compiled and the
+     * dependencies are created as well. The constructor selection is cached by type.
+     */
+    @Benchmark
+    public Object createInstanceCold() {
+        return Chefling.createContainer().createInstance(BenchmarkGraph.Wide.class);
+    }
+
+    /**
+     * Resolves a mapped type that was already created.
+     */
+    @Benchmark
+    public Object getInstanceCached() {
+        return container.getInstance(BenchmarkGraph.Service.class);
+    }
+
+    /**
+     * Resolves a mapped type that was already created, in a container that records metrics.
+     */
+    @Benchmark
+    public Object getInstanceCachedWithMetrics() {
+        return metricsContainer.getInstance(BenchmarkGraph.Service.class);
+    }
+
+    /**
+     * Resolves a chain of dependencies in a new container.
+     */
+    @Benchmark
+    public Object getInstanceDeepGraph() {
+        return Chefling.createContainer().getInstance(BenchmarkGraph.Deep9.class);
+    }
+
+    /**
+     * Resolves a type with many dependencies in a new container.
+     */
+    @Benchmark
+    public Object getInstanceWideGraph() {
+        return Chefling.createContainer().getInstance(BenchmarkGraph.Wide.class);
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.cookingfox.chefling.benchmarks;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.impl.Chefling;
+import com.cookingfox.fixtures.chefling.SyntheticGraph;
+import com.cookingfox.fixtures.chefling.SyntheticGraphBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for large generated graphs in a container tree: configuring and validating a new
+ * container, and resolving the complete graph. The graph is generated once per trial, see
+ * {@link SyntheticGraphBuilder}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+public class ScaleBenchmark {
+
+    //----------------------------------------------------------------------------------------------
+    // SETUP
+    //----------------------------------------------------------------------------------------------
+
+    @Param({"1000", "5000"})
+    public int numTypes;
+
+    protected SyntheticGraph graph;
+    protected List<Class> rootTypes;
+
+    @Setup
+    public void setUp() throws IOException {
+        graph = new SyntheticGraphBuilder()
+                .setNumTypes(numTypes)
+                .setDepth(10)
+                .setFanOut(4)
+                .setInterfaceRatio(0.3)
+                .setFactoryRatio(0.1)
+                .setContainerTree(2, 4)
+                .buildGraph();
+
+        rootTypes = graph.getRootTypes();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // BENCHMARKS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Configures the container tree and validates it, which creates every instance of the graph.
+     */
+    @Benchmark
+    public CheflingContainer configureAndValidate() {
+        CheflingContainer container = Chefling.createContainer();
+        graph.configure(container);
+        container.validateContainer();
+
+        return container;
+    }
+
+    /**
+     * Configures the container tree and resolves the types of the highest level, from the deepest
+     * container of the tree.
+     */
+    @Benchmark
+    public CheflingContainer resolveRootTypes() {
+        CheflingContainer container = Chefling.createContainer();
+        List<CheflingContainer> containers = graph.configure(container);
+        CheflingContainer leaf = containers.get(containers.size() - 1);
+
+        for (Class type : rootTypes) {
+            leaf.getInstance(type);
+        }
+
+        return container;
+    }
+
+}
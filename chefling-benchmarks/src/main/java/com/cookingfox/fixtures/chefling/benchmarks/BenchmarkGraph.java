@@ -0,0 +1,152 @@
+package com.cookingfox.fixtures.chefling.benchmarks;
+
+import com.cookingfox.chefling.api.CheflingLifecycle;
+
+/**
+ * The types that are resolved by the benchmarks. Not in the Chefling package, since the container
+ * does not resolve library types. Contains a wide graph (one type with many dependencies), a
+ * deep graph (a chain of dependencies) and a service that depends on both.
+ */
+public final class BenchmarkGraph {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTOR
+    //----------------------------------------------------------------------------------------------
+
+    private BenchmarkGraph() {
+        // should not be instantiated
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTANTS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The leaf types of the wide graph.
+     */
+    public static final Class[] LEAF_TYPES = {
+            Leaf0.class, Leaf1.class, Leaf2.class, Leaf3.class,
+            Leaf4.class, Leaf5.class, Leaf6.class, Leaf7.class
+    };
+
+    /**
+     * The types of the deep graph, where every type depends on the previous one.
+     */
+    public static final Class[] DEEP_TYPES = {
+            Deep0.class, Deep1.class, Deep2.class, Deep3.class, Deep4.class,
+            Deep5.class, Deep6.class, Deep7.class, Deep8.class, Deep9.class
+    };
+
+    //----------------------------------------------------------------------------------------------
+    // WIDE GRAPH
+    //----------------------------------------------------------------------------------------------
+
+    public static class Leaf0 {
+    }
+
+    public static class Leaf1 {
+    }
+
+    public static class Leaf2 {
+    }
+
+    public static class Leaf3 {
+    }
+
+    public static class Leaf4 {
+    }
+
+    public static class Leaf5 {
+    }
+
+    public static class Leaf6 {
+    }
+
+    public static class Leaf7 {
+    }
+
+    public static class Wide {
+        public Wide(Leaf0 l0, Leaf1 l1, Leaf2 l2, Leaf3 l3, Leaf4 l4, Leaf5 l5, Leaf6 l6, Leaf7 l7) {
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // DEEP GRAPH
+    //----------------------------------------------------------------------------------------------
+
+    public static class Deep0 implements CheflingLifecycle {
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+
+    public static class Deep1 {
+        public Deep1(Deep0 previous) {
+        }
+    }
+
+    public static class Deep2 {
+        public Deep2(Deep1 previous) {
+        }
+    }
+
+    public static class Deep3 {
+        public Deep3(Deep2 previous) {
+        }
+    }
+
+    public static class Deep4 {
+        public Deep4(Deep3 previous) {
+        }
+    }
+
+    public static class Deep5 {
+        public Deep5(Deep4 previous) {
+        }
+    }
+
+    public static class Deep6 {
+        public Deep6(Deep5 previous) {
+        }
+    }
+
+    public static class Deep7 {
+        public Deep7(Deep6 previous) {
+        }
+    }
+
+    public static class Deep8 {
+        public Deep8(Deep7 previous) {
+        }
+    }
+
+    public static class Deep9 implements CheflingLifecycle {
+        public Deep9(Deep8 previous) {
+        }
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // SERVICE
+    //----------------------------------------------------------------------------------------------
+
+    public interface Service {
+    }
+
+    public static class ServiceImpl implements Service {
+        public ServiceImpl(Wide wide, Deep9 deep) {
+        }
+    }
+
+}
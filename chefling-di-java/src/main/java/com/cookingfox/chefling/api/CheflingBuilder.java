@@ -0,0 +1,128 @@
+package com.cookingfox.chefling.api;
+
+import com.cookingfox.chefling.api.exception.ContainerBuilderException;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helper interface for streamlining the container configuration and initialization process. Added
+ * {@link CheflingConfig} instances will be executed in sequence.
+ */
+public interface CheflingBuilder extends CheflingConfigCollection {
+
+    @Override
+    CheflingBuilder addConfig(CheflingConfig config);
+
+    /**
+     * Add a container listener.
+     *
+     * @param listener The listener to add.
+     * @return The current builder instance.
+     */
+    CheflingBuilder addContainerListener(CheflingContainerListener listener);
+
+    /**
+     * Instead of creating a new container, applies the added configs to the provided container
+     * instance.
+     *
+     * @param container The container to apply the configs to.
+     * @return The container the configs were applied to.
+     * @throws ContainerBuilderException when an error occurs.
+     */
+    CheflingContainer applyToContainer(CheflingContainer container);
+
+    /**
+     * Creates a new container instance and applies all added configs.
+     *
+     * @return The created container instance.
+     * @throws ContainerBuilderException when an error occurs.
+     * @see CheflingConfig
+     */
+    CheflingContainer buildContainer();
+
+    @Override
+    CheflingBuilder removeConfig(CheflingConfig config);
+
+    /**
+     * Enables allocation accounting: the bytes that are allocated by every instance creation are
+     * recorded using the metrics hook (see {@link #setMetrics(CheflingMetrics)}), including and
+     * excluding the creation of its dependencies. This uses the thread allocation counter of the
+     * JVM, which is not available on every JVM. By default, allocation accounting is disabled.
+     *
+     * @param enabled Whether allocation accounting is enabled.
+     * @return The current builder instance.
+     * @see CheflingMetrics#recordAllocation(Class, long, long)
+     */
+    CheflingBuilder setAllocationAccounting(boolean enabled);
+
+    /**
+     * Enables the parallel disposal of the container: instances that do not depend on each other
+     * are disposed concurrently using the executor. Dependents are always disposed before their
+     * dependencies. By default, the instances are disposed in the calling thread.
+     *
+     * @param executor The executor that disposes the instances, or null to dispose them in the
+     *                 calling thread.
+     * @return The current builder instance.
+     */
+    CheflingBuilder setDisposeExecutor(Executor executor);
+
+    /**
+     * Sets the maximum time that disposing the container may take. The instances that were not
+     * disposed before the deadline are skipped and reported by a
+     * {@link com.cookingfox.chefling.api.exception.ContainerDisposeException}. By default, there
+     * is no deadline.
+     * <p>
+     * Dispose calls that are still running on the dispose executor when the deadline passes are
+     * not interrupted: they may complete after the container was cleared and returned from
+     * {@link CheflingContainer#disposeContainer()}.
+     *
+     * @param timeout The maximum time, or zero for no deadline.
+     * @param unit    The unit of the timeout.
+     * @return The current builder instance.
+     */
+    CheflingBuilder setDisposeTimeout(long timeout, TimeUnit unit);
+
+    /**
+     * Enables the resolution metrics of the container: the hook is called for every resolved
+     * instance of the container and the child containers it creates. By default, metrics are
+     * disabled.
+     *
+     * @param metrics The metrics hook, or null to disable metrics.
+     * @return The current builder instance.
+     * @see com.cookingfox.chefling.impl.metrics.ResolutionMetrics
+     */
+    CheflingBuilder setMetrics(CheflingMetrics metrics);
+
+    /**
+     * Enables tracing: the tracer records a span for every config that is applied, every builder
+     * listener call, the warm-up, and every instance creation, constructor or factory call and
+     * {@link CheflingLifecycle#initialize()} call of the container and the child containers it
+     * creates. By default, tracing is disabled.
+     *
+     * @param tracer The tracer, or null to disable tracing.
+     * @return The current builder instance.
+     * @see com.cookingfox.chefling.impl.metrics.TraceRecorder
+     */
+    CheflingBuilder setTracer(CheflingTracer tracer);
+
+    /**
+     * Enables the eager warm-up of the container: after the configs are applied, the instances of
+     * all mapped types and their dependencies are created before the container is returned. The
+     * types that do not depend on each other are created concurrently using the executor. By
+     * default, the warm-up is disabled and instances are created when they are first requested.
+     *
+     * @param executor The executor that creates the instances, or null to disable the warm-up.
+     * @return The current builder instance.
+     */
+    CheflingBuilder setWarmUpExecutor(Executor executor);
+
+    /**
+     * Remove a container listener.
+     *
+     * @param listener The listener to remove.
+     * @return The current builder instance.
+     */
+    CheflingBuilder removeContainerListener(CheflingContainerListener listener);
+
+}
@@ -11,12 +11,15 @@ public interface CheflingContainer extends
         AddChildContainerCommand,
         CreateChildContainerCommand,
         CreateInstanceCommand,
+        DisposeChildContainerCommand,
         DisposeContainerCommand,
+        FreezeContainerCommand,
         GetInstanceCommand,
         HasInstanceOrMappingCommand,
         MapFactoryCommand,
         MapInstanceCommand,
         MapTypeCommand,
+        OpenRequestScopeCommand,
         RemoveInstanceAndMappingCommand,
         SetParentContainerCommand,
         ValidateContainerCommand {
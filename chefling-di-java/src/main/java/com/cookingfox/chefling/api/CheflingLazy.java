@@ -0,0 +1,12 @@
+package com.cookingfox.chefling.api;
+
+/**
+ * A {@link CheflingProvider} that resolves the instance on the first call to {@link #get()} and
+ * returns the same instance afterwards, without asking the container again. Add a constructor
+ * parameter of type {@code CheflingLazy<Type>} to have the container inject it.
+ *
+ * @param <T> The type of the provided instance.
+ */
+public interface CheflingLazy<T> extends CheflingProvider<T> {
+
+}
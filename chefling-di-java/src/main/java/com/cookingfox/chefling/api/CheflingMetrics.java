@@ -0,0 +1,84 @@
+package com.cookingfox.chefling.api;
+
+/**
+ * Hook for recording how a container resolves types. Metrics are opt-in: set an implementation
+ * using {@link CheflingBuilder#setMetrics(CheflingMetrics)}. Child containers that are created by
+ * the container use the same metrics.
+ * <p>
+ * The methods are called by the threads that resolve the types, so implementations must be
+ * thread-safe. {@link #recordCacheHit(Class)} is called for every request of a stored instance, so
+ * it should be as cheap as possible.
+ *
+ * @see com.cookingfox.chefling.impl.metrics.ResolutionMetrics
+ */
+public interface CheflingMetrics {
+
+    /**
+     * Called after an instance was created, if allocation accounting is enabled using
+     * {@link CheflingBuilder#setAllocationAccounting(boolean)}. The bytes are allocated by the
+     * thread that created the instance, while it called the constructor or factory and
+     * {@link CheflingLifecycle#initialize()}. The allocations of the container itself, for example
+     * to compile the resolution plan of the type on first use, are not included.
+     *
+     * @param type           The type of the instance.
+     * @param inclusiveBytes The bytes allocated by the creation, including the creation of
+     *                       dependencies that did not exist yet.
+     * @param exclusiveBytes The bytes allocated by the creation, excluding the creation of
+     *                       dependencies.
+     */
+    void recordAllocation(Class type, long inclusiveBytes, long exclusiveBytes);
+
+    /**
+     * Called when a requested instance already exists: a stored instance, or the instance of the
+     * current thread or request scope.
+     *
+     * @param type The type of the instance.
+     */
+    void recordCacheHit(Class type);
+
+    /**
+     * Called after a new instance was constructed. For factories, the duration includes resolving
+     * the dependencies that the factory requests. For constructors, the dependencies are resolved
+     * before the constructor is called.
+     *
+     * @param type          The type of the instance.
+     * @param construction  How the instance was constructed.
+     * @param durationNanos The duration of the construction, in nanoseconds.
+     */
+    void recordConstruction(Class type, Construction construction, long durationNanos);
+
+    /**
+     * Called when a requested instance did not exist yet and was created: a new stored instance,
+     * a new instance of a scope, or a new instance of a transient mapping.
+     *
+     * @param type The type of the instance.
+     */
+    void recordCreation(Class type);
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The way an instance is constructed.
+     */
+    enum Construction {
+
+        /**
+         * By a factory that was mapped using {@link CheflingContainer#mapFactory(Class, CheflingFactory)}.
+         */
+        FACTORY,
+
+        /**
+         * By a factory that was generated by the annotation processor.
+         */
+        GENERATED_FACTORY,
+
+        /**
+         * By calling a constructor that was selected using reflection.
+         */
+        REFLECTION
+
+    }
+
+}
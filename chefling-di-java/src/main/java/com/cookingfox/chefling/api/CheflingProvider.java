@@ -0,0 +1,26 @@
+package com.cookingfox.chefling.api;
+
+import com.cookingfox.chefling.api.exception.ContainerException;
+
+/**
+ * Handle to an instance of the generic type that is resolved when it is needed. Add a constructor
+ * parameter of type {@code CheflingProvider<Type>} to have the container inject a provider instead of
+ * the instance: the type is only resolved when {@link #get()} is called, so creating the dependent
+ * instance does not create the (possibly expensive) dependency.
+ * <p>
+ * Every call to {@link #get()} asks the container, so it reflects changes to the container's
+ * mappings. Use {@link CheflingLazy} to keep the instance after the first call.
+ *
+ * @param <T> The type of the provided instance.
+ */
+public interface CheflingProvider<T> {
+
+    /**
+     * Returns the instance of the generic type, like {@link CheflingContainer#getInstance(Class)}.
+     *
+     * @return The instance.
+     * @throws ContainerException when the instance could not be resolved.
+     */
+    T get();
+
+}
@@ -0,0 +1,28 @@
+package com.cookingfox.chefling.api;
+
+import com.cookingfox.chefling.api.exception.ContainerDisposeException;
+
+/**
+ * A request scope that is active on the thread that opened it, see
+ * {@link CheflingContainer#openRequestScope()}. While it is active, the types that are mapped with
+ * {@link CheflingScope#REQUEST} resolve to instances of this scope. Use it with try-with-resources:
+ *
+ * <pre>
+ * try (CheflingRequestScope scope = container.openRequestScope()) {
+ *     container.getInstance(RequestHandler.class).handle();
+ * }
+ * </pre>
+ */
+public interface CheflingRequestScope extends AutoCloseable {
+
+    /**
+     * Ends the request scope: the scope that was active before it was opened becomes active again,
+     * and the instances of this scope are disposed, in reverse order of creation. Must be called
+     * on the thread that opened the scope. Calling it again has no effect.
+     *
+     * @throws ContainerDisposeException when a dispose call threw. All instances are disposed.
+     */
+    @Override
+    void close();
+
+}
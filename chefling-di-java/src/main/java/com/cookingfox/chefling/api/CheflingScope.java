@@ -0,0 +1,39 @@
+package com.cookingfox.chefling.api;
+
+/**
+ * Determines how long an instance that the container resolves for a mapping is used. Can be
+ * declared when a type is mapped using {@link CheflingContainer#mapType(Class, Class, CheflingScope)}
+ * or {@link CheflingContainer#mapFactory(Class, CheflingFactory, CheflingScope)}.
+ */
+public enum CheflingScope {
+
+    /**
+     * One instance is created and stored by the container, and returned for every request. This
+     * is the default scope.
+     */
+    SINGLETON,
+
+    /**
+     * A new instance is created for every request. The instance is not stored by the container, so
+     * it is not disposed when the container is disposed.
+     */
+    TRANSIENT,
+
+    /**
+     * One instance is created per thread. The instances are disposed when the container is
+     * disposed.
+     */
+    THREAD,
+
+    /**
+     * One instance is created per request scope, which is opened on the current thread using
+     * {@link CheflingContainer#openRequestScope()}. The instances are disposed when the request
+     * scope is closed. Requesting the type when no request scope is active throws an exception.
+     * <p>
+     * The active request scope belongs to the thread, not to a container: a scope that is opened
+     * by one container is also active for other containers on the same thread. Every container
+     * that owns a request scoped mapping has its own instances in the scope.
+     */
+    REQUEST
+
+}
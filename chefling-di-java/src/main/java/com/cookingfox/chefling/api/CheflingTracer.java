@@ -0,0 +1,86 @@
+package com.cookingfox.chefling.api;
+
+/**
+ * Hook for recording a timeline of how a container is built and how it creates instances. Tracing
+ * is opt-in: set an implementation using {@link CheflingBuilder#setTracer(CheflingTracer)}. Child
+ * containers that are created by the container use the same tracer.
+ * <p>
+ * Every span is started by {@link #begin(Category, String)} and ended by
+ * {@link #end(Category, String)} on the same thread, also when the traced operation throws. The
+ * spans of a thread are nested: a span ends before the span that contains it. Implementations
+ * must be thread-safe, since instances can be created by multiple threads.
+ *
+ * @see com.cookingfox.chefling.impl.metrics.TraceRecorder
+ */
+public interface CheflingTracer {
+
+    /**
+     * Called when a span starts.
+     *
+     * @param category The kind of operation.
+     * @param name     The name of the operation: the name of the type, config or listener.
+     */
+    void begin(Category category, String name);
+
+    /**
+     * Called when a span ends.
+     *
+     * @param category The kind of operation, the same as for {@link #begin(Category, String)}.
+     * @param name     The name of the operation, the same as for {@link #begin(Category, String)}.
+     */
+    void end(Category category, String name);
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The kinds of operations that are traced.
+     */
+    enum Category {
+
+        /**
+         * A {@link CheflingConfig} that is applied by the builder.
+         */
+        CONFIG,
+
+        /**
+         * A constructor that is called to create an instance.
+         */
+        CONSTRUCTOR,
+
+        /**
+         * A factory that was mapped using {@link CheflingContainer#mapFactory(Class, CheflingFactory)},
+         * including the dependencies the factory requests.
+         */
+        FACTORY,
+
+        /**
+         * A factory that was generated by the annotation processor, including the dependencies it
+         * requests.
+         */
+        GENERATED_FACTORY,
+
+        /**
+         * A call to {@link CheflingLifecycle#initialize()}.
+         */
+        INITIALIZE,
+
+        /**
+         * A {@link CheflingContainerListener} that is called by the builder.
+         */
+        LISTENER,
+
+        /**
+         * The creation of an instance, including the creation of its dependencies.
+         */
+        RESOLUTION,
+
+        /**
+         * The warm-up of the container, see {@link CheflingBuilder#setWarmUpExecutor(java.util.concurrent.Executor)}.
+         */
+        WARM_UP
+
+    }
+
+}
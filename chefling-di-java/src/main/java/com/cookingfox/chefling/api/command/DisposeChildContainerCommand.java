@@ -0,0 +1,23 @@
+package com.cookingfox.chefling.api.command;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingLifecycle;
+import com.cookingfox.chefling.api.exception.ContainerException;
+
+public interface DisposeChildContainerCommand {
+
+    /**
+     * Detaches a child container from this container and disposes it, together with its own
+     * children. Unlike {@link CheflingContainer#disposeContainer()}, the rest of the container tree
+     * is not affected, so this method can be used to clean up short-lived child containers, for
+     * example a container per request. For every instance of the child containers that implements
+     * {@link CheflingLifecycle}, its {@link CheflingLifecycle#dispose()} method will be called.
+     *
+     * @param container The child container to dispose.
+     * @throws ContainerException when the container is not a child of this container, or when
+     *                            disposing an instance failed.
+     * @see CheflingContainer#createChildContainer()
+     */
+    void disposeChildContainer(CheflingContainer container);
+
+}
@@ -0,0 +1,23 @@
+package com.cookingfox.chefling.api.command;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.exception.ContainerException;
+import com.cookingfox.chefling.api.exception.ContainerFrozenException;
+
+public interface FreezeContainerCommand {
+
+    /**
+     * Creates an immutable snapshot of the container tree, for a configuration that no longer
+     * changes. First all mappings of the tree are resolved, like
+     * {@link CheflingContainer#validateContainer()}. The returned container answers
+     * {@link CheflingContainer#getInstance(Class)} for the resolved types without locking,
+     * allocating or traversing the tree. Calls that would change the container, or that would need
+     * to create a new instance, throw a {@link ContainerFrozenException}. Later changes to the
+     * original tree are not visible in the snapshot.
+     *
+     * @return The frozen container.
+     * @throws ContainerException when a mapping can not be resolved.
+     */
+    CheflingContainer freezeContainer();
+
+}
@@ -2,6 +2,7 @@ package com.cookingfox.chefling.api.command;
 
 import com.cookingfox.chefling.api.CheflingContainer;
 import com.cookingfox.chefling.api.CheflingFactory;
+import com.cookingfox.chefling.api.CheflingScope;
 import com.cookingfox.chefling.api.exception.ContainerException;
 
 public interface MapFactoryCommand {
@@ -21,4 +22,18 @@ public interface MapFactoryCommand {
      */
     <T> void mapFactory(Class<T> type, CheflingFactory<T> factory);
 
+    /**
+     * Map `type` to a factory, like {@link #mapFactory(Class, CheflingFactory)}, using the provided
+     * scope. For example, with {@link CheflingScope#TRANSIENT} the factory is called every time
+     * `type` is requested.
+     *
+     * @param type    The type (class, interface) of the object that will be created by the factory.
+     * @param factory A factory instance.
+     * @param scope   The scope of the instances that are resolved for `type`.
+     * @param <T>     Ensures a factory of the expected type is passed.
+     * @throws ContainerException when a mapping for `type` already exists.
+     * @see CheflingFactory
+     */
+    <T> void mapFactory(Class<T> type, CheflingFactory<T> factory, CheflingScope scope);
+
 }
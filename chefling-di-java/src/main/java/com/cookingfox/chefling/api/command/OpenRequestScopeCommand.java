@@ -0,0 +1,17 @@
+package com.cookingfox.chefling.api.command;
+
+import com.cookingfox.chefling.api.CheflingRequestScope;
+import com.cookingfox.chefling.api.CheflingScope;
+
+public interface OpenRequestScopeCommand {
+
+    /**
+     * Opens a request scope on the current thread, for the types that are mapped with
+     * {@link CheflingScope#REQUEST}. Request scopes can be nested: closing a scope makes the
+     * previous scope active again. Opening a scope does not create a container.
+     *
+     * @return The request scope, which should be closed at the end of the request.
+     */
+    CheflingRequestScope openRequestScope();
+
+}
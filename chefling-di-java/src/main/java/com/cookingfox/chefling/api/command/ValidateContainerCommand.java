@@ -2,6 +2,9 @@ package com.cookingfox.chefling.api.command;
 
 import com.cookingfox.chefling.api.CheflingContainer;
 import com.cookingfox.chefling.api.exception.ContainerException;
+import com.cookingfox.chefling.api.exception.ContainerValidationException;
+
+import java.util.concurrent.ForkJoinPool;
 
 public interface ValidateContainerCommand {
 
@@ -16,4 +19,16 @@ public interface ValidateContainerCommand {
      */
     void validateContainer();
 
+    /**
+     * Same as {@link #validateContainer()}, but resolves the mappings in parallel using the
+     * provided pool: the types that do not depend on each other are resolved by separate tasks.
+     * Instead of stopping at the first failure, all failures are collected and reported at once.
+     * Types that depend on a type that failed are not resolved.
+     *
+     * @param pool The pool that runs the validation tasks.
+     * @throws ContainerValidationException when one or more types could not be resolved.
+     * @see #validateContainer()
+     */
+    void validateContainer(ForkJoinPool pool);
+
 }
@@ -0,0 +1,43 @@
+package com.cookingfox.chefling.api.exception;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown when the container was disposed, but not all instances were disposed successfully: either
+ * a {@link com.cookingfox.chefling.api.CheflingLifecycle#dispose()} call threw, or the disposal did
+ * not complete before the deadline. The container itself is disposed completely.
+ */
+public class ContainerDisposeException extends ContainerException {
+
+    private final List<RuntimeException> failures;
+    private final List<Class> notDisposed;
+
+    public ContainerDisposeException(List<RuntimeException> failures, List<Class> notDisposed) {
+        super(String.format("Container disposal was not completed successfully: %d instance(s) " +
+                "threw, %d instance(s) were not disposed before the deadline %s", failures.size(),
+                notDisposed.size(), notDisposed));
+
+        this.failures = Collections.unmodifiableList(failures);
+        this.notDisposed = Collections.unmodifiableList(notDisposed);
+
+        for (RuntimeException failure : failures) {
+            addSuppressed(failure);
+        }
+    }
+
+    /**
+     * @return The exceptions thrown by the dispose calls.
+     */
+    public List<RuntimeException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return The types of the instances that were not disposed before the deadline.
+     */
+    public List<Class> getNotDisposed() {
+        return notDisposed;
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.cookingfox.chefling.api.exception;
+
+/**
+ * Thrown when an operation is not supported by a frozen container.
+ *
+ * @see com.cookingfox.chefling.api.CheflingContainer#freezeContainer()
+ */
+public class ContainerFrozenException extends ContainerException {
+
+    public ContainerFrozenException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.cookingfox.chefling.api.exception;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thrown by a parallel container validation when one or more types could not be resolved. Contains
+ * all failures that were found, instead of only the first.
+ */
+public class ContainerValidationException extends ContainerException {
+
+    private final Map<Class, RuntimeException> failures;
+
+    public ContainerValidationException(Map<Class, RuntimeException> failures) {
+        super(buildMessage(failures));
+
+        this.failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+
+        for (RuntimeException failure : failures.values()) {
+            addSuppressed(failure);
+        }
+    }
+
+    /**
+     * @return The exceptions that occurred, by the type that could not be resolved.
+     */
+    public Map<Class, RuntimeException> getFailures() {
+        return failures;
+    }
+
+    private static String buildMessage(Map<Class, RuntimeException> failures) {
+        StringBuilder message = new StringBuilder();
+        message.append(String.format("Container validation failed for %d type(s):", failures.size()));
+
+        for (Map.Entry<Class, RuntimeException> failure : failures.entrySet()) {
+            message.append(String.format("\n- %s: %s", failure.getKey().getName(), failure.getValue().getMessage()));
+        }
+
+        return message.toString();
+    }
+
+}
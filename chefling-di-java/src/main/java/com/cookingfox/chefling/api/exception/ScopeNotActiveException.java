@@ -0,0 +1,16 @@
+package com.cookingfox.chefling.api.exception;
+
+/**
+ * Thrown when a type with a request scoped mapping is requested, while no request scope is active
+ * on the current thread.
+ *
+ * @see com.cookingfox.chefling.api.CheflingContainer#openRequestScope()
+ */
+public class ScopeNotActiveException extends ContainerException {
+
+    public ScopeNotActiveException(Class type) {
+        super(String.format("Type '%s' is request scoped, but no request scope is active on this " +
+                "thread: use `CheflingContainer#openRequestScope()`", type.getName()));
+    }
+
+}
@@ -5,6 +5,10 @@ package com.cookingfox.chefling.api.exception;
  */
 public class TypeNotInstantiableException extends TypeNotAllowedException {
 
+    public TypeNotInstantiableException(String message) {
+        super(message);
+    }
+
     public TypeNotInstantiableException(Class type, String reason) {
         super(String.format("Type '%s' is not instantiable, because %s", type.getName(), reason));
     }
@@ -62,7 +62,7 @@ public class CheflingConfigSet implements CheflingConfig, CheflingConfigCollecti
 
         for (CheflingConfig config : configs) {
             try {
-                config.apply(container);
+                applyConfig(config, container);
             } catch (Exception e) {
                 throw new ContainerBuilderException("An error occurred during build container", e);
             }
@@ -91,4 +91,18 @@ public class CheflingConfigSet implements CheflingConfig, CheflingConfigCollecti
         return this;
     }
 
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Applies one of the configs of this set to the container.
+     *
+     * @param config    The config to apply.
+     * @param container The container to configure.
+     */
+    protected void applyConfig(CheflingConfig config, CheflingContainer container) {
+        config.apply(container);
+    }
+
 }
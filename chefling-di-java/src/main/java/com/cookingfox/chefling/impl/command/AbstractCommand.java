@@ -1,7 +1,7 @@
 package com.cookingfox.chefling.impl.command;
 
-import com.cookingfox.chefling.api.CheflingContainer;
 import com.cookingfox.chefling.api.CheflingLifecycle;
+import com.cookingfox.chefling.api.CheflingScope;
 import com.cookingfox.chefling.api.exception.*;
 import com.cookingfox.chefling.impl.helper.CommandContainerMatcher;
 import com.cookingfox.chefling.impl.helper.CommandContainerVisitor;
@@ -23,6 +23,18 @@ public abstract class AbstractCommand {
     protected static final String PACKAGE_JAVA = "java";
     protected static final String PACKAGE_JAVAX = "javax";
 
+    /**
+     * The verdicts of {@link #isAllowed(Class)} and {@link #isInstantiable(Class)}, by type. A type's
+     * verdicts never change, so they are computed once. Stored using a {@link ClassValue}, so they
+     * do not keep the type from being garbage collected.
+     */
+    protected static final ClassValue<Admissibility> ADMISSIBILITY = new ClassValue<Admissibility>() {
+        @Override
+        protected Admissibility computeValue(Class<?> type) {
+            return new Admissibility(type);
+        }
+    };
+
     //----------------------------------------------------------------------------------------------
     //  PROPERTIES
     //----------------------------------------------------------------------------------------------
@@ -53,14 +65,34 @@ public abstract class AbstractCommand {
      * @throws ContainerException when an error occurs.
      */
     protected void addMapping(Class type, Object value) {
+        addMapping(type, value, CheflingScope.SINGLETON);
+    }
+
+    /**
+     * Checks whether `type` is allowed and whether a mapping already exists. If everything is okay,
+     * the mapping and its scope will be added, otherwise an exception will be thrown.
+     *
+     * @param type  The type to map.
+     * @param value The value for the mapping.
+     * @param scope The scope of the instances that are resolved for the mapping.
+     * @throws ContainerException when an error occurs.
+     */
+    protected void addMapping(Class type, Object value, CheflingScope scope) {
         isAllowed(type);
 
-        synchronized (_container) {
+        // lock the index, which is shared by all containers in the tree
+        synchronized (_container.index) {
             if (_container.hasInstanceOrMapping(type)) {
                 throw new TypeMappingAlreadyExistsException(type);
             }
 
+            // only other scopes than the default are stored
+            if (scope != CheflingScope.SINGLETON) {
+                _container.scopes.put(type, scope);
+            }
+
             _container.mappings.put(type, value);
+            _container.index.add(type, _container);
         }
     }
 
@@ -78,42 +110,19 @@ public abstract class AbstractCommand {
     }
 
     /**
-     * Checks for mapping conflicts between the current container and the provided container
-     * instance. Throws when there is a duplicate mapping or instance.
+     * Checks for mapping conflicts between the tree of the current container and the tree of the
+     * provided container instance, by comparing the type indexes of both trees. Throws when there
+     * is a duplicate mapping or instance.
      *
      * @param container The new container.
      * @throws ContainerException there is a configuration conflict.
      */
     protected void checkMappingConflicts(CommandContainer container) {
-        for (Class type : compileTypes(container)) {
-            if (_container.hasInstanceOrMapping(type)) {
-                throw new ConfigurationConflictException(type);
-            }
-        }
-    }
+        Class conflict = _container.index.findConflict(container.index);
 
-    /**
-     * Generate a set of types for all instances and types of the full tree of container children.
-     *
-     * @param container The source container.
-     * @return Set of all types within the container.
-     */
-    protected Set<Class> compileTypes(CommandContainer container) {
-        final Set<Class> types = new LinkedHashSet<>();
-
-        visitAll(container, new CommandContainerVisitor() {
-            @Override
-            public void visit(CommandContainer container) {
-                types.addAll(container.instances.keySet());
-                types.addAll(container.mappings.keySet());
-            }
-        });
-
-        // remove the default mappings
-        types.remove(CheflingContainer.class);
-        types.remove(CommandContainer.class);
-
-        return types;
+        if (conflict != null) {
+            throw new ConfigurationConflictException(conflict);
+        }
     }
 
     /**
@@ -164,11 +173,13 @@ public abstract class AbstractCommand {
             return null;
         }
 
+        int id = TypeIds.get(type);
+
         // attempt to get instance from matching container
-        Object instance = match.instances.get(type);
+        Object instance = match.instances.getById(id);
 
         // attempt to get mapping from matching container
-        return instance != null ? instance : match.mappings.get(type);
+        return instance != null ? instance : match.mappings.getById(id);
     }
 
     /**
@@ -188,14 +199,19 @@ public abstract class AbstractCommand {
     }
 
     /**
-     * Find a container in all children that contains an instance or mapping for the provided type.
+     * Find a container in the tree that contains an instance or mapping for the provided type. The
+     * target container is checked first, after which the tree's type index is used.
      *
-     * @param container The target container to use to get the root.
+     * @param container The target container.
      * @param type      The type to match.
      * @return The matching container or null.
      */
     protected CommandContainer findOneWithInstanceOrMapping(CommandContainer container, Class type) {
-        return findOne(container, HasInstanceOrMappingMatcher.get(type));
+        if (hasOwnInstanceOrMapping(container, type)) {
+            return container;
+        }
+
+        return container.index.get(type);
     }
 
     /**
@@ -221,6 +237,20 @@ public abstract class AbstractCommand {
         return null;
     }
 
+    /**
+     * Whether the provided container itself (not its parent or children) has an instance or mapping
+     * for the provided type.
+     *
+     * @param container The container to check.
+     * @param type      The type to check for.
+     * @return Whether the container has an instance or mapping for the type.
+     */
+    protected static boolean hasOwnInstanceOrMapping(CommandContainer container, Class type) {
+        int id = TypeIds.get(type);
+
+        return container.instances.containsId(id) || container.mappings.containsId(id);
+    }
+
     /**
      * Recursively find the root container, which is the container instance that has no parent set.
      *
@@ -231,6 +261,14 @@ public abstract class AbstractCommand {
         return current.parent == null ? current : getRoot(current.parent);
     }
 
+    /**
+     * @param type The type to get the verdicts for.
+     * @return Whether the type is allowed and instantiable, which is determined once per type.
+     */
+    protected static Admissibility getAdmissibility(Class type) {
+        return ADMISSIBILITY.get(type);
+    }
+
     /**
      * Is this type allowed to be mapped in the container?
      *
@@ -238,24 +276,10 @@ public abstract class AbstractCommand {
      * @throws TypeNotAllowedException when the type is not allowed.
      */
     protected void isAllowed(Class type) throws TypeNotAllowedException {
-        if (isInPackage(type, PACKAGE_JAVAX)) {
-            throw new TypeNotAllowedException(type, "a member of the `javax.` package");
-        } else if (isInPackage(type, PACKAGE_JAVA)) {
-            throw new TypeNotAllowedException(type, "a member of the `java.` package");
-        } else if (isInPackage(type, PACKAGE_CHEFLING)) {
-            throw new TypeNotAllowedException(type, "part of the Chefling library");
-        } else if (type.isEnum()) {
-            throw new TypeNotAllowedException(type, "an enum");
-        } else if (type.isAnnotation()) {
-            throw new TypeNotAllowedException(type, "an annotation");
-        }
-
-        int modifiers = type.getModifiers();
+        Admissibility admissibility = getAdmissibility(type);
 
-        if (!Modifier.isPublic(modifiers)) {
-            throw new TypeNotAllowedException(type, "not public");
-        } else if (type.isMemberClass() && !Modifier.isStatic(modifiers)) {
-            throw new TypeNotAllowedException(type, "a member class");
+        if (admissibility.notAllowedMessage != null) {
+            throw new TypeNotAllowedException(admissibility.notAllowedMessage);
         }
     }
 
@@ -266,18 +290,10 @@ public abstract class AbstractCommand {
      * @throws TypeNotAllowedException when the type is not allowed or not instantiable.
      */
     protected void isInstantiable(Class type) throws TypeNotAllowedException {
-        isAllowed(type);
-
-        String errorReason = null;
-
-        if (type.isInterface()) {
-            errorReason = "an interface";
-        } else if (Modifier.isAbstract(type.getModifiers())) {
-            errorReason = "an abstract class";
-        }
+        Admissibility admissibility = getAdmissibility(type);
 
-        if (errorReason != null) {
-            throw new TypeNotInstantiableException(type, "it is ".concat(errorReason));
+        if (!admissibility.isInstantiable()) {
+            throw admissibility.createException();
         }
     }
 
@@ -288,7 +304,7 @@ public abstract class AbstractCommand {
      * @param pkg  The root package name.
      * @return Whether this type is in the provided package.
      */
-    protected boolean isInPackage(Class type, String pkg) {
+    protected static boolean isInPackage(Class type, String pkg) {
         return type.getName().startsWith(pkg);
     }
 
@@ -334,42 +350,112 @@ public abstract class AbstractCommand {
 
     /**
      * A {@link CommandContainerMatcher} implementation that returns true if the provided container
-     * has an instance mapping for the provided type. This is an optimization: by using
-     * {@link HasInstanceOrMappingMatcher#get(Class)} we can re-use the matcher instance.
+     * has an instance or mapping for the provided type. Instances are immutable, so they can be
+     * used by multiple threads. The owner lookups of the commands do not use this matcher, but call
+     * {@link #hasOwnInstanceOrMapping(CommandContainer, Class)} directly, so they do not allocate.
      */
     protected static class HasInstanceOrMappingMatcher implements CommandContainerMatcher {
 
         /**
-         * The matcher instance to re-use.
+         * The type to match.
+         */
+        protected final Class type;
+
+        public HasInstanceOrMappingMatcher(Class type) {
+            this.type = type;
+        }
+
+        @Override
+        public boolean matches(CommandContainer container) {
+            return hasOwnInstanceOrMapping(container, type);
+        }
+
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Whether a type is allowed to be used in the container and whether it can be instantiated,
+     * including the exception messages, so that the checks and the message formatting are done once
+     * per type.
+     */
+    protected static class Admissibility {
+
+        /**
+         * The message of the {@link TypeNotAllowedException}, or null if the type is allowed.
          */
-        protected static final HasInstanceOrMappingMatcher instance = new HasInstanceOrMappingMatcher();
+        protected final String notAllowedMessage;
 
         /**
-         * The type to match.
+         * The message of the {@link TypeNotInstantiableException}, or null if the type is
+         * instantiable. Only set for allowed types.
          */
-        Class type;
+        protected final String notInstantiableMessage;
+
+        protected Admissibility(Class type) {
+            String notAllowedReason = getNotAllowedReason(type);
+            String notInstantiableReason = null;
+
+            if (notAllowedReason == null) {
+                if (type.isInterface()) {
+                    notInstantiableReason = "an interface";
+                } else if (Modifier.isAbstract(type.getModifiers())) {
+                    notInstantiableReason = "an abstract class";
+                }
+            }
+
+            this.notAllowedMessage = notAllowedReason == null ? null :
+                    new TypeNotAllowedException(type, notAllowedReason).getMessage();
+            this.notInstantiableMessage = notInstantiableReason == null ? null :
+                    new TypeNotInstantiableException(type, "it is ".concat(notInstantiableReason)).getMessage();
+        }
 
         /**
-         * Constructor is disabled: use {@link #get(Class)}.
+         * @return The exception for a type that is not allowed or not instantiable.
          */
-        private HasInstanceOrMappingMatcher() {
+        protected TypeNotAllowedException createException() {
+            if (notAllowedMessage != null) {
+                return new TypeNotAllowedException(notAllowedMessage);
+            }
+
+            return new TypeNotInstantiableException(notInstantiableMessage);
         }
 
-        @Override
-        public boolean matches(CommandContainer container) {
-            return container.instances.containsKey(type) || container.mappings.containsKey(type);
+        /**
+         * @return Whether the type is allowed and instantiable.
+         */
+        protected boolean isInstantiable() {
+            return notAllowedMessage == null && notInstantiableMessage == null;
         }
 
         /**
-         * Get the matcher instance for the provided type.
-         *
-         * @param type The type to match.
-         * @return The matcher instance.
+         * @param type The type to check.
+         * @return Why the type is not allowed to be used in the container, or null if it is allowed.
          */
-        public static HasInstanceOrMappingMatcher get(Class type) {
-            instance.type = type;
+        protected static String getNotAllowedReason(Class type) {
+            if (isInPackage(type, PACKAGE_JAVAX)) {
+                return "a member of the `javax.` package";
+            } else if (isInPackage(type, PACKAGE_JAVA)) {
+                return "a member of the `java.` package";
+            } else if (isInPackage(type, PACKAGE_CHEFLING)) {
+                return "part of the Chefling library";
+            } else if (type.isEnum()) {
+                return "an enum";
+            } else if (type.isAnnotation()) {
+                return "an annotation";
+            }
+
+            int modifiers = type.getModifiers();
 
-            return instance;
+            if (!Modifier.isPublic(modifiers)) {
+                return "not public";
+            } else if (type.isMemberClass() && !Modifier.isStatic(modifiers)) {
+                return "a member class";
+            }
+
+            return null;
         }
 
     }
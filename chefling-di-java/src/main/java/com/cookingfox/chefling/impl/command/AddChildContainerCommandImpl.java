@@ -39,11 +39,17 @@ public class AddChildContainerCommandImpl extends AbstractCommand implements Add
             throw new InvalidChildContainerException("Child container has already been added");
         }
 
-        checkMappingConflicts(child);
+        CommandContainerIndex index = _container.index;
 
-        child.parent = _container;
+        // lock the index, which is shared by all containers in the tree
+        synchronized (index) {
+            checkMappingConflicts(child);
 
-        _container.children.add(child);
+            child.parent = _container;
+
+            _container.addChild(child);
+            index.merge(child);
+        }
     }
 
 }
@@ -0,0 +1,279 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingMetrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Measures the bytes that the current thread allocates while instances are created, using the
+ * thread allocation counter of the JVM. Measuring is done per thread: every creation starts a new
+ * frame, and nested creations have their own frame. The bytes of a nested creation are included in
+ * the frame that uses it, but not in that frame's exclusive amount.
+ * <p>
+ * Within a frame, only the windows between {@link #startMeasuring()} and {@link #stopMeasuring()}
+ * are measured: the calls of the constructor, factory and initialize method. The work of the
+ * container itself, like compiling the resolution plan of the type, and the calls of the metrics
+ * and tracer hooks are not measured. A window is paused while a nested creation is in progress,
+ * and while the container does its own work for a request of a factory, see {@link #pause()}.
+ * <p>
+ * The frames are stored in arrays that are reused, so that the recorder does not allocate while it
+ * is measuring.
+ *
+ * @see CheflingMetrics#recordAllocation(Class, long, long)
+ */
+public final class AllocationRecorder {
+
+    //----------------------------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The frames of the instance creations of the current thread.
+     */
+    private static final ThreadLocal<Frames> FRAMES = new ThreadLocal<Frames>() {
+        @Override
+        protected Frames initialValue() {
+            return new Frames();
+        }
+    };
+
+    /**
+     * The JVM's thread bean, or null if it can not measure thread allocations.
+     */
+    private static final com.sun.management.ThreadMXBean THREADS = getThreadMXBean();
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTOR
+    //----------------------------------------------------------------------------------------------
+
+    private AllocationRecorder() {
+        // should not be instantiated
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC STATIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Starts a frame for an instance creation, pausing the measuring window of the creation that
+     * uses it. Must be followed by {@link #end(Class, CheflingMetrics)}.
+     */
+    public static void begin() {
+        Frames frames = FRAMES.get();
+        frames.pause(getAllocatedBytes());
+        frames.push();
+    }
+
+    /**
+     * Ends the frame of the current instance creation and records its allocations. The measuring
+     * window of the creation that uses it is resumed after the allocations are recorded.
+     *
+     * @param type    The type of the created instance.
+     * @param metrics The hook to record the allocations with, or null to only end the frame.
+     */
+    public static void end(Class type, CheflingMetrics metrics) {
+        Frames frames = FRAMES.get();
+        frames.pop();
+
+        if (metrics != null) {
+            metrics.recordAllocation(type, frames.inclusive, frames.exclusive);
+        }
+
+        frames.resume(getAllocatedBytes());
+    }
+
+    /**
+     * @return Whether the JVM can measure the allocations of a thread.
+     */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Pauses the measuring window of the current frame, if it is open, while the container does
+     * its own work. Must be followed by {@link #resume()}.
+     */
+    public static void pause() {
+        Frames frames = FRAMES.get();
+        frames.pause(getAllocatedBytes());
+    }
+
+    /**
+     * Resumes the measuring window of the current frame after {@link #pause()}.
+     */
+    public static void resume() {
+        Frames frames = FRAMES.get();
+        frames.resume(getAllocatedBytes());
+    }
+
+    /**
+     * Starts measuring the allocations of the current frame: called right before the constructor,
+     * factory or initialize method. Must be followed by {@link #stopMeasuring()}. Has no effect
+     * outside a frame.
+     */
+    public static void startMeasuring() {
+        Frames frames = FRAMES.get();
+        frames.start(getAllocatedBytes());
+    }
+
+    /**
+     * Stops measuring the allocations of the current frame and adds them to its exclusive bytes.
+     */
+    public static void stopMeasuring() {
+        long allocatedBytes = getAllocatedBytes();
+        FRAMES.get().stop(allocatedBytes);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PRIVATE STATIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @return The number of bytes the current thread allocated since it started.
+     */
+    private static long getAllocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return The JVM's thread bean with allocation measurement enabled, or null if the JVM does
+     * not support it.
+     */
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        try {
+            Object bean = ManagementFactory.getThreadMXBean();
+
+            if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+                return null;
+            }
+
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+
+            if (!threads.isThreadAllocatedMemorySupported()) {
+                return null;
+            } else if (!threads.isThreadAllocatedMemoryEnabled()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+            }
+
+            return threads;
+        } catch (LinkageError | UnsupportedOperationException | SecurityException e) {
+            // not a HotSpot based JVM, or no management support
+            return null;
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The frames of a thread: per frame, the bytes of its measuring windows, the bytes of the
+     * nested creations that ended, and the state of its measuring window. A window is measured
+     * while it is open and not paused.
+     */
+    private static final class Frames {
+
+        private long[] exclusives = new long[16];
+        private long[] nested = new long[16];
+        private int[] pauses = new int[16];
+        private long[] windowStarts = new long[16];
+        private int[] windows = new int[16];
+        private int depth;
+
+        /**
+         * The bytes of the frame that was popped last, including and excluding nested frames.
+         */
+        private long exclusive;
+        private long inclusive;
+
+        /**
+         * Pauses the measuring window of the current frame. Pauses can be nested.
+         *
+         * @param allocatedBytes The allocated bytes of the thread.
+         */
+        private void pause(long allocatedBytes) {
+            int frame = depth - 1;
+
+            if (frame >= 0 && pauses[frame]++ == 0 && windows[frame] > 0) {
+                exclusives[frame] += allocatedBytes - windowStarts[frame];
+            }
+        }
+
+        /**
+         * Ends the current frame.
+         */
+        private void pop() {
+            depth--;
+
+            exclusive = exclusives[depth];
+            inclusive = exclusive + nested[depth];
+
+            // the creation that uses this instance includes its bytes
+            if (depth > 0) {
+                nested[depth - 1] += inclusive;
+            }
+        }
+
+        /**
+         * Starts a frame.
+         */
+        private void push() {
+            if (depth == exclusives.length) {
+                exclusives = Arrays.copyOf(exclusives, depth * 2);
+                nested = Arrays.copyOf(nested, depth * 2);
+                pauses = Arrays.copyOf(pauses, depth * 2);
+                windowStarts = Arrays.copyOf(windowStarts, depth * 2);
+                windows = Arrays.copyOf(windows, depth * 2);
+            }
+
+            exclusives[depth] = 0;
+            nested[depth] = 0;
+            pauses[depth] = 0;
+            windows[depth] = 0;
+            depth++;
+        }
+
+        /**
+         * Resumes the measuring window of the current frame, after the last pause.
+         *
+         * @param allocatedBytes The allocated bytes of the thread.
+         */
+        private void resume(long allocatedBytes) {
+            int frame = depth - 1;
+
+            if (frame >= 0 && --pauses[frame] == 0 && windows[frame] > 0) {
+                windowStarts[frame] = allocatedBytes;
+            }
+        }
+
+        /**
+         * Opens a measuring window of the current frame. Windows can be nested: only the outer
+         * window is measured.
+         *
+         * @param allocatedBytes The allocated bytes of the thread.
+         */
+        private void start(long allocatedBytes) {
+            int frame = depth - 1;
+
+            if (frame >= 0 && windows[frame]++ == 0 && pauses[frame] == 0) {
+                windowStarts[frame] = allocatedBytes;
+            }
+        }
+
+        /**
+         * Closes a measuring window of the current frame.
+         *
+         * @param allocatedBytes The allocated bytes of the thread.
+         */
+        private void stop(long allocatedBytes) {
+            int frame = depth - 1;
+
+            if (frame >= 0 && --windows[frame] == 0 && pauses[frame] == 0) {
+                exclusives[frame] += allocatedBytes - windowStarts[frame];
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,532 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingContainerListener;
+import com.cookingfox.chefling.api.CheflingFactory;
+import com.cookingfox.chefling.api.CheflingMetrics;
+import com.cookingfox.chefling.api.CheflingRequestScope;
+import com.cookingfox.chefling.api.CheflingScope;
+import com.cookingfox.chefling.api.CheflingTracer;
+import com.cookingfox.chefling.api.command.*;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CheflingContainer} implementation that uses command classes for each container operation.
+ */
+public class CommandContainer implements CheflingContainer {
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Whether the bytes that are allocated by instance creations are recorded using
+     * {@link #metrics}.
+     */
+    protected boolean allocationAccounting;
+
+    /**
+     * A collection of child container configurations. Empty and immutable until the first child is
+     * added, so that containers without children do not allocate a set.
+     */
+    protected Set<CommandContainer> children = Collections.emptySet();
+
+    /**
+     * A collection of container listeners, so that they can be notified of events in the container
+     * lifecycle. Empty and immutable until the first listener is added.
+     */
+    protected Set<CheflingContainerListener> containerListeners = Collections.emptySet();
+
+    /**
+     * The instances that the stored instances used when they were created, by type. Used to
+     * dispose instances before the instances they depend on. Empty and immutable until the first
+     * dependency is recorded.
+     */
+    protected volatile Map<Class, Set<Object>> dependencies = Collections.emptyMap();
+
+    /**
+     * Executor for the disposal of instances. Null to dispose instances in the calling thread.
+     */
+    protected Executor disposeExecutor;
+
+    /**
+     * The maximum time in nanoseconds that the disposal of instances may take. Zero for no limit.
+     */
+    protected long disposeTimeoutNanos;
+
+    /**
+     * Index of the types in the tree of containers this container belongs to. Shared by all
+     * containers in the tree.
+     */
+    protected volatile CommandContainerIndex index;
+
+    /**
+     * Records how this container resolves types. Null if metrics are disabled.
+     */
+    protected CheflingMetrics metrics;
+
+    /**
+     * Records a timeline of the instance creations of this container. Null if tracing is disabled.
+     */
+    protected CheflingTracer tracer;
+
+    /**
+     * Stores created instances, where the key is the type and the value is the instance. This
+     * instance is returned the next time the type is requested. Instances can be read without
+     * locking.
+     */
+    protected final TypeIdMap<Object> instances = new TypeIdMap<>();
+
+    /**
+     * Stores type mappings, where the key is the type and the value is the mapping provided by the
+     * `map...` methods. Mappings can be read without locking.
+     */
+    protected final TypeIdMap<Object> mappings = new TypeIdMap<>();
+
+    /**
+     * The scopes of the mappings, by type. Only contains the mappings that do not use the default
+     * scope ({@link CheflingScope#SINGLETON}).
+     */
+    protected final TypeIdMap<CheflingScope> scopes = new TypeIdMap<>();
+
+    /**
+     * The instances of the {@link CheflingScope#THREAD} mappings. Null until the first thread
+     * scoped instance is requested.
+     */
+    protected volatile ThreadScope threadScope;
+
+    /**
+     * The parent container configuration.
+     */
+    protected CommandContainer parent;
+
+    //----------------------------------------------------------------------------------------------
+    // COMMAND INSTANCES
+    //----------------------------------------------------------------------------------------------
+
+    /*
+     * Commands are created when they are first used, so that short-lived containers only allocate
+     * the commands they need. Apart from the get instance, create instance and validate commands,
+     * the commands are stateless, so creating a duplicate in a race is harmless.
+     */
+
+    protected AddChildContainerCommand addChildContainer;
+    protected CreateChildContainerCommand createChildContainer;
+    protected volatile CreateInstanceCommand createInstance;
+    protected DisposeChildContainerCommand disposeChildContainer;
+    protected DisposeContainerCommand disposeContainer;
+    protected FreezeContainerCommand freezeContainer;
+    protected volatile GetInstanceCommand getInstance;
+    protected HasInstanceOrMappingCommand hasInstanceOrMapping;
+    protected MapFactoryCommand mapFactory;
+    protected MapInstanceCommand mapInstance;
+    protected MapTypeCommand mapType;
+    protected OpenRequestScopeCommand openRequestScope;
+    protected RemoveInstanceAndMappingCommand removeInstanceAndMapping;
+    protected SetParentContainerCommand setParentContainer;
+    protected volatile ValidateContainerCommand validateContainer;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public CommandContainer() {
+        this(new CommandContainerIndex());
+    }
+
+    /**
+     * Creates a container that uses an existing index, so that a child container does not need to
+     * allocate an index that is replaced when it is added to its parent.
+     *
+     * @param index The index of the tree the container will belong to.
+     */
+    protected CommandContainer(CommandContainerIndex index) {
+        this.index = index;
+
+        initializeContainer();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public void addChildContainer(CheflingContainer container) {
+        AddChildContainerCommand command = addChildContainer;
+
+        if (command == null) {
+            addChildContainer = command = new AddChildContainerCommandImpl(this);
+        }
+
+        command.addChildContainer(container);
+    }
+
+    @Override
+    public <T> T createInstance(Class<T> type) {
+        return getCreateInstanceCommand().createInstance(type);
+    }
+
+    @Override
+    public CheflingContainer createChildContainer() {
+        CreateChildContainerCommand command = createChildContainer;
+
+        if (command == null) {
+            createChildContainer = command = new CreateChildContainerCommandImpl(this);
+        }
+
+        return command.createChildContainer();
+    }
+
+    @Override
+    public void disposeChildContainer(CheflingContainer container) {
+        DisposeChildContainerCommand command = disposeChildContainer;
+
+        if (command == null) {
+            disposeChildContainer = command = new DisposeChildContainerCommandImpl(this);
+        }
+
+        command.disposeChildContainer(container);
+    }
+
+    @Override
+    public void disposeContainer() {
+        DisposeContainerCommand command = disposeContainer;
+
+        if (command == null) {
+            disposeContainer = command = new DisposeContainerCommandImpl(this);
+        }
+
+        command.disposeContainer();
+    }
+
+    @Override
+    public CheflingContainer freezeContainer() {
+        FreezeContainerCommand command = freezeContainer;
+
+        if (command == null) {
+            freezeContainer = command = new FreezeContainerCommandImpl(this);
+        }
+
+        return command.freezeContainer();
+    }
+
+    @Override
+    public <T> T getInstance(Class<T> type) {
+        return getGetInstanceCommand().getInstance(type);
+    }
+
+    @Override
+    public boolean hasInstanceOrMapping(Class type) {
+        HasInstanceOrMappingCommand command = hasInstanceOrMapping;
+
+        if (command == null) {
+            hasInstanceOrMapping = command = new HasInstanceOrMappingCommandImpl(this);
+        }
+
+        return command.hasInstanceOrMapping(type);
+    }
+
+    @Override
+    public <T> void mapFactory(Class<T> type, CheflingFactory<T> factory) {
+        mapFactory(type, factory, CheflingScope.SINGLETON);
+    }
+
+    @Override
+    public <T> void mapFactory(Class<T> type, CheflingFactory<T> factory, CheflingScope scope) {
+        MapFactoryCommand command = mapFactory;
+
+        if (command == null) {
+            mapFactory = command = new MapFactoryCommandImpl(this);
+        }
+
+        command.mapFactory(type, factory, scope);
+    }
+
+    @Override
+    public <T> void mapInstance(Class<T> type, T instance) {
+        MapInstanceCommand command = mapInstance;
+
+        if (command == null) {
+            mapInstance = command = new MapInstanceCommandImpl(this);
+        }
+
+        command.mapInstance(type, instance);
+    }
+
+    @Override
+    public <T> void mapType(Class<T> type, Class<? extends T> subType) {
+        mapType(type, subType, CheflingScope.SINGLETON);
+    }
+
+    @Override
+    public <T> void mapType(Class<T> type, Class<? extends T> subType, CheflingScope scope) {
+        MapTypeCommand command = mapType;
+
+        if (command == null) {
+            mapType = command = new MapTypeCommandImpl(this);
+        }
+
+        command.mapType(type, subType, scope);
+    }
+
+    @Override
+    public CheflingRequestScope openRequestScope() {
+        OpenRequestScopeCommand command = openRequestScope;
+
+        if (command == null) {
+            openRequestScope = command = new OpenRequestScopeCommandImpl(this);
+        }
+
+        return command.openRequestScope();
+    }
+
+    @Override
+    public void removeInstanceAndMapping(Class type) {
+        RemoveInstanceAndMappingCommand command = removeInstanceAndMapping;
+
+        if (command == null) {
+            removeInstanceAndMapping = command = new RemoveInstanceAndMappingCommandImpl(this);
+        }
+
+        command.removeInstanceAndMapping(type);
+    }
+
+    @Override
+    public void setParentContainer(CheflingContainer container) {
+        SetParentContainerCommand command = setParentContainer;
+
+        if (command == null) {
+            setParentContainer = command = new SetParentContainerCommandImpl(this);
+        }
+
+        command.setParentContainer(container);
+    }
+
+    @Override
+    public void validateContainer() {
+        getValidateContainerCommand().validateContainer();
+    }
+
+    @Override
+    public void validateContainer(ForkJoinPool pool) {
+        getValidateContainerCommand().validateContainer(pool);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Add a collection of container listeners.
+     *
+     * @param containerListeners The collection of listeners to add.
+     */
+    protected void addContainerListeners(Set<CheflingContainerListener> containerListeners) {
+        if (containerListeners.isEmpty()) {
+            return;
+        } else if (this.containerListeners.isEmpty()) {
+            this.containerListeners = new LinkedHashSet<>();
+        }
+
+        this.containerListeners.addAll(containerListeners);
+    }
+
+    /**
+     * Add a child container. Should be called while the index is locked.
+     *
+     * @param child The child container to add.
+     */
+    protected void addChild(CommandContainer child) {
+        if (children.isEmpty()) {
+            children = new LinkedHashSet<>();
+        }
+
+        children.add(child);
+    }
+
+    /**
+     * Store the instances that the instance of `type` used when it was created.
+     *
+     * @param type         The type of the created instance.
+     * @param dependencies The instances it depends on.
+     */
+    protected void addDependencies(Class type, Set<Object> dependencies) {
+        Map<Class, Set<Object>> map = this.dependencies;
+
+        if (!(map instanceof ConcurrentHashMap)) {
+            synchronized (this) {
+                if (!(this.dependencies instanceof ConcurrentHashMap)) {
+                    this.dependencies = new ConcurrentHashMap<>();
+                }
+
+                map = this.dependencies;
+            }
+        }
+
+        map.put(type, dependencies);
+    }
+
+    /**
+     * @return The create instance command, which is created once since it stores the resolution
+     * plans of this container.
+     */
+    protected CreateInstanceCommand getCreateInstanceCommand() {
+        CreateInstanceCommand command = createInstance;
+
+        if (command == null) {
+            synchronized (this) {
+                command = createInstance;
+
+                if (command == null) {
+                    createInstance = command = new CreateInstanceCommandImpl(this);
+                }
+            }
+        }
+
+        return command;
+    }
+
+    /**
+     * @return The get instance command, which is created once since it keeps track of the instance
+     * creations in progress.
+     */
+    protected GetInstanceCommand getGetInstanceCommand() {
+        GetInstanceCommand command = getInstance;
+
+        if (command == null) {
+            synchronized (this) {
+                command = getInstance;
+
+                if (command == null) {
+                    getInstance = command = new GetInstanceCommandImpl(this);
+                }
+            }
+        }
+
+        return command;
+    }
+
+    /**
+     * @return The thread scope of this container, which is created once since it stores the
+     * instances of all threads.
+     */
+    protected ThreadScope getThreadScope() {
+        ThreadScope scope = threadScope;
+
+        if (scope == null) {
+            synchronized (this) {
+                scope = threadScope;
+
+                if (scope == null) {
+                    threadScope = scope = new ThreadScope();
+                }
+            }
+        }
+
+        return scope;
+    }
+
+    /**
+     * @return The validate container command, which is created once since it only allows one
+     * validation at a time.
+     */
+    protected ValidateContainerCommand getValidateContainerCommand() {
+        ValidateContainerCommand command = validateContainer;
+
+        if (command == null) {
+            synchronized (this) {
+                command = validateContainer;
+
+                if (command == null) {
+                    validateContainer = command = new ValidateContainerCommandImpl(this);
+                }
+            }
+        }
+
+        return command;
+    }
+
+    /**
+     * Enable or disable allocation accounting for this container. Child containers that are
+     * created afterwards use the same setting.
+     *
+     * @param allocationAccounting Whether allocation accounting is enabled.
+     * @see AllocationRecorder
+     */
+    protected void setAllocationAccounting(boolean allocationAccounting) {
+        this.allocationAccounting = allocationAccounting;
+    }
+
+    /**
+     * Set the executor for the disposal of instances: instances that do not depend on each other are
+     * disposed in parallel. Only used when this container's {@link #disposeContainer()} or
+     * {@link #disposeChildContainer(CheflingContainer)} is called.
+     *
+     * @param executor The executor, or null to dispose instances in the calling thread.
+     */
+    protected void setDisposeExecutor(Executor executor) {
+        this.disposeExecutor = executor;
+    }
+
+    /**
+     * Set the maximum time the disposal of instances may take. Only used when this container's
+     * {@link #disposeContainer()} or {@link #disposeChildContainer(CheflingContainer)} is called.
+     * Dispose calls that are running on the dispose executor when the deadline passes are not
+     * interrupted, and may complete after the container was cleared.
+     *
+     * @param timeout The maximum time, or zero for no limit.
+     * @param unit    The unit of the timeout.
+     */
+    protected void setDisposeTimeout(long timeout, TimeUnit unit) {
+        this.disposeTimeoutNanos = unit.toNanos(timeout);
+    }
+
+    /**
+     * Set the hook that records how this container resolves types. Child containers that are
+     * created afterwards use the same hook.
+     *
+     * @param metrics The metrics hook, or null to disable metrics.
+     */
+    protected void setMetrics(CheflingMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Set the hook that records a timeline of the instance creations of this container. Child
+     * containers that are created afterwards use the same hook.
+     *
+     * @param tracer The tracer, or null to disable tracing.
+     */
+    protected void setTracer(CheflingTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Eagerly creates the instances of all mapped types. Called by the builder before the container
+     * is returned.
+     *
+     * @param executor The executor that creates the instances.
+     * @see ValidateContainerCommandImpl#warmUpContainer(Executor)
+     */
+    protected void warmUpContainer(Executor executor) {
+        new ValidateContainerCommandImpl(this).warmUpContainer(executor);
+    }
+
+    /**
+     * Initialize the container.
+     */
+    protected void initializeContainer() {
+        // set references to current container instance
+        instances.put(CheflingContainer.class, this);
+        instances.put(CommandContainer.class, this);
+    }
+
+}
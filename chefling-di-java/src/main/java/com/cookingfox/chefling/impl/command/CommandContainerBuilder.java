@@ -0,0 +1,301 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingBuilder;
+import com.cookingfox.chefling.api.CheflingConfig;
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingContainerListener;
+import com.cookingfox.chefling.api.CheflingMetrics;
+import com.cookingfox.chefling.api.CheflingTracer;
+import com.cookingfox.chefling.api.exception.ContainerBuilderException;
+import com.cookingfox.chefling.impl.CheflingConfigSet;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Implementation of {@link CheflingBuilder} that is used to configure and create an instance of the
+ * {@link CommandContainer}.
+ */
+public class CommandContainerBuilder extends CheflingConfigSet implements CheflingBuilder {
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Collection of container listeners.
+     */
+    protected final Set<CheflingContainerListener> containerListeners = new LinkedHashSet<>();
+
+    /**
+     * Whether the allocations of instance creations are recorded using the metrics hook.
+     */
+    protected boolean allocationAccounting;
+
+    /**
+     * Executor for the parallel disposal of the container. Null if the instances are disposed in
+     * the calling thread.
+     */
+    protected Executor disposeExecutor;
+
+    /**
+     * Maximum time that disposing the container may take, in nanoseconds. Zero for no deadline.
+     */
+    protected long disposeTimeoutNanos;
+
+    /**
+     * Hook that records how the container resolves types. Null if metrics are disabled.
+     */
+    protected CheflingMetrics metrics;
+
+    /**
+     * Hook that records a timeline of the build and the instance creations. Null if tracing is
+     * disabled.
+     */
+    protected CheflingTracer tracer;
+
+    /**
+     * Executor for the eager warm-up of the container. Null if the warm-up is disabled.
+     */
+    protected Executor warmUpExecutor;
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC STATIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a new instance of the default Chefling {@link CheflingContainer} implementation.
+     *
+     * @return A new container instance.
+     */
+    public static CheflingContainer createContainer() {
+        return new CommandContainer();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public CheflingBuilder addConfig(CheflingConfig config) {
+        return (CheflingBuilder) super.addConfig(config);
+    }
+
+    @Override
+    public CheflingBuilder addContainerListener(CheflingContainerListener listener) {
+        if (containerListeners.contains(requireNonNull(listener, "Listener can not be null"))) {
+            throw new ContainerBuilderException("Container listener was already added");
+        }
+
+        containerListeners.add(listener);
+
+        return this;
+    }
+
+    /**
+     * WARNING: this method is not meant to be called directly! Instead, call
+     * {@link #applyToContainer(CheflingContainer)}.
+     *
+     * @param container The container instance that is being configured.
+     * @throws UnsupportedOperationException when this method is called directly.
+     */
+    @Override
+    public void apply(CheflingContainer container) {
+        throw new UnsupportedOperationException("Do not call this method directly, instead, call " +
+                "`applyToContainer(CheflingContainer)`");
+    }
+
+    @Override
+    public CheflingContainer applyToContainer(CheflingContainer container) {
+        requireNonNull(container, "Container can not be null");
+
+        if (!(container instanceof CommandContainer)) {
+            throw new IllegalArgumentException("Expected a `CommandContainer` instance");
+        }
+
+        if (allocationAccounting && metrics == null) {
+            throw new ContainerBuilderException("Allocation accounting requires a metrics hook: " +
+                    "call `setMetrics(CheflingMetrics)`");
+        } else if (allocationAccounting && !AllocationRecorder.isSupported()) {
+            throw new ContainerBuilderException("Allocation accounting is not supported by this JVM");
+        }
+
+        // record the resolutions of the configs and the warm-up as well
+        if (metrics != null) {
+            ((CommandContainer) container).setMetrics(metrics);
+            ((CommandContainer) container).setAllocationAccounting(allocationAccounting);
+        }
+
+        if (tracer != null) {
+            ((CommandContainer) container).setTracer(tracer);
+        }
+
+        // container listener: pre builder apply
+        callContainerListeners(container, true);
+
+        // apply all configs to container
+        super.apply(container);
+
+        // create all mapped instances before the container is used
+        if (warmUpExecutor != null) {
+            if (tracer != null) {
+                tracer.begin(CheflingTracer.Category.WARM_UP, "warmUpContainer");
+            }
+
+            try {
+                ((CommandContainer) container).warmUpContainer(warmUpExecutor);
+            } catch (Exception e) {
+                throw new ContainerBuilderException("An error occurred during container warm-up", e);
+            } finally {
+                if (tracer != null) {
+                    tracer.end(CheflingTracer.Category.WARM_UP, "warmUpContainer");
+                }
+            }
+        }
+
+        // container listener: post builder apply
+        callContainerListeners(container, false);
+
+        // add container listeners so they can be used to during the dispose phase
+        ((CommandContainer) container).addContainerListeners(containerListeners);
+        ((CommandContainer) container).setDisposeExecutor(disposeExecutor);
+        ((CommandContainer) container).setDisposeTimeout(disposeTimeoutNanos, TimeUnit.NANOSECONDS);
+
+        return container;
+    }
+
+    @Override
+    public CheflingContainer buildContainer() {
+        return applyToContainer(createContainer());
+    }
+
+    @Override
+    public boolean containsConfig(CheflingConfig config) {
+        return super.containsConfig(config);
+    }
+
+    @Override
+    public CheflingBuilder removeConfig(CheflingConfig config) {
+        return (CheflingBuilder) super.removeConfig(config);
+    }
+
+    @Override
+    public CheflingBuilder removeContainerListener(CheflingContainerListener listener) {
+        if (!containerListeners.contains(requireNonNull(listener, "Listener can not be null"))) {
+            throw new ContainerBuilderException("Can not remove container listener that is not added: " + listener);
+        }
+
+        containerListeners.remove(listener);
+
+        return this;
+    }
+
+    @Override
+    public CheflingBuilder setAllocationAccounting(boolean enabled) {
+        allocationAccounting = enabled;
+
+        return this;
+    }
+
+    @Override
+    public CheflingBuilder setDisposeExecutor(Executor executor) {
+        disposeExecutor = executor;
+
+        return this;
+    }
+
+    @Override
+    public CheflingBuilder setDisposeTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Dispose timeout can not be negative");
+        }
+
+        disposeTimeoutNanos = requireNonNull(unit, "Unit can not be null").toNanos(timeout);
+
+        return this;
+    }
+
+    @Override
+    public CheflingBuilder setMetrics(CheflingMetrics metrics) {
+        this.metrics = metrics;
+
+        return this;
+    }
+
+    @Override
+    public CheflingBuilder setTracer(CheflingTracer tracer) {
+        this.tracer = tracer;
+
+        return this;
+    }
+
+    @Override
+    public CheflingBuilder setWarmUpExecutor(Executor executor) {
+        warmUpExecutor = executor;
+
+        return this;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Applies a config to the container, in a span of the tracer if tracing is enabled.
+     *
+     * @param config    The config to apply.
+     * @param container The container to configure.
+     */
+    @Override
+    protected void applyConfig(CheflingConfig config, CheflingContainer container) {
+        if (tracer == null) {
+            super.applyConfig(config, container);
+            return;
+        }
+
+        String name = config.getClass().getName();
+        tracer.begin(CheflingTracer.Category.CONFIG, name);
+
+        try {
+            super.applyConfig(config, container);
+        } finally {
+            tracer.end(CheflingTracer.Category.CONFIG, name);
+        }
+    }
+
+    /**
+     * Calls the builder methods of the container listeners, in a span of the tracer per listener if
+     * tracing is enabled.
+     *
+     * @param container The container that is being built.
+     * @param preApply  Whether to call {@link CheflingContainerListener#preBuilderApply}, or else
+     *                  {@link CheflingContainerListener#postBuilderApply}.
+     */
+    protected void callContainerListeners(CheflingContainer container, boolean preApply) {
+        for (CheflingContainerListener containerListener : containerListeners) {
+            String name = tracer == null ? null : containerListener.getClass().getName() +
+                    (preApply ? ".preBuilderApply" : ".postBuilderApply");
+
+            if (tracer != null) {
+                tracer.begin(CheflingTracer.Category.LISTENER, name);
+            }
+
+            try {
+                if (preApply) {
+                    containerListener.preBuilderApply(container);
+                } else {
+                    containerListener.postBuilderApply(container);
+                }
+            } finally {
+                if (tracer != null) {
+                    tracer.end(CheflingTracer.Category.LISTENER, name);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,342 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Index of all types in a tree of {@link CommandContainer} instances, where the key is the type and
+ * the value is the container that owns the instance or mapping for that type. All containers in a
+ * tree share the same index instance, so that the owner of a type can be found without traversing
+ * the tree.
+ * <p>
+ * The index also keeps a reverse index of the type mappings (see
+ * {@link CheflingContainer#mapType(Class, Class)}), so that the types that are mapped to a type can
+ * be found without scanning all mappings, and it keeps track of the {@link ResolutionPlan}s that
+ * were compiled in the tree, so that they can be invalidated when an instance or mapping they
+ * depend on changes.
+ */
+public class CommandContainerIndex {
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Owner containers by type. Can be read without locking.
+     */
+    protected final ConcurrentMap<Class, CommandContainer> owners = new ConcurrentHashMap<>();
+
+    /**
+     * Instance creations that are in progress in the tree, by type. Concurrent requests for a type
+     * that is being created by any container of the tree wait for the same creation, instead of
+     * creating another instance.
+     */
+    protected final ConcurrentMap<Class, GetInstanceCommandImpl.InstanceCreation> creations =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Types that are mapped to another type, by the type they are mapped to. Can be read without
+     * locking, but is only modified while synchronized on this index, so that a set that becomes
+     * empty can be removed without losing a type that is added concurrently.
+     */
+    protected final ConcurrentMap<Class, Set<Class>> mappedTo = new ConcurrentHashMap<>();
+
+    /**
+     * The type that a type is mapped to, by the mapped type.
+     */
+    protected final ConcurrentMap<Class, Class> mappingTargets = new ConcurrentHashMap<>();
+
+    /**
+     * Resolution plans by the types they depend on.
+     */
+    protected final ConcurrentMap<Class, Set<ResolutionPlan>> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented for every change of an instance or mapping, so that a plan that was compiled
+     * during a change can be detected.
+     */
+    protected final AtomicLong modificationCount = new AtomicLong();
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Register `owner` as the container that owns the instance or mapping for `type`. If another
+     * container is already registered for this type, it remains the owner.
+     *
+     * @param type  The type to register.
+     * @param owner The container that owns the type.
+     */
+    public void add(Class type, CommandContainer owner) {
+        if (!isDefaultType(type)) {
+            if (owners.putIfAbsent(type, owner) == null) {
+                addMappingTarget(type, owner.mappings.get(type));
+            }
+
+            invalidate(type);
+        }
+    }
+
+    /**
+     * Register all instances and mappings of `container` and its children.
+     *
+     * @param container The container to register the types of.
+     */
+    public void addAll(CommandContainer container) {
+        for (Class type : container.instances.keySet()) {
+            add(type, container);
+        }
+
+        for (Class type : container.mappings.keySet()) {
+            add(type, container);
+        }
+
+        for (CommandContainer child : container.children) {
+            addAll(child);
+        }
+    }
+
+    /**
+     * Finds a type that is indexed by both this index and the other index. Only the types of the
+     * smaller index are checked, so the cost is linear in the size of the smaller tree.
+     *
+     * @param other The index of another tree.
+     * @return A type that both trees have an instance or mapping for, or null if there is none.
+     */
+    public Class findConflict(CommandContainerIndex other) {
+        CommandContainerIndex smaller = owners.size() <= other.owners.size() ? this : other;
+        CommandContainerIndex larger = smaller == this ? other : this;
+
+        for (Class type : smaller.owners.keySet()) {
+            if (larger.owners.containsKey(type)) {
+                return type;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the container that owns the instance or mapping for `type`.
+     *
+     * @param type The type to get the owner for.
+     * @return The owner container, or null if no container owns the type.
+     */
+    public CommandContainer get(Class type) {
+        return owners.get(type);
+    }
+
+    /**
+     * Returns the types that are mapped to `type` using
+     * {@link CheflingContainer#mapType(Class, Class)}, in any container of the tree.
+     *
+     * @param type The type to get the mapped types for.
+     * @return The mapped types, or an empty set if no types are mapped to `type`.
+     */
+    public Set<Class> getTypesMappedTo(Class type) {
+        Set<Class> types = mappedTo.get(type);
+
+        return types == null ? Collections.<Class>emptySet() : Collections.unmodifiableSet(types);
+    }
+
+    /**
+     * @return The current modification count: pass it to {@link #register(ResolutionPlan, long)}.
+     */
+    public long getModificationCount() {
+        return modificationCount.get();
+    }
+
+    /**
+     * Invalidates the resolution plans that depend on `type`, because an instance or mapping for
+     * the type changed.
+     *
+     * @param type The type that changed.
+     */
+    public void invalidate(Class type) {
+        modificationCount.incrementAndGet();
+
+        Set<ResolutionPlan> dependents = plans.remove(type);
+
+        if (dependents != null) {
+            for (ResolutionPlan plan : dependents) {
+                unregister(plan);
+            }
+        }
+    }
+
+    /**
+     * Invalidates all resolution plans, because the index is no longer used.
+     */
+    public void invalidateAll() {
+        modificationCount.incrementAndGet();
+
+        for (Set<ResolutionPlan> dependents : plans.values()) {
+            for (ResolutionPlan plan : dependents) {
+                plan.invalidate();
+            }
+        }
+
+        plans.clear();
+    }
+
+    /**
+     * Registers a resolution plan, so that it is invalidated when one of its dependencies changes.
+     * If an instance or mapping changed since `modificationCount` was read, the plan may already be
+     * outdated: it is not registered.
+     *
+     * @param plan              The compiled plan.
+     * @param modificationCount The modification count from before the plan was compiled.
+     * @return Whether the plan was registered and can be reused.
+     */
+    public boolean register(ResolutionPlan plan, long modificationCount) {
+        for (Class type : plan.dependencies) {
+            Set<ResolutionPlan> dependents = plans.get(type);
+
+            if (dependents == null) {
+                Set<ResolutionPlan> created = Collections.newSetFromMap(new ConcurrentHashMap<ResolutionPlan, Boolean>());
+                dependents = plans.putIfAbsent(type, created);
+
+                if (dependents == null) {
+                    dependents = created;
+                }
+            }
+
+            dependents.add(plan);
+        }
+
+        // changed while compiling or registering: an invalidation may have been missed
+        if (this.modificationCount.get() != modificationCount) {
+            unregister(plan);
+
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes the registration for `type`, but only if `owner` is the registered owner.
+     *
+     * @param type  The type to remove.
+     * @param owner The container that no longer owns the type.
+     */
+    public void remove(Class type, CommandContainer owner) {
+        if (owners.remove(type, owner)) {
+            removeMappingTarget(type);
+        }
+
+        invalidate(type);
+    }
+
+    /**
+     * Merges the types of the tree that `container` belongs to into this index, and makes all
+     * containers in that tree use this index.
+     *
+     * @param container A container of the tree that is being attached.
+     */
+    public synchronized void merge(CommandContainer container) {
+        addAll(container);
+        share(container);
+    }
+
+    /**
+     * Makes `container` and all its children use this index instance.
+     *
+     * @param container The container to share this index with.
+     */
+    public void share(CommandContainer container) {
+        CommandContainerIndex previous = container.index;
+
+        container.index = this;
+
+        // plans that were compiled using the previous index may have missed types of this tree
+        if (previous != this) {
+            previous.invalidateAll();
+        }
+
+        for (CommandContainer child : container.children) {
+            share(child);
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Adds `type` to the reverse index, if its mapping value is a type.
+     *
+     * @param type  The mapped type.
+     * @param value The mapping value of the type.
+     */
+    protected synchronized void addMappingTarget(Class type, Object value) {
+        if (!(value instanceof Class)) {
+            return;
+        }
+
+        Class target = (Class) value;
+        Set<Class> types = mappedTo.get(target);
+
+        if (types == null) {
+            types = Collections.newSetFromMap(new ConcurrentHashMap<Class, Boolean>());
+            mappedTo.put(target, types);
+        }
+
+        types.add(type);
+        mappingTargets.put(type, target);
+    }
+
+    /**
+     * Removes `type` from the reverse index, and removes the set of its target if it becomes empty.
+     *
+     * @param type The type that is no longer mapped.
+     */
+    protected synchronized void removeMappingTarget(Class type) {
+        Class target = mappingTargets.remove(type);
+
+        if (target == null) {
+            return;
+        }
+
+        Set<Class> types = mappedTo.get(target);
+
+        if (types != null && types.remove(type) && types.isEmpty()) {
+            mappedTo.remove(target, types);
+        }
+    }
+
+    /**
+     * Invalidates the plan and removes it from the plans of all its dependencies.
+     *
+     * @param plan The plan to remove.
+     */
+    protected void unregister(ResolutionPlan plan) {
+        plan.invalidate();
+
+        for (Class type : plan.dependencies) {
+            Set<ResolutionPlan> dependents = plans.get(type);
+
+            if (dependents != null) {
+                dependents.remove(plan);
+            }
+        }
+    }
+
+    /**
+     * Every container maps {@link CheflingContainer} and {@link CommandContainer} to itself, so
+     * these types are never indexed.
+     *
+     * @param type The type to check.
+     * @return Whether this is one of the default container types.
+     */
+    protected boolean isDefaultType(Class type) {
+        return CheflingContainer.class.equals(type) || CommandContainer.class.equals(type);
+    }
+
+}
@@ -22,9 +22,20 @@ public class CreateChildContainerCommandImpl extends AbstractCommand implements
 
     @Override
     public CheflingContainer createChildContainer() {
-        CheflingContainer child = CommandContainerBuilder.createContainer();
-
-        _container.addChildContainer(child);
+        // the child uses the index of this tree from the start: since it has no instances or
+        // mappings yet, there are no conflicts to check and nothing to merge into the index
+        CommandContainerIndex index = _container.index;
+        CommandContainer child = new CommandContainer(index);
+        child.allocationAccounting = _container.allocationAccounting;
+        child.metrics = _container.metrics;
+        child.tracer = _container.tracer;
+
+        // lock the index, which is shared by all containers in the tree
+        synchronized (index) {
+            child.parent = _container;
+
+            _container.addChild(child);
+        }
 
         return child;
     }
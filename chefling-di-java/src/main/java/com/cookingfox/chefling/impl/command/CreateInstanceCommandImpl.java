@@ -0,0 +1,931 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingFactory;
+import com.cookingfox.chefling.api.CheflingLazy;
+import com.cookingfox.chefling.api.CheflingLifecycle;
+import com.cookingfox.chefling.api.CheflingMetrics;
+import com.cookingfox.chefling.api.CheflingProvider;
+import com.cookingfox.chefling.api.CheflingTracer;
+import com.cookingfox.chefling.api.command.CreateInstanceCommand;
+import com.cookingfox.chefling.api.exception.*;
+import com.cookingfox.chefling.impl.helper.GeneratedFactories;
+import com.cookingfox.chefling.impl.helper.Providers;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @see CreateInstanceCommand
+ */
+public class CreateInstanceCommandImpl extends AbstractCommand implements CreateInstanceCommand {
+
+    //----------------------------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Cache for selected constructor + parameter types and generated factories, since determining
+     * them is an expensive operation.
+     */
+    protected final static TypeCache TYPE_CACHE = new TypeCache();
+
+    /**
+     * Indicates that a type does not have a generated factory.
+     */
+    protected final static Object NO_GENERATED_FACTORY = new Object();
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Compiled resolution plans of this container, by requested type. Invalid plans are replaced
+     * the next time the type is requested.
+     */
+    protected final ConcurrentMap<Class, ResolutionPlan> plans = new ConcurrentHashMap<>();
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public CreateInstanceCommandImpl(CommandContainer container) {
+        super(container);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T createInstance(Class<T> type) {
+        assertNonNull(type, "type");
+
+        if (!_container.allocationAccounting) {
+            return createTracedInstance(type);
+        }
+
+        // measure the allocations of the creation, including the dependencies it creates
+        AllocationRecorder.begin();
+
+        try {
+            return createTracedInstance(type);
+        } finally {
+            AllocationRecorder.end(type, _container.metrics);
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Adds the steps to construct a new instance of `type` to a resolution plan: a step for every
+     * constructor parameter, followed by the step that calls the constructor.
+     *
+     * @param type         The type to instantiate.
+     * @param steps        The steps of the plan.
+     * @param dependencies The types the plan depends on.
+     * @throws ContainerException when a new instance can not be constructed.
+     */
+    @SuppressWarnings("unchecked")
+    protected void addConstructionSteps(Class type, List<ResolutionPlan.Step> steps, Set<Class> dependencies) {
+        TypeCache.Entry entry = TYPE_CACHE.getEntry(type);
+        CheflingFactory generatedFactory = getGeneratedFactory(entry, type);
+
+        // use the factory generated by the annotation processor: no reflection needed
+        if (generatedFactory != null) {
+            steps.add(new ResolutionPlan.GeneratedFactoryStep(this, generatedFactory, type));
+            return;
+        }
+
+        // the selected constructor depends on the mappings for these types
+        Collections.addAll(dependencies, getMappableTypes(entry, type));
+
+        // cached constructor + parameters for this type and the mappings of this container
+        long mappingKey = getMappingKey(entry, type);
+        ConstructorParameters constructorParameters = TYPE_CACHE.getConstructor(entry, mappingKey);
+
+        if (constructorParameters == null) {
+            // determine default constructor + parameters
+            Constructor constructor = getDefaultConstructor(type);
+            constructorParameters = new ConstructorParameters(constructor, constructor.getParameterTypes());
+
+            TYPE_CACHE.putConstructor(entry, mappingKey, constructorParameters);
+        }
+
+        Class[] parameterTypes = constructorParameters.parameterTypes;
+        int[] argumentSlots = new int[parameterTypes.length];
+
+        Class[] providedTypes = constructorParameters.providedTypes;
+
+        // gather constructor parameters based on their types
+        for (int i = 0; i < parameterTypes.length; i++) {
+            argumentSlots[i] = steps.size();
+
+            if (providedTypes != null && providedTypes[i] != null) {
+                // the provided type is resolved when it is needed, so the plan does not depend on it
+                steps.add(new ResolutionPlan.ProviderStep(_container, providedTypes[i],
+                        parameterTypes[i] == CheflingLazy.class));
+            } else {
+                steps.add(compileParameterStep(parameterTypes[i], dependencies));
+            }
+        }
+
+        steps.add(new ResolutionPlan.ConstructStep(this, constructorParameters, argumentSlots, type));
+    }
+
+    /**
+     * Compiles the resolution plan for `type`: follows the type mappings of the container to
+     * determine whether the instance is created by reusing a mapped instance, by calling a factory
+     * or by calling a constructor.
+     *
+     * @param type The requested type.
+     * @return The compiled plan.
+     * @throws ContainerException when a new instance can not be constructed.
+     */
+    protected ResolutionPlan compileResolutionPlan(Class type) {
+        List<ResolutionPlan.Step> steps = new ArrayList<>();
+        Set<Class> dependencies = new LinkedHashSet<>();
+        Class current = type;
+        Object existing;
+
+        while (true) {
+            isAllowed(current);
+            dependencies.add(current);
+
+            existing = findInstanceOrMapping(_container, current);
+
+            if (!(existing instanceof Class)) {
+                break;
+            }
+
+            // type is mapped to another type: create an instance using the mapped type
+            current = (Class) existing;
+        }
+
+        if (current.isInstance(existing)) {
+            // existing is instance
+            steps.add(new ResolutionPlan.ReuseStep(existing));
+        } else if (existing instanceof CheflingFactory) {
+            // use factory to create instance
+            steps.add(new ResolutionPlan.FactoryStep(this, (CheflingFactory) existing, current));
+        } else {
+            // no existing mapping or instance: create instance using provided type
+            addConstructionSteps(current, steps, dependencies);
+        }
+
+        return new ResolutionPlan(steps, dependencies);
+    }
+
+    /**
+     * Compiles the step for a constructor parameter, which gets the parameter's instance from the
+     * container. If the instance already exists, it is reused directly.
+     *
+     * @param parameterType The constructor parameter type.
+     * @param dependencies  The types the plan depends on.
+     * @return The compiled step.
+     */
+    protected ResolutionPlan.Step compileParameterStep(Class parameterType, Set<Class> dependencies) {
+        Class current = parameterType;
+
+        // follow the same path as `getInstance`
+        while (true) {
+            dependencies.add(current);
+
+            CommandContainer owner = findOneWithInstanceOrMapping(_container, current);
+
+            // scoped mapping: the container gets the instance of the scope when the plan is executed
+            if (owner == null || owner.scopes.get(current) != null) {
+                break;
+            }
+
+            Object instance = owner.instances.get(current);
+
+            if (instance != null) {
+                return new ResolutionPlan.ReuseStep(instance);
+            }
+
+            Object mapping = owner.mappings.get(current);
+
+            if (!(mapping instanceof Class)) {
+                break;
+            }
+
+            current = (Class) mapping;
+        }
+
+        // the instance does not exist yet: the container creates it when the plan is executed
+        return new ResolutionPlan.GetInstanceStep(_container, current);
+    }
+
+    /**
+     * Creates a new instance of `type`, attempting to resolve its full dependency tree, without
+     * using the mappings for `type` itself.
+     *
+     * @param type The type to instantiate.
+     * @param <T>  Ensures the returned object is cast to the expected type.
+     * @return New instance of the type.
+     * @throws ContainerException when a new instance can not be constructed.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T createInstanceUsingCache(Class<T> type) {
+        List<ResolutionPlan.Step> steps = new ArrayList<>();
+
+        addConstructionSteps(type, steps, new LinkedHashSet<Class>());
+
+        return (T) new ResolutionPlan(steps, Collections.<Class>emptySet()).execute();
+    }
+
+    /**
+     * Creates a new instance by calling the selected constructor of the type.
+     *
+     * @param constructor The selected constructor.
+     * @param type        The type to instantiate.
+     * @param arguments   The resolved constructor arguments.
+     * @return New instance of the type.
+     * @throws ContainerException when the constructor throws.
+     */
+    protected Object createInstanceUsingConstructor(ConstructorParameters constructor, Class type, Object[] arguments) {
+        CheflingMetrics metrics = _container.metrics;
+        CheflingTracer tracer = _container.tracer;
+        boolean measure = _container.allocationAccounting;
+        long start = metrics == null ? 0 : System.nanoTime();
+        Object instance;
+
+        if (tracer != null) {
+            tracer.begin(CheflingTracer.Category.CONSTRUCTOR, type.getName());
+        }
+
+        if (measure) {
+            AllocationRecorder.startMeasuring();
+        }
+
+        try {
+            instance = constructor.newInstance(type, arguments);
+        } finally {
+            if (measure) {
+                AllocationRecorder.stopMeasuring();
+            }
+
+            if (tracer != null) {
+                tracer.end(CheflingTracer.Category.CONSTRUCTOR, type.getName());
+            }
+        }
+
+        if (metrics != null) {
+            metrics.recordConstruction(type, CheflingMetrics.Construction.REFLECTION, System.nanoTime() - start);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Creates a new instance using a factory that was generated by the annotation processor.
+     * Exceptions thrown by the type's constructor are wrapped, like in
+     * {@link ConstructorParameters#newInstance(Class, Object[])}.
+     *
+     * @param factory The generated factory.
+     * @param type    The type to instantiate.
+     * @param <T>     Ensures the returned object is cast to the expected type.
+     * @return New instance of the type.
+     * @throws ContainerException when an error occurs.
+     */
+    protected <T> T createInstanceUsingGeneratedFactory(CheflingFactory<T> factory, Class<T> type) {
+        CheflingMetrics metrics = _container.metrics;
+        CheflingTracer tracer = _container.tracer;
+        boolean measure = _container.allocationAccounting;
+        long start = metrics == null ? 0 : System.nanoTime();
+        T instance;
+
+        if (tracer != null) {
+            tracer.begin(CheflingTracer.Category.GENERATED_FACTORY, type.getName());
+        }
+
+        if (measure) {
+            AllocationRecorder.startMeasuring();
+        }
+
+        try {
+            instance = factory.createInstance(_container);
+        } catch (ContainerException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new TypeInstantiationException(type, e);
+        } finally {
+            if (measure) {
+                AllocationRecorder.stopMeasuring();
+            }
+
+            if (tracer != null) {
+                tracer.end(CheflingTracer.Category.GENERATED_FACTORY, type.getName());
+            }
+        }
+
+        if (metrics != null) {
+            metrics.recordConstruction(type, CheflingMetrics.Construction.GENERATED_FACTORY, System.nanoTime() - start);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Get the default constructor for this type.
+     *
+     * @param type The type to get the constructor for.
+     * @return Constructor, if a resolvable one can be found.
+     * @throws TypeNotAllowedException when the type is not instantiable.
+     */
+    protected Constructor getDefaultConstructor(Class type) throws TypeNotAllowedException {
+        isInstantiable(type);
+
+        Constructor[] constructors = type.getDeclaredConstructors();
+        ResolvabilityResult firstResult = getResolvabilityResult(constructors[0]);
+
+        // if first constructor is resolvable, return it immediately
+        if (firstResult.isResolvable()) {
+            return firstResult.constructor;
+        }
+
+        // map of resolvable results, by number of parameters: we favor a constructor with a small
+        // number of parameters, because the chances are higher that it is resolvable.
+        Map<Integer, List<ResolvabilityResult>> resultMap = buildResultMap(constructors);
+
+        // select resolvable constructor
+        for (List<ResolvabilityResult> resultList : resultMap.values()) {
+            for (ResolvabilityResult result : resultList) {
+                if (result.isResolvable()) {
+                    // constructor is resolvable: return it
+                    return result.constructor;
+                }
+            }
+        }
+
+        throw new TypeNotInstantiableException(type, buildErrorMessage(type, resultMap));
+    }
+
+    /**
+     * Creates a new instance of `type` by executing its resolution plan, and initializes it if it
+     * implements {@link CheflingLifecycle}.
+     *
+     * @param type The type to instantiate.
+     * @param <T>  Ensures the returned object is cast to the expected type.
+     * @return New instance of the type.
+     * @throws ContainerException when a new instance can not be created.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T createNewInstance(Class<T> type) {
+        T instance = (T) getResolutionPlan(type).execute();
+
+        // call life cycle initialize
+        if (instance instanceof CheflingLifecycle) {
+            initializeInstance((CheflingLifecycle) instance, type);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Creates a new instance of `type`, in a span of the tracer if tracing is enabled.
+     *
+     * @param type The type to instantiate.
+     * @param <T>  Ensures the returned object is cast to the expected type.
+     * @return New instance of the type.
+     * @throws ContainerException when a new instance can not be created.
+     */
+    protected <T> T createTracedInstance(Class<T> type) {
+        CheflingTracer tracer = _container.tracer;
+
+        if (tracer == null) {
+            return createNewInstance(type);
+        }
+
+        tracer.begin(CheflingTracer.Category.RESOLUTION, type.getName());
+
+        try {
+            return createNewInstance(type);
+        } finally {
+            tracer.end(CheflingTracer.Category.RESOLUTION, type.getName());
+        }
+    }
+
+    /**
+     * Get the resolution plan for `type`, compiling it if this container does not have a valid plan
+     * for the type yet.
+     *
+     * @param type The requested type.
+     * @return The resolution plan.
+     * @throws ContainerException when a new instance can not be constructed.
+     */
+    protected ResolutionPlan getResolutionPlan(Class type) {
+        ResolutionPlan plan = plans.get(type);
+
+        if (plan != null && plan.isValid()) {
+            return plan;
+        }
+
+        CommandContainerIndex index = _container.index;
+        long modificationCount = index.getModificationCount();
+
+        plan = compileResolutionPlan(type);
+
+        // only store the plan if no mapping changed while compiling it
+        if (index.register(plan, modificationCount)) {
+            plans.put(type, plan);
+        }
+
+        return plan;
+    }
+
+    /**
+     * Get the factory that was generated for this type by the annotation processor.
+     *
+     * @param entry The type cache entry of the type.
+     * @param type  The type to get the generated factory for.
+     * @param <T>   Indicates the type the factory creates.
+     * @return The generated factory, or null if the type does not have one.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> CheflingFactory<T> getGeneratedFactory(TypeCache.Entry entry, Class<T> type) {
+        Object cached = entry.generatedFactory;
+
+        if (cached == null) {
+            cached = GeneratedFactories.find(type);
+
+            if (cached == null) {
+                cached = NO_GENERATED_FACTORY;
+            }
+
+            entry.generatedFactory = cached;
+        }
+
+        return cached == NO_GENERATED_FACTORY ? null : (CheflingFactory<T>) cached;
+    }
+
+    /**
+     * Get the non-instantiable parameter types of the type's constructors: whether a constructor is
+     * resolvable only depends on whether the container has a mapping for these types.
+     *
+     * @param entry The type cache entry of the type.
+     * @param type  The type to get the mappable types for.
+     * @return The mappable parameter types.
+     */
+    protected Class[] getMappableTypes(TypeCache.Entry entry, Class type) {
+        Class[] cached = entry.mappableTypes;
+
+        if (cached != null) {
+            return cached;
+        }
+
+        Set<Class> mappableTypes = new LinkedHashSet<>();
+
+        for (Constructor constructor : type.getDeclaredConstructors()) {
+            for (Class parameterType : constructor.getParameterTypes()) {
+                if (!Providers.isProvider(parameterType) && !getAdmissibility(parameterType).isInstantiable()) {
+                    mappableTypes.add(parameterType);
+                }
+            }
+        }
+
+        cached = mappableTypes.toArray(new Class[mappableTypes.size()]);
+        entry.mappableTypes = cached;
+
+        return cached;
+    }
+
+    /**
+     * Get the mapping key of this container for the type: a bit mask of the mappable parameter
+     * types that the container has an instance or mapping for. The selected constructor can only be
+     * reused by containers with the same mapping key.
+     *
+     * @param entry The type cache entry of the type.
+     * @param type  The type to get the mapping key for.
+     * @return The mapping key, or {@link TypeCache#UNCACHEABLE} if the type has too many mappable
+     * parameter types.
+     */
+    protected long getMappingKey(TypeCache.Entry entry, Class type) {
+        Class[] mappableTypes = getMappableTypes(entry, type);
+
+        if (mappableTypes.length > TypeCache.MAX_MAPPABLE_TYPES) {
+            return TypeCache.UNCACHEABLE;
+        }
+
+        long mappingKey = 0;
+
+        for (int i = 0; i < mappableTypes.length; i++) {
+            if (_container.hasInstanceOrMapping(mappableTypes[i])) {
+                mappingKey |= 1L << i;
+            }
+        }
+
+        return mappingKey;
+    }
+
+    /**
+     * Determines the types that the {@link CheflingProvider} and {@link CheflingLazy} parameters of
+     * the constructor provide.
+     *
+     * @param constructor    The constructor.
+     * @param parameterTypes The parameter types of the constructor.
+     * @return The provided type by parameter index, where null means the parameter is not a
+     * provider or has no class type argument. Null if the constructor has no provider parameters.
+     */
+    protected static Class[] getProvidedTypes(Constructor constructor, Class[] parameterTypes) {
+        Class[] providedTypes = null;
+        Type[] genericTypes = null;
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (!Providers.isProvider(parameterTypes[i])) {
+                continue;
+            }
+
+            if (providedTypes == null) {
+                providedTypes = new Class[parameterTypes.length];
+                genericTypes = constructor.getGenericParameterTypes();
+            }
+
+            // the generic types may not include synthetic parameters
+            if (genericTypes.length == parameterTypes.length) {
+                providedTypes[i] = Providers.getProvidedType(parameterTypes[i], genericTypes[i]);
+            }
+        }
+
+        return providedTypes;
+    }
+
+    /**
+     * Create a "resolvability" result: check all constructor parameters to see whether they are
+     * resolvable by the container.
+     *
+     * @param constructor The constructor to check.
+     * @return The result.
+     */
+    protected ResolvabilityResult getResolvabilityResult(Constructor constructor) {
+        Class[] parameterTypes = constructor.getParameterTypes();
+        Class[] providedTypes = getProvidedTypes(constructor, parameterTypes);
+        int numParameters = parameterTypes.length;
+        ResolvabilityResult result = new ResolvabilityResult(constructor, numParameters);
+
+        // check whether the constructor parameters are resolvable
+        for (int i = 0; i < numParameters; i++) {
+            Class parameterType = parameterTypes[i];
+
+            // provider: the provided type must be allowed, it is resolved when it is needed
+            if (Providers.isProvider(parameterType)) {
+                Class providedType = providedTypes == null ? null : providedTypes[i];
+
+                if (providedType == null) {
+                    result.unresolvable.add(new UnresolvableParameter(i, new TypeNotAllowedException(
+                            parameterType, "a provider without a class type argument")));
+                } else if (getAdmissibility(providedType).notAllowedMessage != null) {
+                    result.unresolvable.add(new UnresolvableParameter(i,
+                            getAdmissibility(providedType).createException()));
+                }
+
+                continue;
+            }
+
+            // container has a mapping for this parameter type: ok!
+            if (_container.hasInstanceOrMapping(parameterType)) {
+                continue;
+            }
+
+            Admissibility admissibility = getAdmissibility(parameterType);
+
+            // not instantiable: store in result
+            if (!admissibility.isInstantiable()) {
+                result.unresolvable.add(new UnresolvableParameter(i, admissibility.createException()));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Build a resolvability result map, sorted by number of parameters.
+     *
+     * @param constructors Declared constructors for the type that needs to be created.
+     * @return A map of resolvability results.
+     */
+    protected Map<Integer, List<ResolvabilityResult>> buildResultMap(Constructor[] constructors) {
+        Map<Integer, List<ResolvabilityResult>> resultMap = new TreeMap<>();
+
+        // inspect constructor resolvability
+        for (Constructor constructor : constructors) {
+            // create a resolvability result for this constructor
+            ResolvabilityResult result = getResolvabilityResult(constructor);
+            List<ResolvabilityResult> resultList = resultMap.get(result.numParameters);
+
+            if (resultList == null) {
+                resultList = new LinkedList<>();
+            }
+
+            resultList.add(result);
+            resultMap.put(result.numParameters, resultList);
+        }
+
+        return resultMap;
+    }
+
+    /**
+     * Builds an error message that is thrown when the type is not instantiable. It uses the
+     * information from the class resolvability results.
+     *
+     * @param type      The type to get the constructor for.
+     * @param resultMap The results from the resolvability checks.
+     * @return The error message.
+     */
+    protected String buildErrorMessage(Class type, Map<Integer, List<ResolvabilityResult>> resultMap) {
+        StringBuilder errorBuilder = new StringBuilder();
+        errorBuilder.append("it does not have constructors that are resolvable by the container:\n\n");
+
+        Iterator<List<ResolvabilityResult>> iterator = resultMap.values().iterator();
+
+        while (iterator.hasNext()) {
+            List<ResolvabilityResult> resultList = iterator.next();
+            int totalResults = resultList.size();
+
+            // add error report entry for every resolvability result
+            for (int i = 0; i < totalResults; i++) {
+                addErrorReportEntry(errorBuilder, resultList.get(i), type);
+
+                if (i < totalResults - 1) {
+                    errorBuilder.append("\n");
+                }
+            }
+
+            if (iterator.hasNext()) {
+                errorBuilder.append("\n");
+            }
+        }
+
+        return errorBuilder.toString();
+    }
+
+    /**
+     * Add an error report for an unresolvable constructor.
+     *
+     * @param errorBuilder The string builder for the error message.
+     * @param result       The resolvability result.
+     * @param type         The type we are attempting to instantiate.
+     */
+    protected void addErrorReportEntry(StringBuilder errorBuilder, ResolvabilityResult result, Class type) {
+        // add name of this constructor
+        String modifierName = Modifier.toString(result.getModifiers());
+
+        if (modifierName.isEmpty()) {
+            modifierName = "package-level";
+        }
+
+        errorBuilder.append(String.format("[%s] %s ( ", modifierName, type.getSimpleName()));
+
+        Class[] parameterTypes = result.constructor.getParameterTypes();
+
+        // add parameter types to constructor signature
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class parameterType = parameterTypes[i];
+            errorBuilder.append(parameterType.getName());
+
+            // add separator between parameter types
+            if (i < parameterTypes.length - 1) {
+                errorBuilder.append(", ");
+            }
+        }
+
+        errorBuilder.append(" )\n");
+
+        if (!result.isPublic()) {
+            errorBuilder.append(String.format("The constructor has %s access - must be public.\n", modifierName));
+        }
+
+        if (!result.unresolvable.isEmpty()) {
+            // loop through unresolvable parameters and print their exception messages
+            for (UnresolvableParameter notResolvable : result.unresolvable) {
+                errorBuilder.append(String.format("Parameter #%d: %s.\n",
+                        notResolvable.parameterIndex + 1, notResolvable.exception.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Calls {@link CheflingLifecycle#initialize()} on a new instance, in a span of the tracer if
+     * tracing is enabled.
+     *
+     * @param instance The new instance.
+     * @param type     The requested type of the instance.
+     */
+    protected void initializeInstance(CheflingLifecycle instance, Class type) {
+        CheflingTracer tracer = _container.tracer;
+        boolean measure = _container.allocationAccounting;
+
+        if (tracer != null) {
+            tracer.begin(CheflingTracer.Category.INITIALIZE, type.getName());
+        }
+
+        if (measure) {
+            AllocationRecorder.startMeasuring();
+        }
+
+        try {
+            instance.initialize();
+        } finally {
+            if (measure) {
+                AllocationRecorder.stopMeasuring();
+            }
+
+            if (tracer != null) {
+                tracer.end(CheflingTracer.Category.INITIALIZE, type.getName());
+            }
+        }
+    }
+
+    /**
+     * Resolves a type using a factory instance. Throws if the returned value is null or invalid.
+     *
+     * @param factory The factory object.
+     * @param type    The expected type that the factory should return.
+     * @param <T>     Ensures the return value is cast to expected type.
+     * @return The created instance.
+     * @throws ContainerException when the factory throws or returns an invalid value.
+     */
+    protected <T> T resolveUsingFactory(CheflingFactory<T> factory, Class<T> type) {
+        CheflingMetrics metrics = _container.metrics;
+        CheflingTracer tracer = _container.tracer;
+        boolean measure = _container.allocationAccounting;
+        long start = metrics == null ? 0 : System.nanoTime();
+        T instance;
+
+        if (tracer != null) {
+            tracer.begin(CheflingTracer.Category.FACTORY, type.getName());
+        }
+
+        if (measure) {
+            AllocationRecorder.startMeasuring();
+        }
+
+        try {
+            instance = factory.createInstance(_container);
+        } finally {
+            if (measure) {
+                AllocationRecorder.stopMeasuring();
+            }
+
+            if (tracer != null) {
+                tracer.end(CheflingTracer.Category.FACTORY, type.getName());
+            }
+        }
+
+        if (instance == null) {
+            throw new FactoryReturnedNullException(type);
+        } else if (!type.isInstance(instance)) {
+            throw new FactoryReturnedUnexpectedValueException(type, instance);
+        }
+
+        if (metrics != null) {
+            metrics.recordConstruction(type, CheflingMetrics.Construction.FACTORY, System.nanoTime() - start);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Unregisters the resolution plans of this container from the index, because the container no
+     * longer belongs to the tree that shares the index.
+     *
+     * @param index The index the plans were registered with.
+     */
+    protected void unregisterResolutionPlans(CommandContainerIndex index) {
+        for (ResolutionPlan plan : plans.values()) {
+            index.unregister(plan);
+        }
+
+        plans.clear();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Wraps a type's selected constructor + parameter types, so it can be cached. Also holds a
+     * method handle for the constructor, which is linked once, so that creating an instance does
+     * not need the access checks of {@link Constructor#newInstance(Object...)}.
+     */
+    protected static class ConstructorParameters {
+
+        /**
+         * Type of the instantiator handle: takes the parameters array and returns the instance.
+         */
+        protected static final MethodType INSTANTIATOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+        public final Constructor constructor;
+        public final MethodHandle instantiator;
+        public final Class[] parameterTypes;
+
+        /**
+         * The types provided by the {@link CheflingProvider} parameters, see
+         * {@link #getProvidedTypes(Constructor, Class[])}. Null if there are none.
+         */
+        public final Class[] providedTypes;
+
+        public ConstructorParameters(Constructor constructor, Class[] parameterTypes) {
+            this.constructor = constructor;
+            this.instantiator = createInstantiator(constructor, parameterTypes.length);
+            this.parameterTypes = parameterTypes;
+            this.providedTypes = getProvidedTypes(constructor, parameterTypes);
+        }
+
+        /**
+         * Creates a new instance, passing the constructor parameters.
+         *
+         * @param type       The type to instantiate.
+         * @param parameters The constructor parameters.
+         * @return New instance of the type.
+         * @throws TypeInstantiationException when the constructor throws.
+         */
+        public Object newInstance(Class type, Object[] parameters) {
+            try {
+                if (instantiator != null) {
+                    return (Object) instantiator.invokeExact(parameters);
+                }
+
+                return constructor.newInstance(parameters);
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new TypeInstantiationException(type, e);
+            }
+        }
+
+        /**
+         * Creates a method handle for the constructor, adapted to take the parameters as an array
+         * and to return an object.
+         *
+         * @param constructor   The constructor to create a handle for.
+         * @param numParameters The number of constructor parameters.
+         * @return The method handle, or null if the constructor is not accessible.
+         */
+        protected static MethodHandle createInstantiator(Constructor constructor, int numParameters) {
+            try {
+                return MethodHandles.publicLookup().unreflectConstructor(constructor)
+                        .asSpreader(Object[].class, numParameters)
+                        .asType(INSTANTIATOR_TYPE);
+            } catch (IllegalAccessException e) {
+                // fall back to reflection
+                return null;
+            }
+        }
+
+    }
+
+    /**
+     * Represents information for a constructor's resolvability.
+     */
+    protected static class ResolvabilityResult {
+
+        protected final Constructor constructor;
+        protected final int numParameters;
+        protected final ArrayList<UnresolvableParameter> unresolvable = new ArrayList<>();
+
+        protected ResolvabilityResult(Constructor constructor, int numParameters) {
+            this.constructor = constructor;
+            this.numParameters = numParameters;
+        }
+
+        protected int getModifiers() {
+            return constructor.getModifiers();
+        }
+
+        protected boolean isPublic() {
+            return Modifier.isPublic(getModifiers());
+        }
+
+        protected boolean isResolvable() {
+            return isPublic() && unresolvable.isEmpty();
+        }
+
+    }
+
+    /**
+     * Represents information for an unresolvable constructor parameter.
+     */
+    protected static class UnresolvableParameter {
+
+        protected final int parameterIndex;
+        protected final Exception exception;
+
+        protected UnresolvableParameter(int parameterIndex, Exception exception) {
+            this.parameterIndex = parameterIndex;
+            this.exception = exception;
+        }
+
+    }
+
+}
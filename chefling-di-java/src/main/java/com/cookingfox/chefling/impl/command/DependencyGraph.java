@@ -0,0 +1,259 @@
+package com.cookingfox.chefling.impl.command;
+
+import java.util.*;
+
+/**
+ * Graph of the types that are resolved by a tree of containers and the types they depend on. Used
+ * to find the groups of types ("components") that do not depend on each other, so that they can be
+ * resolved in parallel.
+ */
+public class DependencyGraph {
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The nodes of the graph, by type.
+     */
+    protected final Map<Class, Node> nodes = new LinkedHashMap<>();
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Adds a node for the type, if the graph does not contain it yet.
+     *
+     * @param type      The type to add.
+     * @param container The container that should resolve the type.
+     * @return The node of the type.
+     */
+    public Node add(Class type, CommandContainer container) {
+        Node node = nodes.get(type);
+
+        if (node == null) {
+            node = new Node(type, container);
+            nodes.put(type, node);
+        }
+
+        return node;
+    }
+
+    /**
+     * Adds an edge: `node` depends on `dependency`.
+     *
+     * @param node       The dependent node.
+     * @param dependency The node it depends on.
+     */
+    public void addDependency(Node node, Node dependency) {
+        if (node != dependency) {
+            node.dependencies.add(dependency);
+            dependency.dependents.add(node);
+        }
+    }
+
+    /**
+     * @param type The type to check.
+     * @return Whether the graph contains a node for the type.
+     */
+    public boolean contains(Class type) {
+        return nodes.containsKey(type);
+    }
+
+    /**
+     * Returns the groups of nodes that are not connected to each other. The nodes of a component
+     * are sorted so that dependencies come before the nodes that depend on them, except for
+     * circular dependencies.
+     *
+     * @return The components of the graph.
+     */
+    public List<List<Node>> getComponents() {
+        List<List<Node>> components = new ArrayList<>();
+        Set<Node> visited = new HashSet<>();
+
+        for (Node node : nodes.values()) {
+            if (visited.contains(node)) {
+                continue;
+            }
+
+            List<Node> members = collectConnected(node, visited);
+            List<Node> sorted = new ArrayList<>(members.size());
+            Set<Node> sortedSet = new HashSet<>();
+
+            for (Node member : members) {
+                sortDependenciesFirst(member, sorted, sortedSet);
+            }
+
+            components.add(sorted);
+        }
+
+        return components;
+    }
+
+    /**
+     * Returns the nodes in topological levels: the nodes of a level only depend on nodes of
+     * previous levels, so the nodes of a single level can be resolved concurrently. Nodes that are
+     * part of a circular dependency are added as the last level.
+     *
+     * @return The levels of the graph.
+     */
+    public List<List<Node>> getLevels() {
+        List<List<Node>> levels = new ArrayList<>();
+        Map<Node, Integer> remainingDependencies = new HashMap<>();
+        List<Node> current = new ArrayList<>();
+
+        for (Node node : nodes.values()) {
+            remainingDependencies.put(node, node.dependencies.size());
+
+            if (node.dependencies.isEmpty()) {
+                current.add(node);
+            }
+        }
+
+        while (!current.isEmpty()) {
+            List<Node> next = new ArrayList<>();
+
+            for (Node node : current) {
+                remainingDependencies.remove(node);
+
+                // a dependent is ready when all its dependencies are in a previous level
+                for (Node dependent : node.dependents) {
+                    int remaining = remainingDependencies.get(dependent) - 1;
+                    remainingDependencies.put(dependent, remaining);
+
+                    if (remaining == 0) {
+                        next.add(dependent);
+                    }
+                }
+            }
+
+            levels.add(current);
+            current = next;
+        }
+
+        if (!remainingDependencies.isEmpty()) {
+            List<Node> circular = new ArrayList<>();
+
+            for (Node node : nodes.values()) {
+                if (remainingDependencies.containsKey(node)) {
+                    circular.add(node);
+                }
+            }
+
+            levels.add(circular);
+        }
+
+        return levels;
+    }
+
+    /**
+     * @return The number of nodes in the graph.
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Collects all nodes that are connected to `start`, ignoring the direction of the edges.
+     *
+     * @param start   The node to start at.
+     * @param visited The nodes that were already collected, for all components.
+     * @return The connected nodes.
+     */
+    protected List<Node> collectConnected(Node start, Set<Node> visited) {
+        List<Node> members = new ArrayList<>();
+        Deque<Node> pending = new ArrayDeque<>();
+
+        visited.add(start);
+        pending.add(start);
+
+        while (!pending.isEmpty()) {
+            Node current = pending.poll();
+            members.add(current);
+
+            for (Node neighbour : current.dependencies) {
+                if (visited.add(neighbour)) {
+                    pending.add(neighbour);
+                }
+            }
+
+            for (Node neighbour : current.dependents) {
+                if (visited.add(neighbour)) {
+                    pending.add(neighbour);
+                }
+            }
+        }
+
+        return members;
+    }
+
+    /**
+     * Adds the dependencies of `node` to `sorted`, followed by the node itself.
+     *
+     * @param node      The node to add.
+     * @param sorted    The sorted nodes.
+     * @param sortedSet The nodes that were already added or are being added.
+     */
+    protected void sortDependenciesFirst(Node node, List<Node> sorted, Set<Node> sortedSet) {
+        // iterative depth-first search, so that deep graphs do not overflow the stack
+        Deque<Iterator<Node>> iterators = new ArrayDeque<>();
+        Deque<Node> path = new ArrayDeque<>();
+
+        if (!sortedSet.add(node)) {
+            return;
+        }
+
+        path.push(node);
+        iterators.push(node.dependencies.iterator());
+
+        while (!path.isEmpty()) {
+            Iterator<Node> iterator = iterators.peek();
+
+            if (iterator.hasNext()) {
+                Node dependency = iterator.next();
+
+                if (sortedSet.add(dependency)) {
+                    path.push(dependency);
+                    iterators.push(dependency.dependencies.iterator());
+                }
+            } else {
+                sorted.add(path.pop());
+                iterators.pop();
+            }
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * A type in the graph.
+     */
+    public static class Node {
+
+        public final Class type;
+        public final CommandContainer container;
+        protected final Set<Node> dependencies = new LinkedHashSet<>();
+        protected final Set<Node> dependents = new LinkedHashSet<>();
+
+        protected Node(Class type, CommandContainer container) {
+            this.type = type;
+            this.container = container;
+        }
+
+        /**
+         * @return The nodes this node depends on.
+         */
+        public Set<Node> getDependencies() {
+            return Collections.unmodifiableSet(dependencies);
+        }
+
+    }
+
+}
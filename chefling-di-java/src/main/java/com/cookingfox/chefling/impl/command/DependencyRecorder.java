@@ -0,0 +1,82 @@
+package com.cookingfox.chefling.impl.command;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.Set;
+
+/**
+ * Records the instances that are used while a stored instance is being created, so that the
+ * container knows which instances depend on which. Recording is done per thread: every creation
+ * starts a new frame, and nested creations have their own frame.
+ * <p>
+ * The instances that a factory requests are recorded by the container's get instance command. The
+ * frames of a thread are only allocated when it first creates an instance, so a thread that only
+ * requests stored instances does not allocate anything: see {@link #record(Object)}.
+ *
+ * @see DisposeContainerCommandImpl
+ */
+public final class DependencyRecorder {
+
+    //----------------------------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The frames of the instance creations of the current thread: the last frame belongs to the
+     * creation that is in progress. Null if the thread did not create an instance yet.
+     */
+    private static final ThreadLocal<LinkedList<Set<Object>>> FRAMES = new ThreadLocal<>();
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTOR
+    //----------------------------------------------------------------------------------------------
+
+    private DependencyRecorder() {
+        // should not be instantiated
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC STATIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Starts recording the dependencies of an instance creation. Must be followed by
+     * {@link #end()}.
+     */
+    public static void begin() {
+        LinkedList<Set<Object>> frames = FRAMES.get();
+
+        if (frames == null) {
+            frames = new LinkedList<>();
+            FRAMES.set(frames);
+        }
+
+        frames.add(Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>()));
+    }
+
+    /**
+     * Stops recording the dependencies of the current instance creation.
+     *
+     * @return The instances that were used by the creation.
+     */
+    public static Set<Object> end() {
+        return FRAMES.get().removeLast();
+    }
+
+    /**
+     * Records that the current instance creation uses `instance`. Does nothing if no instance is
+     * being created by the current thread: only checks the frames of the current thread, so
+     * creations on other threads do not affect the cost.
+     *
+     * @param instance The dependency.
+     */
+    public static void record(Object instance) {
+        LinkedList<Set<Object>> frames = FRAMES.get();
+
+        if (frames != null && !frames.isEmpty() && instance != null) {
+            frames.getLast().add(instance);
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.command.DisposeChildContainerCommand;
+import com.cookingfox.chefling.api.exception.InvalidChildContainerException;
+import com.cookingfox.chefling.impl.helper.CommandContainerVisitor;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * @see DisposeChildContainerCommand
+ */
+public class DisposeChildContainerCommandImpl extends AbstractCommand implements DisposeChildContainerCommand {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public DisposeChildContainerCommandImpl(CommandContainer container) {
+        super(container);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public void disposeChildContainer(CheflingContainer container) {
+        if (container == null) {
+            throw new InvalidChildContainerException("Child container cannot be null");
+        } else if (!(container instanceof CommandContainer)) {
+            throw new InvalidChildContainerException("Child container must be an instance of " +
+                    "CommandContainer");
+        }
+
+        CommandContainer child = (CommandContainer) container;
+        Set<CommandContainer> subtree;
+
+        // lock the index, which is shared by all containers in the tree
+        synchronized (_container.index) {
+            if (child.parent != _container) {
+                throw new InvalidChildContainerException("Container is not a child of this container");
+            }
+
+            _container.children.remove(child);
+            child.parent = null;
+
+            subtree = detach(child);
+        }
+
+        // use the dispose options of this container
+        new DisposeContainerCommandImpl(_container).disposeContainers(subtree);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Removes the types and resolution plans of the child's subtree from the index of this tree,
+     * and gives the subtree its own index. Only the subtree is traversed.
+     *
+     * @param child The detached child container.
+     * @return The containers of the subtree.
+     */
+    protected Set<CommandContainer> detach(CommandContainer child) {
+        final Set<CommandContainer> subtree = new LinkedHashSet<>();
+        final CommandContainerIndex index = _container.index;
+        final CommandContainerIndex detachedIndex = new CommandContainerIndex();
+
+        visitRecursive(child, new CommandContainerVisitor() {
+            @Override
+            public void visit(CommandContainer container) {
+                subtree.add(container);
+
+                for (Class type : container.instances.keySet()) {
+                    index.remove(type, container);
+                }
+
+                for (Class type : container.mappings.keySet()) {
+                    index.remove(type, container);
+                }
+
+                // plans of the subtree that depend on types of this tree
+                if (container.createInstance instanceof CreateInstanceCommandImpl) {
+                    ((CreateInstanceCommandImpl) container.createInstance).unregisterResolutionPlans(index);
+                }
+
+                // do not use `share()`: that would invalidate all plans of this tree
+                container.index = detachedIndex;
+            }
+        });
+
+        return subtree;
+    }
+
+}
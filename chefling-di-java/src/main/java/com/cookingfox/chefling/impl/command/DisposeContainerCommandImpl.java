@@ -0,0 +1,421 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingContainerListener;
+import com.cookingfox.chefling.api.CheflingLifecycle;
+import com.cookingfox.chefling.api.command.DisposeContainerCommand;
+import com.cookingfox.chefling.api.exception.ContainerDisposeException;
+import com.cookingfox.chefling.impl.helper.CommandContainerVisitor;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @see DisposeContainerCommand
+ */
+public class DisposeContainerCommandImpl extends AbstractCommand implements DisposeContainerCommand {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public DisposeContainerCommandImpl(CommandContainer container) {
+        super(container);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public void disposeContainer() {
+        final Set<CommandContainer> allContainers = new LinkedHashSet<>();
+
+        // collect all containers
+        visitAll(_container, new CommandContainerVisitor() {
+            @Override
+            public void visit(CommandContainer container) {
+                allContainers.add(container);
+            }
+        });
+
+        disposeContainers(allContainers);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Disposes the instances of the containers and clears them, using the dispose options of the
+     * current container.
+     *
+     * @param allContainers The containers to dispose.
+     * @throws ContainerDisposeException when a dispose call threw or the deadline has passed.
+     */
+    protected void disposeContainers(Set<CommandContainer> allContainers) {
+        final Map<CommandContainer, Set<CheflingContainerListener>> allListeners = new LinkedHashMap<>();
+
+        for (CommandContainer container : allContainers) {
+            // temporary reference to container listeners, so real collection can be cleared
+            final Set<CheflingContainerListener> containerListeners =
+                    new LinkedHashSet<>(container.containerListeners);
+
+            allListeners.put(container, containerListeners);
+
+            // notify listener: pre container dispose
+            for (CheflingContainerListener listener : containerListeners) {
+                listener.preContainerDispose(container);
+            }
+        }
+
+        // call destroy method for life cycle objects, dependents first
+        Disposal disposal = new Disposal(buildDisposeNodes(allContainers), _container.disposeTimeoutNanos);
+
+        // thread scoped instances are created after the container instances they depend on
+        for (CommandContainer container : allContainers) {
+            ThreadScope threadScope = container.threadScope;
+
+            if (threadScope != null) {
+                disposal.failures.addAll(threadScope.dispose());
+            }
+        }
+
+        if (_container.disposeExecutor == null) {
+            disposal.disposeSequentially();
+        } else {
+            disposal.disposeInParallel(_container.disposeExecutor);
+        }
+
+        // loop through all containers
+        for (CommandContainer container : allContainers) {
+            // clear stored values and other references
+            container.children.clear();
+            container.containerListeners.clear();
+            container.dependencies.clear();
+            container.instances.clear();
+            container.mappings.clear();
+            container.parent = null;
+            container.scopes.clear();
+            container.threadScope = null;
+            container.index.invalidateAll();
+            container.index = new CommandContainerIndex();
+
+            // notify listener: post container dispose
+            for (CheflingContainerListener listener : allListeners.get(container)) {
+                listener.postContainerDispose(container);
+            }
+        }
+
+        disposal.throwIfIncomplete();
+    }
+
+    /**
+     * Builds the dispose graph of the life cycle instances of all containers, using the
+     * dependencies that were recorded when the instances were created. Instances that are stored
+     * more than once are disposed once.
+     *
+     * @param containers All containers that are being disposed.
+     * @return The nodes of the dispose graph.
+     */
+    protected List<DisposeNode> buildDisposeNodes(Set<CommandContainer> containers) {
+        Map<Object, DisposeNode> nodes = new IdentityHashMap<>();
+        List<DisposeNode> nodeList = new ArrayList<>();
+
+        for (CommandContainer container : containers) {
+            for (Map.Entry<Class, Object> entry : container.instances.entrySet()) {
+                if (!nodes.containsKey(entry.getValue())) {
+                    DisposeNode node = new DisposeNode(entry.getKey(), entry.getValue());
+                    nodes.put(entry.getValue(), node);
+                    nodeList.add(node);
+                }
+            }
+        }
+
+        // add the recorded dependencies
+        for (CommandContainer container : containers) {
+            for (Map.Entry<Class, Set<Object>> entry : container.dependencies.entrySet()) {
+                DisposeNode node = nodes.get(container.instances.get(entry.getKey()));
+
+                if (node == null) {
+                    continue;
+                }
+
+                for (Object dependency : entry.getValue()) {
+                    DisposeNode dependencyNode = nodes.get(dependency);
+
+                    if (dependencyNode != null && dependencyNode != node && node.dependencies.add(dependencyNode)) {
+                        dependencyNode.remainingDependents.incrementAndGet();
+                    }
+                }
+            }
+        }
+
+        removeCycles(nodeList);
+
+        return nodeList;
+    }
+
+    /**
+     * Dependencies are recorded in creation order, so they should not contain cycles. If an
+     * instance is stored more than once, it is still possible: the edges between the nodes of a
+     * cycle are removed, so that these nodes do not wait for each other.
+     *
+     * @param nodes The nodes of the dispose graph.
+     */
+    protected void removeCycles(List<DisposeNode> nodes) {
+        Map<DisposeNode, Integer> remaining = new HashMap<>();
+        Deque<DisposeNode> ready = new ArrayDeque<>();
+
+        for (DisposeNode node : nodes) {
+            remaining.put(node, node.remainingDependents.get());
+
+            if (node.remainingDependents.get() == 0) {
+                ready.add(node);
+            }
+        }
+
+        // simulate the disposal: the nodes that are never ready are part of a cycle
+        while (!ready.isEmpty()) {
+            DisposeNode node = ready.poll();
+            remaining.remove(node);
+
+            for (DisposeNode dependency : node.dependencies) {
+                int count = remaining.get(dependency) - 1;
+                remaining.put(dependency, count);
+
+                if (count == 0) {
+                    ready.add(dependency);
+                }
+            }
+        }
+
+        Set<DisposeNode> cyclic = remaining.keySet();
+
+        for (DisposeNode node : cyclic) {
+            Iterator<DisposeNode> iterator = node.dependencies.iterator();
+
+            while (iterator.hasNext()) {
+                DisposeNode dependency = iterator.next();
+
+                if (cyclic.contains(dependency)) {
+                    iterator.remove();
+                    dependency.remainingDependents.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * A stored instance in the dispose graph.
+     */
+    protected static class DisposeNode {
+
+        protected final Set<DisposeNode> dependencies = new LinkedHashSet<>();
+        protected final Object instance;
+        protected final AtomicInteger remainingDependents = new AtomicInteger();
+        protected final Class type;
+        protected final AtomicBoolean started = new AtomicBoolean();
+
+        protected DisposeNode(Class type, Object instance) {
+            this.type = type;
+            this.instance = instance;
+        }
+
+    }
+
+    /**
+     * Disposes the nodes of a dispose graph: a node is disposed when all nodes that depend on it
+     * are disposed.
+     */
+    protected static class Disposal {
+
+        protected final long deadline;
+        protected final AtomicReference<Error> error = new AtomicReference<>();
+        protected final Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+        protected final List<DisposeNode> nodes;
+        protected volatile boolean timedOut;
+
+        protected Disposal(List<DisposeNode> nodes, long timeoutNanos) {
+            this.nodes = nodes;
+            this.deadline = timeoutNanos > 0 ? System.nanoTime() + timeoutNanos : 0;
+        }
+
+        /**
+         * Disposes the nodes in the calling thread. Stops when the deadline has passed.
+         */
+        protected void disposeSequentially() {
+            Deque<DisposeNode> ready = new ArrayDeque<>();
+
+            for (DisposeNode node : nodes) {
+                if (node.remainingDependents.get() == 0) {
+                    ready.add(node);
+                }
+            }
+
+            while (!ready.isEmpty()) {
+                if (getRemainingNanos() < 0) {
+                    timedOut = true;
+                    return;
+                }
+
+                DisposeNode node = ready.poll();
+
+                for (DisposeNode dependency : dispose(node)) {
+                    ready.add(dependency);
+                }
+            }
+        }
+
+        /**
+         * Disposes the nodes using the executor: nodes that do not depend on each other are
+         * disposed in parallel. Waits until all nodes are disposed or the deadline has passed.
+         *
+         * @param executor The executor that disposes the nodes.
+         */
+        protected void disposeInParallel(final Executor executor) {
+            final CountDownLatch done = new CountDownLatch(nodes.size());
+            List<DisposeNode> ready = new ArrayList<>();
+
+            // collect first: once a node is submitted, its dependencies can become ready
+            for (DisposeNode node : nodes) {
+                if (node.remainingDependents.get() == 0) {
+                    ready.add(node);
+                }
+            }
+
+            for (DisposeNode node : ready) {
+                submit(executor, node, done);
+            }
+
+            boolean interrupted = false;
+
+            while (done.getCount() > 0) {
+                try {
+                    if (deadline == 0) {
+                        done.await();
+                    } else if (!done.await(getRemainingNanos(), TimeUnit.NANOSECONDS)) {
+                        timedOut = true;
+                        break;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+
+            // restore interrupted status
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Throws if not all nodes were disposed successfully.
+         *
+         * @throws ContainerDisposeException when a dispose call threw or the deadline has passed.
+         * @throws Error                     the first error that was thrown by a dispose call.
+         */
+        protected void throwIfIncomplete() {
+            if (error.get() != null) {
+                throw error.get();
+            }
+
+            List<Class> notDisposed = new ArrayList<>();
+
+            if (timedOut) {
+                for (DisposeNode node : nodes) {
+                    if (!node.started.get() && node.instance instanceof CheflingLifecycle) {
+                        notDisposed.add(node.type);
+                    }
+                }
+            }
+
+            if (!failures.isEmpty() || !notDisposed.isEmpty()) {
+                throw new ContainerDisposeException(new ArrayList<>(failures), notDisposed);
+            }
+        }
+
+        /**
+         * Disposes a single node, unless the deadline has passed. Does not throw: the dependencies
+         * of the node are always released, so that they are disposed too. An error is kept and
+         * thrown by {@link #throwIfIncomplete()}.
+         *
+         * @param node The node to dispose.
+         * @return The dependencies of the node that can now be disposed.
+         */
+        protected List<DisposeNode> dispose(DisposeNode node) {
+            if (!timedOut && node.started.compareAndSet(false, true)) {
+                try {
+                    if (node.instance instanceof CheflingLifecycle) {
+                        ((CheflingLifecycle) node.instance).dispose();
+                    }
+                } catch (RuntimeException e) {
+                    failures.add(e);
+                } catch (Error e) {
+                    error.compareAndSet(null, e);
+                } catch (Throwable e) {
+                    // a checked exception that was thrown without being declared
+                    failures.add(new RuntimeException(e));
+                }
+            }
+
+            List<DisposeNode> ready = new ArrayList<>();
+
+            for (DisposeNode dependency : node.dependencies) {
+                if (dependency.remainingDependents.decrementAndGet() == 0) {
+                    ready.add(dependency);
+                }
+            }
+
+            return ready;
+        }
+
+        /**
+         * @return The time until the deadline in nanoseconds, or zero if there is no deadline.
+         */
+        protected long getRemainingNanos() {
+            return deadline == 0 ? 0 : deadline - System.nanoTime();
+        }
+
+        /**
+         * Disposes the node using the executor, followed by the dependencies that become ready. If
+         * the executor rejects the node, for example because it was shut down, the node is disposed
+         * in the calling thread, so that every node is counted down.
+         *
+         * @param executor The executor that disposes the node.
+         * @param node     The node to dispose.
+         * @param done     Counted down for every completed node.
+         */
+        protected void submit(final Executor executor, final DisposeNode node, final CountDownLatch done) {
+            Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    List<DisposeNode> ready = dispose(node);
+                    done.countDown();
+
+                    for (DisposeNode dependency : ready) {
+                        submit(executor, dependency, done);
+                    }
+                }
+            };
+
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.command.FreezeContainerCommand;
+import com.cookingfox.chefling.impl.helper.CommandContainerVisitor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @see FreezeContainerCommand
+ */
+public class FreezeContainerCommandImpl extends AbstractCommand implements FreezeContainerCommand {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public FreezeContainerCommandImpl(CommandContainer container) {
+        super(container);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CheflingContainer freezeContainer() {
+        // create the instances of all mappings, so that every mapped type has an instance
+        _container.validateContainer();
+
+        final Map<Class, CommandContainer> owners = new LinkedHashMap<>();
+
+        // lock the index, which is shared by all containers in the tree
+        synchronized (_container.index) {
+            visitAll(_container, new CommandContainerVisitor() {
+                @Override
+                public void visit(CommandContainer container) {
+                    for (Class type : container.instances.keySet()) {
+                        owners.put(type, container);
+                    }
+
+                    // a type mapping is not stored as an instance of the mapped type
+                    for (Class type : container.mappings.keySet()) {
+                        owners.put(type, container);
+                    }
+                }
+            });
+        }
+
+        // every container maps the default types to itself
+        owners.remove(CheflingContainer.class);
+        owners.remove(CommandContainer.class);
+
+        Map<Class, Object> instances = new LinkedHashMap<>();
+
+        // all mappings are resolved, so this does not create instances
+        for (Map.Entry<Class, CommandContainer> entry : owners.entrySet()) {
+            Class type = entry.getKey();
+            CommandContainer owner = entry.getValue();
+
+            if (owner.scopes.get(type) != null) {
+                // the original container keeps resolving the instances of scoped mappings
+                instances.put(type, new FrozenContainer.ScopedMapping(owner));
+            } else {
+                instances.put(type, owner.getInstance(type));
+            }
+        }
+
+        return new FrozenContainer(getRoot(_container), instances);
+    }
+
+}
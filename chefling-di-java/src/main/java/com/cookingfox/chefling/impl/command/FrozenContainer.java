@@ -0,0 +1,441 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingFactory;
+import com.cookingfox.chefling.api.CheflingRequestScope;
+import com.cookingfox.chefling.api.CheflingScope;
+import com.cookingfox.chefling.api.exception.ContainerFrozenException;
+import com.cookingfox.chefling.api.exception.NullValueNotAllowedException;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Immutable, read-only {@link CheflingContainer}, created by
+ * {@link CommandContainer#freezeContainer()}. It holds the instances of the frozen tree in a
+ * collision-free hash table, so a lookup is a few array reads: no locking, no allocation and no
+ * traversal of the container tree.
+ */
+public class FrozenContainer implements CheflingContainer {
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The root of the tree this container was created from. Used to dispose the instances.
+     */
+    protected final CheflingContainer source;
+
+    /**
+     * The instances of the frozen tree, by type.
+     */
+    protected final TypeTable table;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    protected FrozenContainer(CheflingContainer source, Map<Class, Object> instances) {
+        Map<Class, Object> entries = new LinkedHashMap<>(instances);
+
+        // the default types resolve to the frozen container itself
+        entries.put(CheflingContainer.class, this);
+        entries.put(FrozenContainer.class, this);
+
+        this.source = source;
+        this.table = TypeTable.create(entries);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public void addChildContainer(CheflingContainer container) {
+        throw frozen("addChildContainer");
+    }
+
+    @Override
+    public CheflingContainer createChildContainer() {
+        throw frozen("createChildContainer");
+    }
+
+    @Override
+    public <T> T createInstance(Class<T> type) {
+        throw frozen("createInstance");
+    }
+
+    @Override
+    public void disposeChildContainer(CheflingContainer container) {
+        throw frozen("disposeChildContainer");
+    }
+
+    /**
+     * Disposes the tree this container was created from. Like any disposed container, this
+     * container should not be used afterwards.
+     */
+    @Override
+    public void disposeContainer() {
+        source.disposeContainer();
+    }
+
+    @Override
+    public CheflingContainer freezeContainer() {
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getInstance(Class<T> type) {
+        if (type == null) {
+            throw new NullValueNotAllowedException("type");
+        }
+
+        Object instance = table.get(type);
+
+        if (instance == null) {
+            throw new ContainerFrozenException("The type `" + type.getName() + "` was not " +
+                    "resolved when the container was frozen, and a frozen container can not " +
+                    "create new instances");
+        } else if (instance instanceof ScopedMapping) {
+            return ((ScopedMapping) instance).owner.getInstance(type);
+        }
+
+        return (T) instance;
+    }
+
+    @Override
+    public boolean hasInstanceOrMapping(Class type) {
+        return type != null && table.get(type) != null;
+    }
+
+    @Override
+    public <T> void mapFactory(Class<T> type, CheflingFactory<T> factory) {
+        throw frozen("mapFactory");
+    }
+
+    @Override
+    public <T> void mapFactory(Class<T> type, CheflingFactory<T> factory, CheflingScope scope) {
+        throw frozen("mapFactory");
+    }
+
+    @Override
+    public <T> void mapInstance(Class<T> type, T instance) {
+        throw frozen("mapInstance");
+    }
+
+    @Override
+    public <T> void mapType(Class<T> type, Class<? extends T> subType) {
+        throw frozen("mapType");
+    }
+
+    @Override
+    public <T> void mapType(Class<T> type, Class<? extends T> subType, CheflingScope scope) {
+        throw frozen("mapType");
+    }
+
+    /**
+     * Opens a request scope, for the request scoped mappings of the frozen tree.
+     */
+    @Override
+    public CheflingRequestScope openRequestScope() {
+        return source.openRequestScope();
+    }
+
+    @Override
+    public void removeInstanceAndMapping(Class type) {
+        throw frozen("removeInstanceAndMapping");
+    }
+
+    @Override
+    public void setParentContainer(CheflingContainer container) {
+        throw frozen("setParentContainer");
+    }
+
+    /**
+     * Does nothing: all mappings were resolved when the container was frozen.
+     */
+    @Override
+    public void validateContainer() {
+    }
+
+    /**
+     * Does nothing: all mappings were resolved when the container was frozen.
+     *
+     * @param pool Not used.
+     */
+    @Override
+    public void validateContainer(ForkJoinPool pool) {
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @param operation The name of the operation that is not allowed.
+     * @return The exception to throw.
+     */
+    protected ContainerFrozenException frozen(String operation) {
+        return new ContainerFrozenException("The container is frozen: `" + operation +
+                "` is not allowed");
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Stored in the table for a type with a scoped mapping, such as {@link CheflingScope#TRANSIENT}:
+     * the container that owns the mapping gets the instance of the current scope for every request.
+     */
+    protected static class ScopedMapping {
+
+        protected final CommandContainer owner;
+
+        protected ScopedMapping(CommandContainer owner) {
+            this.owner = owner;
+        }
+
+    }
+
+    /**
+     * Immutable hash table keyed by type, built with "hash and displace": the keys are divided into
+     * buckets, and every bucket gets a seed for which the keys of the bucket land in free slots. A
+     * lookup therefore reads one seed and one slot, and never probes.
+     * <p>
+     * The hash code of a type is its identity hash code, so two types can have the same hash code.
+     * No seed can separate these keys, so all but one of them are stored in a small overflow array
+     * that is only searched when the slot does not match.
+     */
+    protected static class TypeTable {
+
+        /**
+         * The number of seeds that are tried for a bucket before the table size is doubled.
+         */
+        protected static final int MAX_SEED = 1 << 12;
+
+        protected final int bucketMask;
+        protected final Class[] keys;
+        protected final Class[] overflowKeys;
+        protected final Object[] overflowValues;
+        protected final int[] seeds;
+        protected final int slotMask;
+        protected final Object[] values;
+
+        protected TypeTable(int[] seeds, Class[] keys, Object[] values, Class[] overflowKeys,
+                            Object[] overflowValues) {
+            this.bucketMask = seeds.length - 1;
+            this.keys = keys;
+            this.overflowKeys = overflowKeys;
+            this.overflowValues = overflowValues;
+            this.seeds = seeds;
+            this.slotMask = keys.length - 1;
+            this.values = values;
+        }
+
+        /**
+         * Builds a table for the entries.
+         *
+         * @param entries The values by type.
+         * @return The table.
+         */
+        protected static TypeTable create(Map<Class, Object> entries) {
+            Map<Integer, Class> byHash = new HashMap<>();
+            List<Class> unique = new ArrayList<>();
+            List<Class> overflow = new ArrayList<>();
+
+            for (Class type : entries.keySet()) {
+                if (byHash.containsKey(type.hashCode())) {
+                    overflow.add(type);
+                } else {
+                    byHash.put(type.hashCode(), type);
+                    unique.add(type);
+                }
+            }
+
+            int size = Integer.highestOneBit(Math.max(2, unique.size()) - 1) << 1;
+            TypeTable table = null;
+
+            // a larger table leaves more free slots, so the seeds are found faster
+            while (table == null) {
+                size <<= 1;
+                table = tryCreate(entries, unique, size);
+            }
+
+            Class[] overflowKeys = overflow.toArray(new Class[overflow.size()]);
+            Object[] overflowValues = new Object[overflowKeys.length];
+
+            for (int i = 0; i < overflowKeys.length; i++) {
+                overflowValues[i] = entries.get(overflowKeys[i]);
+            }
+
+            return new TypeTable(table.seeds, table.keys, table.values, overflowKeys, overflowValues);
+        }
+
+        /**
+         * Attempts to build a table with the provided number of slots.
+         *
+         * @param entries The values by type.
+         * @param types   The types to store, which all have a different hash code.
+         * @param size    The number of slots, a power of two.
+         * @return The table, or null if no seed could be found for one of the buckets.
+         */
+        protected static TypeTable tryCreate(Map<Class, Object> entries, List<Class> types, int size) {
+            int[] seeds = new int[Math.max(1, size >> 2)];
+            List<List<Class>> buckets = new ArrayList<>(seeds.length);
+
+            for (int i = 0; i < seeds.length; i++) {
+                buckets.add(new ArrayList<Class>());
+            }
+
+            for (Class type : types) {
+                buckets.get(bucket(type.hashCode(), seeds.length - 1)).add(type);
+            }
+
+            // largest buckets first, while there are many free slots
+            List<Integer> order = new ArrayList<>();
+
+            for (int i = 0; i < seeds.length; i++) {
+                order.add(i);
+            }
+
+            final List<List<Class>> sizes = buckets;
+
+            Collections.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer a, Integer b) {
+                    return sizes.get(b).size() - sizes.get(a).size();
+                }
+            });
+
+            Class[] keys = new Class[size];
+            Object[] values = new Object[size];
+            int[] slots = new int[types.size()];
+
+            for (int bucket : order) {
+                List<Class> bucketTypes = buckets.get(bucket);
+
+                if (bucketTypes.isEmpty()) {
+                    break;
+                }
+
+                int seed = findSeed(bucketTypes, keys, slots);
+
+                if (seed < 0) {
+                    return null;
+                }
+
+                seeds[bucket] = seed;
+
+                for (int i = 0; i < bucketTypes.size(); i++) {
+                    keys[slots[i]] = bucketTypes.get(i);
+                    values[slots[i]] = entries.get(bucketTypes.get(i));
+                }
+            }
+
+            return new TypeTable(seeds, keys, values, new Class[0], new Object[0]);
+        }
+
+        /**
+         * Finds a seed for which all types of the bucket land in different, free slots.
+         *
+         * @param types The types of the bucket.
+         * @param keys  The slots that are already taken.
+         * @param slots Receives the slot of every type of the bucket.
+         * @return The seed, or -1 if there is none.
+         */
+        protected static int findSeed(List<Class> types, Class[] keys, int[] slots) {
+            int slotMask = keys.length - 1;
+
+            search:
+            for (int seed = 0; seed < MAX_SEED; seed++) {
+                for (int i = 0; i < types.size(); i++) {
+                    int slot = slot(types.get(i).hashCode(), seed, slotMask);
+
+                    if (keys[slot] != null) {
+                        continue search;
+                    }
+
+                    for (int j = 0; j < i; j++) {
+                        if (slots[j] == slot) {
+                            continue search;
+                        }
+                    }
+
+                    slots[i] = slot;
+                }
+
+                return seed;
+            }
+
+            return -1;
+        }
+
+        /**
+         * @param type The type to look up.
+         * @return The value for the type, or null if the table does not contain the type.
+         */
+        protected Object get(Class type) {
+            int hash = type.hashCode();
+            int slot = slot(hash, seeds[bucket(hash, bucketMask)], slotMask);
+
+            if (keys[slot] == type) {
+                return values[slot];
+            }
+
+            for (int i = 0; i < overflowKeys.length; i++) {
+                if (overflowKeys[i] == type) {
+                    return overflowValues[i];
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * @return The number of slots of the table.
+         */
+        protected int getSize() {
+            return keys.length;
+        }
+
+        /**
+         * @param hash The hash code of a type.
+         * @param mask The number of buckets minus one.
+         * @return The bucket of the type.
+         */
+        protected static int bucket(int hash, int mask) {
+            return mix(hash) & mask;
+        }
+
+        /**
+         * @param hash The hash code of a type.
+         * @param seed The seed of the bucket of the type.
+         * @param mask The number of slots minus one.
+         * @return The slot of the type.
+         */
+        protected static int slot(int hash, int seed, int mask) {
+            return mix(hash ^ (seed * 0x9E3779B9)) & mask;
+        }
+
+        /**
+         * The finalization step of MurmurHash3, which spreads the bits of the hash code.
+         *
+         * @param hash The hash code to mix.
+         * @return The mixed hash code.
+         */
+        protected static int mix(int hash) {
+            hash ^= hash >>> 16;
+            hash *= 0x85EBCA6B;
+            hash ^= hash >>> 13;
+            hash *= 0xC2B2AE35;
+            hash ^= hash >>> 16;
+
+            return hash;
+        }
+
+    }
+
+}
@@ -0,0 +1,544 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingMetrics;
+import com.cookingfox.chefling.api.CheflingScope;
+import com.cookingfox.chefling.api.command.GetInstanceCommand;
+import com.cookingfox.chefling.api.exception.CircularDependencyDetectedException;
+import com.cookingfox.chefling.api.exception.ContainerException;
+
+import java.util.LinkedList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * @see GetInstanceCommand
+ */
+public class GetInstanceCommandImpl extends AbstractCommand implements GetInstanceCommand {
+
+    //----------------------------------------------------------------------------------------------
+    // STATIC PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The instance creation that a thread is waiting for. This is used to detect circular
+     * dependencies that are being resolved by multiple threads. It is shared by all containers,
+     * since a creation is done by the container that owns the type: a cycle between threads can
+     * cross the containers of a tree.
+     */
+    protected static final ConcurrentMap<Thread, InstanceCreation> WAITING = new ConcurrentHashMap<>();
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Temporary 'log' of the types that are in the process of being resolved by the current thread.
+     * After the type is successfully resolved, the entry is removed. This is used to detect
+     * circular dependencies.
+     */
+    protected final ThreadLocal<LinkedList<Class>> currentlyResolving = new ThreadLocal<LinkedList<Class>>() {
+        @Override
+        protected LinkedList<Class> initialValue() {
+            return new LinkedList<>();
+        }
+    };
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public GetInstanceCommandImpl(CommandContainer container) {
+        super(container);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public <T> T getInstance(Class<T> type) {
+        assertNonNull(type, "type");
+
+        CommandContainer owner = findOneWithInstanceOrMapping(_container, type);
+        T instance = owner == null ? createInstance(type) : useOwnerInstanceOrMapping(owner, type);
+
+        // the instance that is being created by this thread (if any) depends on this instance,
+        // for example when a factory requests it
+        DependencyRecorder.record(instance);
+
+        return instance;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Waits for an instance creation of another thread to complete.
+     *
+     * @param creation The instance creation to wait for.
+     * @return The created instance.
+     * @throws ContainerException when the instance could not be created.
+     */
+    protected Object awaitCreation(InstanceCreation creation) {
+        Thread current = Thread.currentThread();
+
+        WAITING.put(current, creation);
+
+        try {
+            // the other thread is (indirectly) waiting for this thread: circular dependency
+            if (isWaitingFor(creation, current)) {
+                throw new CircularDependencyDetectedException(getDependencyTrace(creation));
+            }
+
+            return creation.await();
+        } finally {
+            WAITING.remove(current);
+        }
+    }
+
+    /**
+     * Attempts to create an instance of the type. Only one instance of a type is created at a time:
+     * concurrent requests for the same type wait for that creation to complete.
+     *
+     * @param type The type to create an instance of.
+     * @param <T>  Ensures the returned object is cast to the expected type.
+     * @return The created instance.
+     * @throws ContainerException when the instance could not be created.
+     */
+    protected <T> T createInstance(Class<T> type) {
+        if (!_container.allocationAccounting) {
+            return createAndStoreInstance(type);
+        }
+
+        // the work of the container is not measured as part of a factory that requests the type
+        AllocationRecorder.pause();
+
+        try {
+            return createAndStoreInstance(type);
+        } finally {
+            AllocationRecorder.resume();
+        }
+    }
+
+    /**
+     * Creates and stores an instance of the type, or waits for the creation of another thread.
+     *
+     * @param type The type to create an instance of.
+     * @param <T>  Ensures the returned object is cast to the expected type.
+     * @return The created instance.
+     * @throws ContainerException when the instance could not be created.
+     * @see #createInstance(Class)
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T createAndStoreInstance(Class<T> type) {
+        LinkedList<Class> resolving = currentlyResolving.get();
+
+        // if the requested type is already being processed, it indicates a circular dependency
+        if (resolving.contains(type)) {
+            throw new CircularDependencyDetectedException(getDependencyTrace());
+        }
+
+        // the creations are shared by the tree, so that one instance of the type is created for
+        // all of its containers
+        ConcurrentMap<Class, InstanceCreation> creations = _container.index.creations;
+        InstanceCreation creation = new InstanceCreation(type);
+        InstanceCreation existing = creations.putIfAbsent(type, creation);
+
+        // another thread is creating an instance of this type: use its result
+        if (existing != null) {
+            T instance = (T) awaitCreation(existing);
+            recordCacheHit(type);
+
+            return instance;
+        }
+
+        try {
+            // the instance may have been stored before this creation was registered
+            T instance = (T) getStoredInstance(type);
+
+            if (instance == null) {
+                // store currently processed type
+                resolving.add(type);
+                DependencyRecorder.begin();
+
+                Set<Object> dependencies;
+
+                try {
+                    // create instance
+                    instance = _container.createInstance(type);
+                } finally {
+                    // remove processed type
+                    dependencies = DependencyRecorder.end();
+                    resolving.removeLast();
+                }
+
+                // store instance and the instances it depends on
+                if (!dependencies.isEmpty()) {
+                    _container.addDependencies(type, dependencies);
+                }
+
+                _container.instances.put(type, instance);
+                _container.index.add(type, _container);
+
+                recordCreation(type);
+            } else {
+                recordCacheHit(type);
+            }
+
+            creation.complete(instance, null);
+
+            return instance;
+        } catch (RuntimeException | Error e) {
+            creation.complete(null, e);
+
+            throw e;
+        } finally {
+            creations.remove(type, creation);
+        }
+    }
+
+    /**
+     * Creates a new instance of a type with a scoped mapping, using the container's resolution
+     * plan for the type. The instance is not stored in the container, so concurrent requests each
+     * create their own instance.
+     *
+     * @param type The type to create an instance of.
+     * @param <T>  Ensures the returned object is cast to the expected type.
+     * @return The created instance.
+     * @throws ContainerException when the instance could not be created.
+     */
+    protected <T> T createTransientInstance(Class<T> type) {
+        LinkedList<Class> resolving = currentlyResolving.get();
+
+        // if the requested type is already being processed, it indicates a circular dependency
+        if (resolving.contains(type)) {
+            throw new CircularDependencyDetectedException(getDependencyTrace());
+        }
+
+        resolving.add(type);
+
+        T instance;
+
+        try {
+            instance = _container.createInstance(type);
+        } finally {
+            resolving.removeLast();
+        }
+
+        recordCreation(type);
+
+        return instance;
+    }
+
+    /**
+     * Returns a trace of the dependencies.
+     *
+     * @return String builder, so it can be output.
+     */
+    protected StringBuilder getDependencyTrace() {
+        return buildDependencyTrace(currentlyResolving.get());
+    }
+
+    /**
+     * Returns a trace of the dependencies, for a circular dependency between threads: starting at
+     * the types being resolved by the current thread, followed by the types that the threads are
+     * waiting for.
+     *
+     * @param creation The instance creation the current thread is waiting for.
+     * @return String builder, so it can be output.
+     */
+    protected StringBuilder getDependencyTrace(InstanceCreation creation) {
+        LinkedList<Class> trace = new LinkedList<>(currentlyResolving.get());
+        Thread current = Thread.currentThread();
+
+        while (creation != null && !trace.contains(creation.type)) {
+            trace.add(creation.type);
+
+            creation = creation.thread == current ? null : WAITING.get(creation.thread);
+        }
+
+        return buildDependencyTrace(trace);
+    }
+
+    /**
+     * Builds a trace of the provided dependencies, where the last dependency refers to the first.
+     *
+     * @param dependencies The types that are being resolved, in order.
+     * @return String builder, so it can be output.
+     */
+    protected StringBuilder buildDependencyTrace(LinkedList<Class> dependencies) {
+        StringBuilder builder = new StringBuilder();
+        Class first = dependencies.getFirst();
+        Class previous = first;
+
+        if (dependencies.size() > 1) {
+            // start at second
+            for (int i = 1; i < dependencies.size(); i++) {
+                Class current = dependencies.get(i);
+
+                // add trace: previous > current
+                builder.append(previous.getName());
+                builder.append(" > ");
+                builder.append(current.getName());
+                builder.append("\n");
+
+                // previous is current
+                previous = current;
+            }
+        }
+
+        // add trace: previous (last) > first
+        builder.append(previous.getName());
+        builder.append(" > ");
+        builder.append(first.getName());
+
+        return builder;
+    }
+
+    /**
+     * Gets the instance of a type with a scoped mapping: a new instance for a transient mapping,
+     * or the instance of the current thread or request scope, which is created if it does not
+     * exist yet.
+     *
+     * @param owner The owner container of the mapping.
+     * @param type  The type to get an instance of.
+     * @param scope The scope of the mapping.
+     * @param <T>   Ensures the returned object is cast to the expected type.
+     * @return The requested instance.
+     * @throws ContainerException when the instance could not be created.
+     */
+    protected <T> T getScopedInstance(CommandContainer owner, Class<T> type, CheflingScope scope) {
+        if (!_container.allocationAccounting) {
+            return getOrCreateScopedInstance(owner, type, scope);
+        }
+
+        // the work of the container is not measured as part of a factory that requests the type
+        AllocationRecorder.pause();
+
+        try {
+            return getOrCreateScopedInstance(owner, type, scope);
+        } finally {
+            AllocationRecorder.resume();
+        }
+    }
+
+    /**
+     * Gets or creates the instance of a type with a scoped mapping.
+     *
+     * @param owner The owner container of the mapping.
+     * @param type  The type to get an instance of.
+     * @param scope The scope of the mapping.
+     * @param <T>   Ensures the returned object is cast to the expected type.
+     * @return The requested instance.
+     * @throws ContainerException when the instance could not be created.
+     * @see #getScopedInstance(CommandContainer, Class, CheflingScope)
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T getOrCreateScopedInstance(CommandContainer owner, Class<T> type, CheflingScope scope) {
+        ScopeStore store;
+
+        if (scope == CheflingScope.THREAD) {
+            store = owner.getThreadScope().getStore();
+        } else if (scope == CheflingScope.REQUEST) {
+            store = RequestScope.getActiveStore(owner, type);
+        } else {
+            return createTransientInstance(type);
+        }
+
+        T instance = (T) store.get(type);
+
+        // the store belongs to the current thread, so no other thread can create the instance
+        if (instance == null) {
+            instance = createTransientInstance(type);
+            store.put(type, instance);
+        } else {
+            recordCacheHit(type);
+        }
+
+        return instance;
+    }
+
+    /**
+     * Returns the stored instance of the type: the instance of this container, or else the
+     * instance of the container of the tree that owns the type.
+     *
+     * @param type The type to get the instance of.
+     * @return The stored instance, or null if the type does not have one.
+     */
+    protected Object getStoredInstance(Class type) {
+        Object instance = _container.instances.get(type);
+
+        if (instance == null) {
+            CommandContainer owner = _container.index.get(type);
+
+            if (owner != null) {
+                instance = owner.instances.get(type);
+            }
+        }
+
+        return instance;
+    }
+
+    /**
+     * Follows the chain of threads that are waiting for each other's instance creations, starting
+     * at `creation`, to check whether it leads back to `thread`.
+     *
+     * @param creation The instance creation to start at.
+     * @param thread   The thread to look for.
+     * @return Whether the instance creation (indirectly) depends on the thread.
+     */
+    protected boolean isWaitingFor(InstanceCreation creation, Thread thread) {
+        // limit the number of steps, in case the chain changes while following it
+        int maxSteps = WAITING.size() + 1;
+
+        for (int i = 0; creation != null && i < maxSteps; i++) {
+            if (creation.thread == thread) {
+                return true;
+            }
+
+            creation = WAITING.get(creation.thread);
+        }
+
+        return false;
+    }
+
+    /**
+     * Records that an existing instance of the type was used, if metrics are enabled.
+     *
+     * @param type The type of the instance.
+     */
+    protected void recordCacheHit(Class type) {
+        CheflingMetrics metrics = _container.metrics;
+
+        if (metrics != null) {
+            metrics.recordCacheHit(type);
+        }
+    }
+
+    /**
+     * Records that a new instance of the type was created, if metrics are enabled.
+     *
+     * @param type The type of the instance.
+     */
+    protected void recordCreation(Class type) {
+        CheflingMetrics metrics = _container.metrics;
+
+        if (metrics != null) {
+            metrics.recordCreation(type);
+        }
+    }
+
+    /**
+     * Use an existing mapping to get the instance.
+     *
+     * @param owner The owner container of the mapping.
+     * @param type  The type to get an instance of.
+     * @param <T>   Ensures the returned object is cast to the expected type.
+     * @return The requested instance.
+     * @throws ContainerException when the instance could not be created.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T useOwnerInstanceOrMapping(CommandContainer owner, Class<T> type) {
+        int id = TypeIds.get(type);
+        T instance = (T) owner.instances.getById(id);
+
+        // saved instance: return it
+        if (instance != null) {
+            recordCacheHit(type);
+
+            return instance;
+        }
+
+        CheflingScope scope = owner.scopes.getById(id);
+
+        // scoped mapping: the instance is not stored in the container
+        if (scope != null) {
+            return getScopedInstance(owner, type, scope);
+        }
+
+        Object mapping = owner.mappings.getById(id);
+
+        // existing mapping is another type: use it to get the instance
+        if (mapping instanceof Class) {
+            return getInstance((Class<T>) mapping);
+        }
+
+        // the owner of the mapping creates and stores the instance, so the whole tree shares it
+        if (owner != _container) {
+            return ((GetInstanceCommandImpl) owner.getGetInstanceCommand()).createInstance(type);
+        }
+
+        // no existing instance or mapping: create a new instance
+        return createInstance(type);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Represents the creation of an instance by a specific thread, so that other threads can wait
+     * for its result.
+     */
+    protected static class InstanceCreation {
+
+        protected final CountDownLatch done = new CountDownLatch(1);
+        protected final Thread thread = Thread.currentThread();
+        protected final Class type;
+        protected Throwable error;
+        protected Object instance;
+
+        protected InstanceCreation(Class type) {
+            this.type = type;
+        }
+
+        /**
+         * Wait for the creation to complete.
+         *
+         * @return The created instance.
+         * @throws ContainerException when the instance could not be created.
+         */
+        protected Object await() {
+            boolean interrupted = false;
+
+            while (done.getCount() > 0) {
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+
+            // restore interrupted status
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            } else if (error instanceof Error) {
+                throw (Error) error;
+            }
+
+            return instance;
+        }
+
+        /**
+         * Complete the creation, releasing the waiting threads.
+         *
+         * @param instance The created instance, or null if the creation failed.
+         * @param error    The error that occurred, or null if the creation succeeded.
+         */
+        protected void complete(Object instance, Throwable error) {
+            this.instance = instance;
+            this.error = error;
+
+            done.countDown();
+        }
+
+    }
+
+}
@@ -21,7 +21,7 @@ public class HasInstanceOrMappingCommandImpl extends AbstractCommand implements
 
     @Override
     public boolean hasInstanceOrMapping(Class type) {
-        return findOneWithInstanceOrMapping(_container, type) != null;
+        return type != null && findOneWithInstanceOrMapping(_container, type) != null;
     }
 
 }
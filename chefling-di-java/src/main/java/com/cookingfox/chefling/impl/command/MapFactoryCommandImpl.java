@@ -1,6 +1,7 @@
 package com.cookingfox.chefling.impl.command;
 
 import com.cookingfox.chefling.api.CheflingFactory;
+import com.cookingfox.chefling.api.CheflingScope;
 import com.cookingfox.chefling.api.command.MapFactoryCommand;
 import com.cookingfox.chefling.api.exception.FactoryIncorrectGenericException;
 
@@ -27,8 +28,14 @@ public class MapFactoryCommandImpl extends AbstractCommand implements MapFactory
 
     @Override
     public <T> void mapFactory(Class<T> type, CheflingFactory<T> factory) {
+        mapFactory(type, factory, CheflingScope.SINGLETON);
+    }
+
+    @Override
+    public <T> void mapFactory(Class<T> type, CheflingFactory<T> factory, CheflingScope scope) {
         assertNonNull(type, "type");
         assertNonNull(factory, "factory");
+        assertNonNull(scope, "scope");
 
         Class genericType = getGenericType(factory.getClass());
 
@@ -37,7 +44,7 @@ public class MapFactoryCommandImpl extends AbstractCommand implements MapFactory
             throw new FactoryIncorrectGenericException(type, genericType);
         }
 
-        addMapping(type, factory);
+        addMapping(type, factory, scope);
     }
 
     //----------------------------------------------------------------------------------------------
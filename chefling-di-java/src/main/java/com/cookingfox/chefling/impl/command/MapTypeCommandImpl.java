@@ -1,5 +1,6 @@
 package com.cookingfox.chefling.impl.command;
 
+import com.cookingfox.chefling.api.CheflingScope;
 import com.cookingfox.chefling.api.command.MapTypeCommand;
 import com.cookingfox.chefling.api.exception.ContainerException;
 import com.cookingfox.chefling.api.exception.NotASubTypeException;
@@ -23,8 +24,14 @@ public class MapTypeCommandImpl extends AbstractCommand implements MapTypeComman
 
     @Override
     public <T> void mapType(Class<T> type, Class<? extends T> subType) {
+        mapType(type, subType, CheflingScope.SINGLETON);
+    }
+
+    @Override
+    public <T> void mapType(Class<T> type, Class<? extends T> subType, CheflingScope scope) {
         assertNonNull(type, "type");
         assertNonNull(subType, "subType");
+        assertNonNull(scope, "scope");
 
         // validate the sub type extends the type
         if (subType.equals(type) || !type.isAssignableFrom(subType)) {
@@ -39,7 +46,7 @@ public class MapTypeCommandImpl extends AbstractCommand implements MapTypeComman
             isInstantiable(subType);
         }
 
-        addMapping(type, subType);
+        addMapping(type, subType, scope);
     }
 
 }
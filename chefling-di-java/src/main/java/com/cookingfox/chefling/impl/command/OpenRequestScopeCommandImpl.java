@@ -0,0 +1,28 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingRequestScope;
+import com.cookingfox.chefling.api.command.OpenRequestScopeCommand;
+
+/**
+ * @see OpenRequestScopeCommand
+ */
+public class OpenRequestScopeCommandImpl extends AbstractCommand implements OpenRequestScopeCommand {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public OpenRequestScopeCommandImpl(CommandContainer container) {
+        super(container);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public CheflingRequestScope openRequestScope() {
+        return RequestScope.open();
+    }
+
+}
@@ -4,7 +4,6 @@ import com.cookingfox.chefling.api.CheflingContainer;
 import com.cookingfox.chefling.api.command.RemoveInstanceAndMappingCommand;
 import com.cookingfox.chefling.api.exception.ContainerException;
 import com.cookingfox.chefling.api.exception.RemoveTypeNotAllowedException;
-import com.cookingfox.chefling.impl.helper.CommandContainerVisitor;
 
 import java.util.*;
 
@@ -54,8 +53,8 @@ public class RemoveInstanceAndMappingCommandImpl extends AbstractCommand impleme
             return;
         }
 
+        assertNoMappingsToType(type);
         removeMappingsForType(type);
-        removeMappingsToType(type);
     }
 
     //----------------------------------------------------------------------------------------------
@@ -63,50 +62,22 @@ public class RemoveInstanceAndMappingCommandImpl extends AbstractCommand impleme
     //----------------------------------------------------------------------------------------------
 
     /**
-     * Remove all instances and mappings for the type.
-     *
-     * @param type The type to remove.
-     */
-    protected void removeMappingsForType(Class type) {
-        CommandContainer typeOwner = findOneWithInstanceOrMapping(_container, type);
-
-        // call destroy method for life cycle objects
-        lifecycleDispose(typeOwner.instances.get(type));
-
-        // remove type from maps
-        typeOwner.instances.remove(type);
-        typeOwner.mappings.remove(type);
-    }
-
-    /**
-     * Remove all mappings TO this type. This can occur when {@link CheflingContainer#mapType(Class, Class)}
-     * was used.
+     * Checks that there are no mappings TO this type, which can occur when
+     * {@link CheflingContainer#mapType(Class, Class)} was used. Uses the reverse mapping index, so
+     * the mappings of the tree do not need to be scanned.
      *
      * @param type The type to remove.
      * @throws ContainerException when the mapping cannot be removed.
      */
-    protected void removeMappingsToType(final Class type) {
-        final Set<Class> toRemoveTypes = new LinkedHashSet<>();
-
-        // find mappings TO this type in all container children
-        visitAll(_container, new CommandContainerVisitor() {
-            @Override
-            public void visit(CommandContainer container) {
-                for (Map.Entry<Class, Object> mapping : container.mappings.entrySet()) {
-                    // mapping value is type: add to list of mappings to remove
-                    if (mapping.getValue().equals(type)) {
-                        toRemoveTypes.add(mapping.getKey());
-                    }
-                }
-            }
-        });
+    protected void assertNoMappingsToType(Class type) {
+        Set<Class> mappedTypes = _container.index.getTypesMappedTo(type);
 
-        if (!toRemoveTypes.isEmpty()) {
+        if (!mappedTypes.isEmpty()) {
             StringBuilder error = new StringBuilder("The mapping for `");
             error.append(type.getName());
             error.append("` can not be removed, because it has other types mapped to it: ");
 
-            Iterator<Class> iterator = toRemoveTypes.iterator();
+            Iterator<Class> iterator = mappedTypes.iterator();
 
             while (iterator.hasNext()) {
                 error.append('`');
@@ -122,4 +93,23 @@ public class RemoveInstanceAndMappingCommandImpl extends AbstractCommand impleme
         }
     }
 
+    /**
+     * Remove all instances and mappings for the type.
+     *
+     * @param type The type to remove.
+     */
+    protected void removeMappingsForType(Class type) {
+        CommandContainer typeOwner = findOneWithInstanceOrMapping(_container, type);
+
+        // call destroy method for life cycle objects
+        lifecycleDispose(typeOwner.instances.get(type));
+
+        // remove type from maps
+        typeOwner.instances.remove(type);
+        typeOwner.mappings.remove(type);
+        typeOwner.scopes.remove(type);
+        typeOwner.dependencies.remove(type);
+        typeOwner.index.remove(type, typeOwner);
+    }
+
 }
@@ -0,0 +1,135 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingRequestScope;
+import com.cookingfox.chefling.api.exception.ContainerDisposeException;
+import com.cookingfox.chefling.api.exception.ScopeNotActiveException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link CheflingRequestScope} implementation. The active scope of a thread is kept in a thread
+ * local, and every scope refers to the scope that was active before it was opened. The scope is
+ * shared by all containers, but every container that owns request scoped mappings has its own
+ * instances in it.
+ */
+public class RequestScope implements CheflingRequestScope {
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The active request scope of the current thread, or null if there is none.
+     */
+    protected static final ThreadLocal<RequestScope> active = new ThreadLocal<>();
+
+    protected boolean closed;
+
+    /**
+     * The scope that was active when this scope was opened.
+     */
+    protected final RequestScope previous;
+
+    /**
+     * The instances of this scope, by the container that owns their mappings.
+     */
+    protected final Map<CommandContainer, ScopeStore> stores = new LinkedHashMap<>();
+
+    /**
+     * The thread that opened this scope.
+     */
+    protected final Thread thread;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    protected RequestScope(RequestScope previous, Thread thread) {
+        this.previous = previous;
+        this.thread = thread;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+
+        if (Thread.currentThread() != thread) {
+            throw new IllegalStateException("A request scope must be closed by the thread that opened it");
+        }
+
+        closed = true;
+
+        // scopes that were opened within this scope and not closed are discarded as well
+        if (previous == null) {
+            active.remove();
+        } else {
+            active.set(previous);
+        }
+
+        List<ScopeStore> disposing = new ArrayList<>(stores.values());
+        List<RuntimeException> failures = new ArrayList<>();
+
+        // dispose the instances of the containers in reverse order of first use
+        for (int i = disposing.size() - 1; i >= 0; i--) {
+            failures.addAll(disposing.get(i).dispose());
+        }
+
+        stores.clear();
+
+        if (!failures.isEmpty()) {
+            throw new ContainerDisposeException(failures, Collections.<Class>emptyList());
+        }
+    }
+
+    /**
+     * Opens a request scope on the current thread.
+     *
+     * @return The opened scope.
+     */
+    public static RequestScope open() {
+        RequestScope scope = new RequestScope(active.get(), Thread.currentThread());
+
+        active.set(scope);
+
+        return scope;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @param owner The container that owns the mapping of the type.
+     * @param type  The request scoped type that is requested.
+     * @return The store of the container in the active request scope of the current thread.
+     * @throws ScopeNotActiveException when no request scope is active.
+     */
+    protected static ScopeStore getActiveStore(CommandContainer owner, Class type) {
+        RequestScope scope = active.get();
+
+        if (scope == null) {
+            throw new ScopeNotActiveException(type);
+        }
+
+        ScopeStore store = scope.stores.get(owner);
+
+        // the scope is only used by the thread that opened it
+        if (store == null) {
+            store = new ScopeStore();
+            scope.stores.put(owner, store);
+        }
+
+        return store;
+    }
+
+}
@@ -0,0 +1,249 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingFactory;
+import com.cookingfox.chefling.api.CheflingLazy;
+import com.cookingfox.chefling.api.CheflingProvider;
+import com.cookingfox.chefling.api.exception.ContainerException;
+import com.cookingfox.chefling.impl.helper.Providers;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A compiled plan to create an instance of a type in a specific container: a flat list of steps in
+ * dependency order, where every step produces one value. Steps can use the values of previous
+ * steps by their index ("slot"). The value of the last step is the created instance.
+ * <p>
+ * A plan is compiled once by {@link CreateInstanceCommandImpl} and executed for every following
+ * request of the type, so the mappings do not need to be looked up again and the constructor is
+ * not selected again. A plan remains valid until the instances or mappings of one of its
+ * {@link #dependencies} change: see {@link CommandContainerIndex#invalidate(Class)}.
+ */
+public class ResolutionPlan {
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The types whose instances or mappings were used to compile this plan.
+     */
+    protected final Set<Class> dependencies;
+
+    /**
+     * The steps of this plan, in dependency order.
+     */
+    protected final Step[] steps;
+
+    /**
+     * Whether this plan can still be used.
+     */
+    protected volatile boolean valid = true;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public ResolutionPlan(List<Step> steps, Set<Class> dependencies) {
+        this.dependencies = Collections.unmodifiableSet(dependencies);
+        this.steps = steps.toArray(new Step[steps.size()]);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Executes the steps of this plan.
+     *
+     * @return The created instance.
+     * @throws ContainerException when the instance could not be created.
+     */
+    public Object execute() {
+        Object[] slots = new Object[steps.length];
+
+        for (int i = 0; i < steps.length; i++) {
+            slots[i] = steps[i].execute(slots);
+        }
+
+        return slots[steps.length - 1];
+    }
+
+    /**
+     * Marks this plan as invalid, so that it is compiled again the next time it is needed.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * @return Whether this plan can still be used.
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * A single step of a plan, which produces one value.
+     */
+    protected interface Step {
+
+        /**
+         * @param slots The values produced by the previous steps.
+         * @return The value of this step.
+         */
+        Object execute(Object[] slots);
+
+    }
+
+    /**
+     * Reuses an instance that existed when the plan was compiled: a mapped instance or a singleton.
+     */
+    protected static class ReuseStep implements Step {
+
+        protected final Object instance;
+
+        public ReuseStep(Object instance) {
+            this.instance = instance;
+        }
+
+        @Override
+        public Object execute(Object[] slots) {
+            return instance;
+        }
+
+    }
+
+    /**
+     * Gets the instance of a type that did not exist yet when the plan was compiled, using
+     * {@link CommandContainer#getInstance(Class)}.
+     */
+    protected static class GetInstanceStep implements Step {
+
+        protected final CommandContainer container;
+        protected final Class type;
+
+        public GetInstanceStep(CommandContainer container, Class type) {
+            this.container = container;
+            this.type = type;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object execute(Object[] slots) {
+            return container.getInstance(type);
+        }
+
+    }
+
+    /**
+     * Creates a {@link CheflingProvider} or {@link CheflingLazy} handle for a type, which is
+     * resolved when the handle is used.
+     */
+    protected static class ProviderStep implements Step {
+
+        protected final CommandContainer container;
+        protected final boolean lazy;
+        protected final Class type;
+
+        public ProviderStep(CommandContainer container, Class type, boolean lazy) {
+            this.container = container;
+            this.lazy = lazy;
+            this.type = type;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object execute(Object[] slots) {
+            return lazy ? Providers.createLazy(container, type) : Providers.createProvider(container, type);
+        }
+
+    }
+
+    /**
+     * Calls a factory that was mapped using {@link CommandContainer#mapFactory(Class, CheflingFactory)}.
+     */
+    protected static class FactoryStep implements Step {
+
+        protected final CreateInstanceCommandImpl command;
+        protected final CheflingFactory factory;
+        protected final Class type;
+
+        public FactoryStep(CreateInstanceCommandImpl command, CheflingFactory factory, Class type) {
+            this.command = command;
+            this.factory = factory;
+            this.type = type;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object execute(Object[] slots) {
+            return command.resolveUsingFactory(factory, type);
+        }
+
+    }
+
+    /**
+     * Calls a factory that was generated by the annotation processor.
+     */
+    protected static class GeneratedFactoryStep implements Step {
+
+        protected final CreateInstanceCommandImpl command;
+        protected final CheflingFactory factory;
+        protected final Class type;
+
+        public GeneratedFactoryStep(CreateInstanceCommandImpl command, CheflingFactory factory, Class type) {
+            this.command = command;
+            this.factory = factory;
+            this.type = type;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object execute(Object[] slots) {
+            return command.createInstanceUsingGeneratedFactory(factory, type);
+        }
+
+    }
+
+    /**
+     * Calls the selected constructor of a type, passing the values of the argument slots.
+     */
+    protected static class ConstructStep implements Step {
+
+        protected final CreateInstanceCommandImpl command;
+        protected final CreateInstanceCommandImpl.ConstructorParameters constructor;
+        protected final int[] argumentSlots;
+        protected final Class type;
+
+        public ConstructStep(CreateInstanceCommandImpl command,
+                             CreateInstanceCommandImpl.ConstructorParameters constructor,
+                             int[] argumentSlots, Class type) {
+            this.command = command;
+            this.constructor = constructor;
+            this.argumentSlots = argumentSlots;
+            this.type = type;
+        }
+
+        @Override
+        public Object execute(Object[] slots) {
+            Object[] arguments = new Object[argumentSlots.length];
+
+            for (int i = 0; i < argumentSlots.length; i++) {
+                arguments[i] = slots[argumentSlots[i]];
+
+                // the instance that is being created depends on the arguments
+                DependencyRecorder.record(arguments[i]);
+            }
+
+            return command.createInstanceUsingConstructor(constructor, type, arguments);
+        }
+
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingLifecycle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores the instances of a single thread or request scope, by type. Instances can be read
+ * without locking.
+ */
+public class ScopeStore {
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The instances in order of creation, so that they can be disposed in reverse order.
+     */
+    protected final List<Object> created = new ArrayList<>();
+
+    /**
+     * The instances by type.
+     */
+    protected final TypeIdMap<Object> instances = new TypeIdMap<>();
+
+    /**
+     * Whether this store was disposed: a thread scope then creates a new store for the thread.
+     */
+    protected volatile boolean disposed;
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Disposes the instances that implement {@link CheflingLifecycle}, in reverse order of creation,
+     * and removes all instances. An instance that is stored for multiple types is disposed once.
+     *
+     * @return The exceptions that were thrown by the dispose calls.
+     */
+    public synchronized List<RuntimeException> dispose() {
+        List<RuntimeException> failures = new ArrayList<>();
+        Map<Object, Boolean> disposedInstances = new IdentityHashMap<>();
+
+        for (int i = created.size() - 1; i >= 0; i--) {
+            Object instance = created.get(i);
+
+            if (instance instanceof CheflingLifecycle && disposedInstances.put(instance, Boolean.TRUE) == null) {
+                try {
+                    ((CheflingLifecycle) instance).dispose();
+                } catch (RuntimeException e) {
+                    failures.add(e);
+                }
+            }
+        }
+
+        created.clear();
+        instances.clear();
+        disposed = true;
+
+        return failures.isEmpty() ? Collections.<RuntimeException>emptyList() : failures;
+    }
+
+    /**
+     * @param type The type to get the instance of.
+     * @return The instance of the type in this scope, or null if it was not created yet.
+     */
+    public Object get(Class type) {
+        return instances.get(type);
+    }
+
+    /**
+     * @return Whether this store was disposed.
+     */
+    public boolean isDisposed() {
+        return disposed;
+    }
+
+    /**
+     * @param type     The type to store the instance for.
+     * @param instance The created instance.
+     */
+    public synchronized void put(Class type, Object instance) {
+        instances.put(type, instance);
+        created.add(instance);
+    }
+
+}
@@ -38,11 +38,17 @@ public class SetParentContainerCommandImpl extends AbstractCommand implements Se
 
         CommandContainer parent = (CommandContainer) container;
 
-        checkMappingConflicts(parent);
+        CommandContainerIndex index = parent.index;
 
-        parent.children.add(_container);
+        // lock the index, which is shared by all containers in the tree
+        synchronized (index) {
+            checkMappingConflicts(parent);
 
-        _container.parent = parent;
+            parent.addChild(_container);
+
+            _container.parent = parent;
+            index.merge(_container);
+        }
     }
 
 }
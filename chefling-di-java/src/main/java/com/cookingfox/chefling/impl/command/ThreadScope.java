@@ -0,0 +1,130 @@
+package com.cookingfox.chefling.impl.command;
+
+import java.util.*;
+
+/**
+ * The {@link com.cookingfox.chefling.api.CheflingScope#THREAD} instances of a container: a
+ * {@link ScopeStore} per thread. The stores of the live threads are kept, so that their instances
+ * can be disposed when the container is disposed. The stores of threads that terminated are
+ * disposed when another thread creates its store, so that a thread pool that replaces its threads
+ * does not leak their instances.
+ */
+public class ThreadScope {
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The store of every thread that used this scope, by thread. The threads are weak keys, so
+     * that the store of a thread that was garbage collected is dropped.
+     */
+    protected final Map<Thread, ScopeStore> allStores = new WeakHashMap<>();
+
+    /**
+     * The exceptions that were thrown when the stores of terminated threads were disposed, which
+     * are reported when the scope is disposed.
+     */
+    protected final List<RuntimeException> failures = new ArrayList<>();
+
+    /**
+     * The store of the current thread.
+     */
+    protected final ThreadLocal<ScopeStore> stores = new ThreadLocal<>();
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Disposes the instances of all threads. A thread that uses the scope afterwards gets a new
+     * store.
+     *
+     * @return The exceptions that were thrown by the dispose calls.
+     */
+    public List<RuntimeException> dispose() {
+        List<ScopeStore> disposing;
+        List<RuntimeException> result;
+
+        synchronized (allStores) {
+            disposing = new ArrayList<>(allStores.values());
+            result = new ArrayList<>(failures);
+
+            allStores.clear();
+            failures.clear();
+        }
+
+        for (ScopeStore store : disposing) {
+            result.addAll(store.dispose());
+        }
+
+        stores.remove();
+
+        return result;
+    }
+
+    /**
+     * @return The store of the current thread, which is created if it does not exist yet or if the
+     * scope was disposed since it was created.
+     */
+    public ScopeStore getStore() {
+        ScopeStore store = stores.get();
+
+        if (store == null || store.isDisposed()) {
+            store = new ScopeStore();
+            stores.set(store);
+
+            List<ScopeStore> terminated = new ArrayList<>();
+
+            synchronized (allStores) {
+                removeTerminatedThreads(terminated);
+                allStores.put(Thread.currentThread(), store);
+            }
+
+            disposeTerminatedThreads(terminated);
+        }
+
+        return store;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Disposes the stores of threads that terminated, outside the lock.
+     *
+     * @param terminated The stores to dispose.
+     */
+    protected void disposeTerminatedThreads(List<ScopeStore> terminated) {
+        for (ScopeStore store : terminated) {
+            List<RuntimeException> storeFailures = store.dispose();
+
+            if (!storeFailures.isEmpty()) {
+                synchronized (allStores) {
+                    failures.addAll(storeFailures);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the stores of threads that terminated. Must be called while holding the lock of
+     * {@link #allStores}.
+     *
+     * @param terminated Receives the removed stores.
+     */
+    protected void removeTerminatedThreads(List<ScopeStore> terminated) {
+        Iterator<Map.Entry<Thread, ScopeStore>> iterator = allStores.entrySet().iterator();
+
+        while (iterator.hasNext()) {
+            Map.Entry<Thread, ScopeStore> entry = iterator.next();
+
+            if (!entry.getKey().isAlive()) {
+                terminated.add(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+}
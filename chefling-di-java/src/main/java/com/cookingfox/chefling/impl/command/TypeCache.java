@@ -0,0 +1,182 @@
+package com.cookingfox.chefling.impl.command;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache for the information that is needed to create an instance of a type, since determining it
+ * is an expensive operation. The cache is safe for concurrent use and is shared by all containers.
+ * <p>
+ * The entries are stored using a {@link ClassValue}, so they do not keep the type or its class
+ * loader from being garbage collected.
+ * <p>
+ * Which constructor is selected for a type depends on the mappings of the container that creates
+ * it, so the selected constructors are stored per "mapping key": a bit mask of the non-instantiable
+ * constructor parameter types that the container has a mapping for. See
+ * {@link CreateInstanceCommandImpl#getMappingKey(TypeCache.Entry, Class)}.
+ */
+public class TypeCache {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTANTS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Mapping key for a type with too many non-instantiable constructor parameter types to fit in a
+     * bit mask: its selected constructor is not cached.
+     */
+    public static final long UNCACHEABLE = -1L;
+
+    /**
+     * The maximum number of non-instantiable constructor parameter types of a cacheable type.
+     */
+    public static final int MAX_MAPPABLE_TYPES = Long.SIZE - 1;
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The cache entries. Replaced when the cache is cleared, since a class value can not be
+     * iterated.
+     */
+    protected volatile ClassValue<Entry> entries = createEntries();
+
+    /**
+     * Number of times a selected constructor was found in the cache.
+     */
+    protected final AtomicLong hitCount = new AtomicLong();
+
+    /**
+     * Number of times a selected constructor was not found in the cache.
+     */
+    protected final AtomicLong missCount = new AtomicLong();
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Removes all entries and resets the hit and miss counters.
+     */
+    public void clear() {
+        entries = createEntries();
+        hitCount.set(0);
+        missCount.set(0);
+    }
+
+    /**
+     * @param type The type to check.
+     * @return Whether a selected constructor is cached for the type, for any mapping key.
+     */
+    public boolean containsConstructor(Class type) {
+        return !getEntry(type).constructors.isEmpty();
+    }
+
+    /**
+     * @return The number of times a selected constructor was found in the cache.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return The number of times a selected constructor was not found in the cache.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Get the cached selected constructor of the type for this mapping key, and count the lookup as
+     * a hit or a miss.
+     *
+     * @param entry      The cache entry of the type.
+     * @param mappingKey The mapping key of the container that creates the type.
+     * @return The cached constructor, or null if it is not cached.
+     */
+    protected CreateInstanceCommandImpl.ConstructorParameters getConstructor(Entry entry, long mappingKey) {
+        CreateInstanceCommandImpl.ConstructorParameters cached = null;
+
+        if (mappingKey != UNCACHEABLE) {
+            cached = entry.constructors.get(mappingKey);
+        }
+
+        if (cached == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+
+        return cached;
+    }
+
+    /**
+     * @param type The type to get the cache entry for.
+     * @return The cache entry of the type, which is created if it does not exist yet.
+     */
+    protected Entry getEntry(Class type) {
+        return entries.get(type);
+    }
+
+    /**
+     * Cache the selected constructor of the type for this mapping key.
+     *
+     * @param entry       The cache entry of the type.
+     * @param mappingKey  The mapping key of the container that creates the type.
+     * @param constructor The selected constructor.
+     */
+    protected void putConstructor(Entry entry, long mappingKey,
+                                  CreateInstanceCommandImpl.ConstructorParameters constructor) {
+        if (mappingKey != UNCACHEABLE) {
+            entry.constructors.putIfAbsent(mappingKey, constructor);
+        }
+    }
+
+    /**
+     * @return A new class value that creates an empty entry for every type.
+     */
+    protected static ClassValue<Entry> createEntries() {
+        return new ClassValue<Entry>() {
+            @Override
+            protected Entry computeValue(Class<?> type) {
+                return new Entry();
+            }
+        };
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The cached information of a single type.
+     */
+    protected static class Entry {
+
+        /**
+         * Selected constructors, by mapping key.
+         */
+        protected final ConcurrentMap<Long, CreateInstanceCommandImpl.ConstructorParameters> constructors =
+                new ConcurrentHashMap<>();
+
+        /**
+         * The factory that was generated for the type by the annotation processor, or
+         * {@link CreateInstanceCommandImpl#NO_GENERATED_FACTORY}. Null if it was not looked up yet.
+         */
+        protected volatile Object generatedFactory;
+
+        /**
+         * The non-instantiable parameter types of the type's constructors, which can only be
+         * resolved when the container has a mapping for them. Null if they were not determined yet.
+         */
+        protected volatile Class[] mappableTypes;
+
+    }
+
+}
@@ -0,0 +1,362 @@
+package com.cookingfox.chefling.impl.command;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Map of types to values that stores the values in arrays, indexed by the id of the type (see
+ * {@link TypeIds}). A lookup computes the id of the type once, after which it is two array reads:
+ * no hashing of the type and no entry objects. A bit set per page marks which ids the map contains,
+ * so iterating the map skips the empty slots.
+ * <p>
+ * The ids of all types share one range, so the values are stored in pages of {@link #PAGE_SIZE}
+ * slots that are only allocated for the ranges of ids the map contains. The pages are found using a
+ * two-level directory: tables of {@link #TABLE_SIZE} pages, which are also only allocated for the
+ * ranges of ids the map contains. A map with few types allocates a few pages and tables, plus one
+ * reference per {@code PAGE_SIZE * TABLE_SIZE} ids up to its highest id.
+ * <p>
+ * Like a {@link java.util.concurrent.ConcurrentHashMap}, the map can be read without locking while
+ * it is changed, and its iterators do not throw {@link ConcurrentModificationException}. Changes
+ * are synchronized on the map. Null keys and values are not allowed.
+ *
+ * @param <V> The type of the values.
+ */
+public class TypeIdMap<V> extends AbstractMap<Class, V> {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTANTS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The number of slots of a page. Must be a power of two, at most {@link Integer#SIZE}.
+     */
+    protected static final int PAGE_SIZE = 16;
+
+    protected static final int PAGE_SHIFT = Integer.numberOfTrailingZeros(PAGE_SIZE);
+
+    protected static final int SLOT_MASK = PAGE_SIZE - 1;
+
+    /**
+     * The number of pages of a table. Must be a power of two.
+     */
+    protected static final int TABLE_SIZE = 64;
+
+    protected static final int TABLE_SHIFT = Integer.numberOfTrailingZeros(TABLE_SIZE);
+
+    protected static final int PAGE_MASK = TABLE_SIZE - 1;
+
+    protected static final Page[][] NO_TABLES = new Page[0][];
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The tables of pages by table number, where null means the table contains no pages. A table
+     * holds the pages by their number within the table, where null means the page contains no
+     * values. When a page is added, its table and this array are replaced by copies, so that
+     * readers never see a partially updated array.
+     */
+    protected volatile Page<V>[][] tables;
+
+    /**
+     * The number of values in this map.
+     */
+    protected volatile int size;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public TypeIdMap() {
+        tables = noTables();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public synchronized void clear() {
+        tables = noTables();
+        size = 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @param id The id of the type, see {@link TypeIds#get(Class)}.
+     * @return Whether the map contains a value for the type.
+     */
+    public boolean containsId(int id) {
+        return getById(id) != null;
+    }
+
+    @Override
+    public Set<Entry<Class, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Class ? getById(TypeIds.get((Class) key)) : null;
+    }
+
+    /**
+     * @param id The id of the type, see {@link TypeIds#get(Class)}.
+     * @return The value for the type, or null if the map does not contain the type.
+     */
+    public V getById(int id) {
+        Page<V> page = getPage(tables, id >>> PAGE_SHIFT);
+
+        return page == null ? null : page.values.get(id & SLOT_MASK);
+    }
+
+    @Override
+    public synchronized V put(Class key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+
+        int id = TypeIds.get(key);
+        Page<V> page = getOrAddPage(id >>> PAGE_SHIFT);
+        int slot = id & SLOT_MASK;
+
+        // set the key before the value, since readers check the value first
+        page.keys[slot] = key;
+
+        V previous = page.values.getAndSet(slot, value);
+
+        if (previous == null) {
+            page.occupied |= 1 << slot;
+            size++;
+        }
+
+        return previous;
+    }
+
+    @Override
+    public synchronized V remove(Object key) {
+        if (!(key instanceof Class)) {
+            return null;
+        }
+
+        int id = TypeIds.get((Class) key);
+        Page<V> page = getPage(tables, id >>> PAGE_SHIFT);
+
+        if (page == null) {
+            return null;
+        }
+
+        int slot = id & SLOT_MASK;
+        V previous = page.values.getAndSet(slot, null);
+
+        if (previous != null) {
+            page.occupied &= ~(1 << slot);
+            page.keys[slot] = null;
+            size--;
+        }
+
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the page with the provided number, which is added if it does not exist yet. Must be
+     * called while synchronized on this map.
+     *
+     * @param pageNumber The number of the page.
+     * @return The page.
+     */
+    @SuppressWarnings("unchecked")
+    protected Page<V> getOrAddPage(int pageNumber) {
+        Page<V>[][] current = tables;
+        Page<V> page = getPage(current, pageNumber);
+
+        if (page != null) {
+            return page;
+        }
+
+        int tableNumber = pageNumber >>> TABLE_SHIFT;
+        Page<V>[] table = tableNumber < current.length ? current[tableNumber] : null;
+
+        // only the table of the page and the array of tables are copied
+        Page<V>[] tableCopy = table == null ? new Page[TABLE_SIZE] : table.clone();
+        Page<V>[][] copy = Arrays.copyOf(current, Math.max(current.length, tableNumber + 1));
+
+        page = new Page<>();
+        tableCopy[pageNumber & PAGE_MASK] = page;
+        copy[tableNumber] = tableCopy;
+        tables = copy;
+
+        return page;
+    }
+
+    /**
+     * @param tables     The tables of pages to look in.
+     * @param pageNumber The number of the page.
+     * @param <V>        The type of the values.
+     * @return The page, or null if the tables do not contain it.
+     */
+    protected static <V> Page<V> getPage(Page<V>[][] tables, int pageNumber) {
+        int tableNumber = pageNumber >>> TABLE_SHIFT;
+
+        if (tableNumber >= tables.length) {
+            return null;
+        }
+
+        Page<V>[] table = tables[tableNumber];
+
+        return table == null ? null : table[pageNumber & PAGE_MASK];
+    }
+
+    /**
+     * @param <V> The type of the values.
+     * @return The shared empty array of tables: it has no elements, so it can be used for any type
+     * of values.
+     */
+    @SuppressWarnings("unchecked")
+    protected static <V> Page<V>[][] noTables() {
+        return (Page<V>[][]) NO_TABLES;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The values of a range of {@link #PAGE_SIZE} type ids.
+     */
+    protected static class Page<V> {
+
+        /**
+         * The types, by slot. Only used to iterate the map.
+         */
+        protected final Class[] keys = new Class[PAGE_SIZE];
+
+        /**
+         * The values, by slot.
+         */
+        protected final AtomicReferenceArray<V> values = new AtomicReferenceArray<>(PAGE_SIZE);
+
+        /**
+         * Bit set of the slots that have a value.
+         */
+        protected volatile int occupied;
+
+    }
+
+    /**
+     * The entries of the map. Changes of the map during iteration may or may not be visible.
+     */
+    protected class EntrySet extends AbstractSet<Entry<Class, V>> {
+
+        @Override
+        public Iterator<Entry<Class, V>> iterator() {
+            return new EntryIterator(tables);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+    /**
+     * Iterates the occupied slots of the pages.
+     */
+    protected class EntryIterator implements Iterator<Entry<Class, V>> {
+
+        protected final Page<V>[][] tables;
+        protected Entry<Class, V> last;
+        protected Entry<Class, V> next;
+        protected Page<V> page;
+        protected int pageNumber = -1;
+        protected int remaining;
+
+        protected EntryIterator(Page<V>[][] tables) {
+            this.tables = tables;
+
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<Class, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            last = next;
+
+            advance();
+
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+
+            TypeIdMap.this.remove(last.getKey());
+            last = null;
+        }
+
+        /**
+         * Finds the next occupied slot, skipping slots that were cleared since they were marked.
+         */
+        protected void advance() {
+            next = null;
+
+            while (next == null) {
+                while (remaining == 0) {
+                    if (++pageNumber >= tables.length << TABLE_SHIFT) {
+                        return;
+                    }
+
+                    Page<V>[] table = tables[pageNumber >>> TABLE_SHIFT];
+
+                    if (table == null) {
+                        // skip to the last page of the table
+                        pageNumber |= PAGE_MASK;
+                        continue;
+                    }
+
+                    page = table[pageNumber & PAGE_MASK];
+                    remaining = page == null ? 0 : page.occupied;
+                }
+
+                int slot = Integer.numberOfTrailingZeros(remaining);
+
+                remaining &= remaining - 1;
+
+                V value = page.values.get(slot);
+                Class key = page.keys[slot];
+
+                if (value != null && key != null) {
+                    next = new SimpleImmutableEntry<>(key, value);
+                }
+            }
+        }
+
+    }
+
+}
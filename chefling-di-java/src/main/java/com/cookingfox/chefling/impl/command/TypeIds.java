@@ -0,0 +1,61 @@
+package com.cookingfox.chefling.impl.command;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns a dense integer id to every type when it is first used, so that types can be used as
+ * array indexes, see {@link TypeIdMap}. The id of a type never changes. Ids are not reused, which
+ * is only a concern for applications that load an unbounded number of classes.
+ * <p>
+ * The ids are stored using a {@link ClassValue}, so they do not keep the type or its class loader
+ * from being garbage collected.
+ */
+public class TypeIds {
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The id of the next type.
+     */
+    protected static final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * The ids by type. When two threads compute the id of a type at the same time, one of the ids
+     * is never used, which leaves a gap but keeps the ids unique.
+     */
+    protected static final ClassValue<Integer> ids = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return nextId.getAndIncrement();
+        }
+    };
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    private TypeIds() {
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @param type The type to get the id of.
+     * @return The id of the type.
+     */
+    public static int get(Class type) {
+        return ids.get(type);
+    }
+
+    /**
+     * @return The number of ids that were assigned so far: all ids are lower than this.
+     */
+    public static int getCount() {
+        return nextId.get();
+    }
+
+}
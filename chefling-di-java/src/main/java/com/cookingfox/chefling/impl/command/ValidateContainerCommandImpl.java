@@ -0,0 +1,335 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.api.CheflingRequestScope;
+import com.cookingfox.chefling.api.command.ValidateContainerCommand;
+import com.cookingfox.chefling.api.exception.ContainerValidationException;
+import com.cookingfox.chefling.impl.helper.CommandContainerVisitor;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * @see ValidateContainerCommand
+ */
+public class ValidateContainerCommandImpl extends AbstractCommand implements ValidateContainerCommand {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    public ValidateContainerCommandImpl(CommandContainer container) {
+        super(container);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public synchronized void validateContainer() {
+        // request scoped mappings can only be resolved within a request scope
+        CheflingRequestScope scope = RequestScope.open();
+
+        try {
+            // recursively loop through all containers
+            visitAll(_container, new CommandContainerVisitor() {
+                @Override
+                public void visit(CommandContainer container) {
+                    // resolve all mappings in container
+                    for (Class mapping : container.mappings.keySet()) {
+                        container.getInstance(mapping);
+                    }
+                }
+            });
+        } finally {
+            scope.close();
+        }
+    }
+
+    @Override
+    public synchronized void validateContainer(ForkJoinPool pool) {
+        requireNonNull(pool, "Pool can not be null");
+
+        DependencyGraph graph = buildDependencyGraph();
+        ConcurrentMap<Class, RuntimeException> failures = new ConcurrentHashMap<>();
+        List<ValidateComponentTask> tasks = new ArrayList<>();
+
+        // types that do not depend on each other can be resolved in parallel
+        for (List<DependencyGraph.Node> component : graph.getComponents()) {
+            tasks.add(new ValidateComponentTask(component, failures));
+        }
+
+        pool.invoke(new ValidateAllTask(tasks));
+
+        if (!failures.isEmpty()) {
+            Map<Class, RuntimeException> sortedFailures = new LinkedHashMap<>();
+
+            // report the failures in the order of the graph
+            for (Class type : graph.nodes.keySet()) {
+                RuntimeException failure = failures.get(type);
+
+                if (failure != null) {
+                    sortedFailures.put(type, failure);
+                }
+            }
+
+            throw new ContainerValidationException(sortedFailures);
+        }
+    }
+
+    /**
+     * Eagerly creates the instances of all mapped types and their dependencies, one topological
+     * level at a time: the types of a level are created concurrently using the executor, and the
+     * next level is started when all types of the level are created. Because dependencies are
+     * always created in an earlier level, {@link com.cookingfox.chefling.api.CheflingLifecycle#initialize()}
+     * is called for a dependency before it is called for the types that depend on it.
+     * <p>
+     * Types that depend on a type that failed are not created.
+     *
+     * @param executor The executor that creates the instances.
+     * @throws ContainerValidationException when one or more types could not be created.
+     */
+    public void warmUpContainer(Executor executor) {
+        requireNonNull(executor, "Executor can not be null");
+
+        DependencyGraph graph = buildDependencyGraph();
+        Map<Class, RuntimeException> failures = new LinkedHashMap<>();
+        Set<DependencyGraph.Node> failed = new HashSet<>();
+
+        for (List<DependencyGraph.Node> level : graph.getLevels()) {
+            Map<DependencyGraph.Node, FutureTask<Object>> tasks = new LinkedHashMap<>();
+
+            for (final DependencyGraph.Node node : level) {
+                if (!Collections.disjoint(node.dependencies, failed)) {
+                    failed.add(node);
+                    continue;
+                } else if (isScoped(node)) {
+                    // the instances of scoped mappings are not stored in the container
+                    continue;
+                }
+
+                FutureTask<Object> task = new FutureTask<>(new Callable<Object>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Object call() throws Exception {
+                        return node.container.getInstance(node.type);
+                    }
+                });
+
+                tasks.put(node, task);
+                executor.execute(task);
+            }
+
+            // wait for the level to complete
+            for (Map.Entry<DependencyGraph.Node, FutureTask<Object>> entry : tasks.entrySet()) {
+                RuntimeException failure = awaitWarmUp(entry.getValue());
+
+                if (failure != null) {
+                    failures.put(entry.getKey().type, failure);
+                    failed.add(entry.getKey());
+                }
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            throw new ContainerValidationException(failures);
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @param node The node to check.
+     * @return Whether the type of the node has a scoped mapping, such as
+     * {@link com.cookingfox.chefling.api.CheflingScope#TRANSIENT}.
+     */
+    protected boolean isScoped(DependencyGraph.Node node) {
+        CommandContainer owner = findOneWithInstanceOrMapping(node.container, node.type);
+
+        return owner != null && owner.scopes.get(node.type) != null;
+    }
+
+    /**
+     * Waits for a warm-up task to complete.
+     *
+     * @param task The task to wait for.
+     * @return The exception of the task, or null if it was successful.
+     */
+    protected RuntimeException awaitWarmUp(FutureTask<Object> task) {
+        boolean interrupted = false;
+
+        try {
+            while (true) {
+                try {
+                    task.get();
+
+                    return null;
+                } catch (InterruptedException e) {
+                    // the level must complete before the next one can start
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+
+                    return (RuntimeException) cause;
+                }
+            }
+        } finally {
+            // restore interrupted status
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Builds the graph of all mapped types in the container tree and the types they depend on.
+     * The dependencies of a type are taken from its resolution plan.
+     *
+     * @return The dependency graph.
+     */
+    protected DependencyGraph buildDependencyGraph() {
+        final DependencyGraph graph = new DependencyGraph();
+        final Deque<DependencyGraph.Node> pending = new ArrayDeque<>();
+
+        // add all mappings of all containers
+        visitAll(_container, new CommandContainerVisitor() {
+            @Override
+            public void visit(CommandContainer container) {
+                for (Class mapping : container.mappings.keySet()) {
+                    if (!graph.contains(mapping)) {
+                        pending.add(graph.add(mapping, container));
+                    }
+                }
+            }
+        });
+
+        Map<CommandContainer, CreateInstanceCommandImpl> commands = new HashMap<>();
+
+        // add the dependencies of every type
+        while (!pending.isEmpty()) {
+            DependencyGraph.Node node = pending.poll();
+            CreateInstanceCommandImpl command = commands.get(node.container);
+
+            if (command == null) {
+                command = new CreateInstanceCommandImpl(node.container);
+                commands.put(node.container, command);
+            }
+
+            for (Class dependency : getDependencies(command, node.type)) {
+                boolean isNew = !graph.contains(dependency);
+                DependencyGraph.Node dependencyNode = graph.add(dependency, node.container);
+
+                if (isNew) {
+                    pending.add(dependencyNode);
+                }
+
+                graph.addDependency(node, dependencyNode);
+            }
+        }
+
+        return graph;
+    }
+
+    /**
+     * Returns the types that need to be resolved to create an instance of `type`. Instances that
+     * already exist are not included.
+     *
+     * @param command The create instance command of the container that resolves the type.
+     * @param type    The type to get the dependencies for.
+     * @return The dependencies. Empty if the type can not be resolved: the failure is reported
+     * when the type is resolved.
+     */
+    protected Set<Class> getDependencies(CreateInstanceCommandImpl command, Class type) {
+        Set<Class> dependencies = new LinkedHashSet<>();
+        ResolutionPlan plan;
+
+        try {
+            plan = command.compileResolutionPlan(type);
+        } catch (RuntimeException e) {
+            return dependencies;
+        }
+
+        for (ResolutionPlan.Step step : plan.steps) {
+            if (step instanceof ResolutionPlan.GetInstanceStep) {
+                dependencies.add(((ResolutionPlan.GetInstanceStep) step).type);
+            }
+        }
+
+        return dependencies;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Runs the validation tasks of all components in parallel.
+     */
+    protected static class ValidateAllTask extends RecursiveAction {
+
+        protected final List<ValidateComponentTask> tasks;
+
+        protected ValidateAllTask(List<ValidateComponentTask> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected void compute() {
+            invokeAll(tasks);
+        }
+
+    }
+
+    /**
+     * Resolves the types of a single component, dependencies first. When a type fails, the types
+     * that depend on it are skipped.
+     */
+    protected static class ValidateComponentTask extends RecursiveAction {
+
+        protected final List<DependencyGraph.Node> component;
+        protected final ConcurrentMap<Class, RuntimeException> failures;
+
+        protected ValidateComponentTask(List<DependencyGraph.Node> component,
+                                        ConcurrentMap<Class, RuntimeException> failures) {
+            this.component = component;
+            this.failures = failures;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            Set<DependencyGraph.Node> failed = new HashSet<>();
+
+            // request scoped mappings can only be resolved within a request scope
+            CheflingRequestScope scope = RequestScope.open();
+
+            try {
+                for (DependencyGraph.Node node : component) {
+                    if (!Collections.disjoint(node.dependencies, failed)) {
+                        failed.add(node);
+                        continue;
+                    }
+
+                    try {
+                        node.container.getInstance(node.type);
+                    } catch (RuntimeException e) {
+                        failures.put(node.type, e);
+                        failed.add(node);
+                    }
+                }
+            } finally {
+                scope.close();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.cookingfox.chefling.impl.helper;
+
+import com.cookingfox.chefling.api.CheflingFactory;
+
+/**
+ * Helper for the {@link CheflingFactory} classes that are generated at compile time by the
+ * optional Chefling annotation processor. A generated factory is a class in the same package as its
+ * type, named after the type's binary name where `$` is replaced by `_`, followed by
+ * {@link #SUFFIX}. For example: `com.example.Outer$Inner` has factory
+ * `com.example.Outer_Inner_CheflingFactory`.
+ */
+public final class GeneratedFactories {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTANTS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Suffix for generated factory class names.
+     */
+    public static final String SUFFIX = "_CheflingFactory";
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTOR
+    //----------------------------------------------------------------------------------------------
+
+    private GeneratedFactories() {
+        // should not be instantiated
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC STATIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the name of the generated factory class for a type.
+     *
+     * @param binaryName The binary name of the type, e.g. `com.example.Outer$Inner`.
+     * @return The fully qualified name of the generated factory class.
+     */
+    public static String getFactoryClassName(String binaryName) {
+        return binaryName.replace('$', '_').concat(SUFFIX);
+    }
+
+    /**
+     * Loads and instantiates the generated factory for a type, using the type's class loader.
+     *
+     * @param type The type to get the generated factory for.
+     * @param <T>  Indicates the type the factory creates.
+     * @return The generated factory, or null if the type does not have one.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CheflingFactory<T> find(Class<T> type) {
+        ClassLoader classLoader = type.getClassLoader();
+
+        if (classLoader == null) {
+            return null;
+        }
+
+        try {
+            Class factoryClass = Class.forName(getFactoryClassName(type.getName()), true, classLoader);
+
+            if (!CheflingFactory.class.isAssignableFrom(factoryClass)) {
+                return null;
+            }
+
+            return (CheflingFactory<T>) factoryClass.newInstance();
+        } catch (ClassNotFoundException | LinkageError | InstantiationException | IllegalAccessException e) {
+            // no (usable) generated factory: fall back to reflection
+            return null;
+        }
+    }
+
+}
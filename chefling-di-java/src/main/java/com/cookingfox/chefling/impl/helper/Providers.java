@@ -0,0 +1,147 @@
+package com.cookingfox.chefling.impl.helper;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingLazy;
+import com.cookingfox.chefling.api.CheflingProvider;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Helper for the {@link CheflingProvider} and {@link CheflingLazy} constructor parameters. Used by
+ * the container and by the factories that are generated by the optional Chefling annotation
+ * processor.
+ */
+public final class Providers {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTOR
+    //----------------------------------------------------------------------------------------------
+
+    private Providers() {
+        // should not be instantiated
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC STATIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a lazy handle that resolves the type using the container once.
+     *
+     * @param container The container to resolve the type with.
+     * @param type      The type to resolve.
+     * @param <T>       The type of the provided instance.
+     * @return The lazy handle.
+     */
+    public static <T> CheflingLazy<T> createLazy(CheflingContainer container, Class<T> type) {
+        return new ContainerLazy<>(container, type);
+    }
+
+    /**
+     * Creates a handle that resolves the type using the container on every call.
+     *
+     * @param container The container to resolve the type with.
+     * @param type      The type to resolve.
+     * @param <T>       The type of the provided instance.
+     * @return The provider.
+     */
+    public static <T> CheflingProvider<T> createProvider(CheflingContainer container, Class<T> type) {
+        return new ContainerProvider<>(container, type);
+    }
+
+    /**
+     * Returns the type that a constructor parameter of type {@code CheflingProvider<Type>} or
+     * {@code CheflingLazy<Type>} provides.
+     *
+     * @param parameterType The parameter type.
+     * @param genericType   The generic parameter type.
+     * @return The provided type, or null if the type argument is not a class.
+     */
+    public static Class getProvidedType(Class parameterType, Type genericType) {
+        if (isProvider(parameterType) && genericType instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+
+            if (argument instanceof Class) {
+                return (Class) argument;
+            } else if (argument instanceof ParameterizedType) {
+                return (Class) ((ParameterizedType) argument).getRawType();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param type The type to check.
+     * @return Whether the type is {@link CheflingProvider} or {@link CheflingLazy}.
+     */
+    public static boolean isProvider(Class type) {
+        return type == CheflingProvider.class || type == CheflingLazy.class;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Provider that asks the container for the instance on every call.
+     */
+    private static class ContainerProvider<T> implements CheflingProvider<T> {
+
+        protected final CheflingContainer container;
+        protected final Class<T> type;
+
+        ContainerProvider(CheflingContainer container, Class<T> type) {
+            this.container = container;
+            this.type = type;
+        }
+
+        @Override
+        public T get() {
+            return container.getInstance(type);
+        }
+
+    }
+
+    /**
+     * Lazy handle that asks the container for the instance once. Threads that call {@link #get()}
+     * at the same time can each get an instance from the container, which is a different one for a
+     * transient, thread or request scoped mapping: the first instance is published without locking
+     * and returned to all threads.
+     */
+    private static class ContainerLazy<T> implements CheflingLazy<T> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<ContainerLazy, Object> INSTANCE =
+                AtomicReferenceFieldUpdater.newUpdater(ContainerLazy.class, Object.class, "instance");
+
+        protected final CheflingContainer container;
+        protected final Class<T> type;
+        protected volatile T instance;
+
+        ContainerLazy(CheflingContainer container, Class<T> type) {
+            this.container = container;
+            this.type = type;
+        }
+
+        @Override
+        public T get() {
+            T result = instance;
+
+            if (result == null) {
+                result = container.getInstance(type);
+
+                // another thread published its instance first: use that one
+                if (!INSTANCE.compareAndSet(this, null, result)) {
+                    result = instance;
+                }
+            }
+
+            return result;
+        }
+
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.cookingfox.chefling.impl.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of durations that uses a fixed amount of memory: the durations are counted in
+ * buckets of powers of two nanoseconds. Bucket `n` counts the durations from `2^(n-1)` up to
+ * `2^n` nanoseconds, so percentiles are accurate within a factor of two.
+ */
+public class LatencyHistogram {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTANTS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The number of buckets: one for zero, and one for every bit of a positive long.
+     */
+    protected static final int BUCKETS = 64;
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    protected final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    protected final AtomicLong maxNanos = new AtomicLong();
+    protected final AtomicLong totalNanos = new AtomicLong();
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @return A copy of the current values of the histogram.
+     */
+    public Snapshot getSnapshot() {
+        long[] counts = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+
+        return new Snapshot(counts, totalNanos.get(), maxNanos.get());
+    }
+
+    /**
+     * Records a duration. Negative durations are recorded as zero.
+     *
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long duration = Math.max(0, nanos);
+
+        buckets.incrementAndGet(getBucket(duration));
+        totalNanos.addAndGet(duration);
+
+        long max = maxNanos.get();
+
+        while (duration > max && !maxNanos.compareAndSet(max, duration)) {
+            max = maxNanos.get();
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @param nanos A duration that is not negative.
+     * @return The index of the bucket that counts the duration.
+     */
+    protected static int getBucket(long nanos) {
+        return 64 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The values of a histogram at a point in time.
+     */
+    public static class Snapshot {
+
+        protected final long[] counts;
+        protected final long count;
+        protected final long maxNanos;
+        protected final long totalNanos;
+
+        protected Snapshot(long[] counts, long totalNanos, long maxNanos) {
+            long count = 0;
+
+            for (long bucket : counts) {
+                count += bucket;
+            }
+
+            this.count = count;
+            this.counts = counts;
+            this.maxNanos = maxNanos;
+            this.totalNanos = totalNanos;
+        }
+
+        /**
+         * @return The number of recorded durations.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return The longest recorded duration, in nanoseconds.
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * @return The average recorded duration in nanoseconds, or zero if nothing was recorded.
+         */
+        public double getMeanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /**
+         * Returns the upper bound of the bucket that contains the percentile, limited to the
+         * longest recorded duration.
+         *
+         * @param percentile The percentile, between 0 and 100.
+         * @return The duration in nanoseconds below which the percentile of the recorded durations
+         * falls, or zero if nothing was recorded.
+         */
+        public long getPercentileNanos(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100");
+            }
+
+            long rank = (long) Math.ceil(count * percentile / 100);
+            long seen = 0;
+
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+
+                if (seen >= rank && seen > 0) {
+                    // the upper bound of bucket `i` is `2^i - 1`
+                    long upperBound = i == 0 ? 0 : (1L << i) - 1;
+
+                    return Math.min(upperBound, maxNanos);
+                }
+            }
+
+            return 0;
+        }
+
+        /**
+         * @return The sum of the recorded durations, in nanoseconds.
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,279 @@
+package com.cookingfox.chefling.impl.metrics;
+
+import com.cookingfox.chefling.api.CheflingMetrics;
+import com.cookingfox.chefling.impl.command.TypeIdMap;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Default implementation of {@link CheflingMetrics}, which keeps the metrics per type in memory:
+ * the number of cache hits and creations, the number of constructions per
+ * {@link CheflingMetrics.Construction}, a histogram of the construction durations, and the allocated
+ * bytes if allocation accounting is enabled. The metrics can be queried at any time using
+ * {@link #getSnapshot()}, and the allocations using {@link #getAllocationReport()}.
+ * <p>
+ * Cache hits are counted using a {@link StripedCounter}, so that threads that request the same
+ * stored instance do not contend. The metrics of a type are found by its type id, like the
+ * container's own lookups.
+ */
+public class ResolutionMetrics implements CheflingMetrics {
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The metrics of every type that was recorded.
+     */
+    protected final TypeIdMap<TypeMetrics> types = new TypeIdMap<>();
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates a report of the bytes that were allocated to create the instances of every type,
+     * sorted by the exclusive bytes: the types whose constructors or factories allocate the most
+     * come first. Only contains the types that were recorded with allocation accounting enabled.
+     *
+     * @return The report, a line per type.
+     */
+    public String getAllocationReport() {
+        List<TypeSnapshot> snapshots = new ArrayList<>();
+
+        for (TypeSnapshot snapshot : getSnapshot().values()) {
+            if (snapshot.getAllocations() > 0) {
+                snapshots.add(snapshot);
+            }
+        }
+
+        Collections.sort(snapshots, new Comparator<TypeSnapshot>() {
+            @Override
+            public int compare(TypeSnapshot a, TypeSnapshot b) {
+                return Long.compare(b.getAllocatedBytesExclusive(), a.getAllocatedBytesExclusive());
+            }
+        });
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%16s %16s %12s %8s  %s%n", "exclusive bytes", "inclusive bytes",
+                "bytes/inst", "count", "type"));
+
+        for (TypeSnapshot snapshot : snapshots) {
+            report.append(String.format("%16d %16d %12d %8d  %s%n", snapshot.getAllocatedBytesExclusive(),
+                    snapshot.getAllocatedBytesInclusive(),
+                    snapshot.getAllocatedBytesExclusive() / snapshot.getAllocations(),
+                    snapshot.getAllocations(), snapshot.getType().getName()));
+        }
+
+        return report.toString();
+    }
+
+    /**
+     * @return The metrics of every type that was recorded.
+     */
+    public Map<Class, TypeSnapshot> getSnapshot() {
+        Map<Class, TypeSnapshot> snapshot = new LinkedHashMap<>();
+
+        for (Map.Entry<Class, TypeMetrics> entry : types.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().getSnapshot(entry.getKey()));
+        }
+
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * @param type The type to get the metrics of.
+     * @return The metrics of the type, or null if nothing was recorded for the type.
+     */
+    public TypeSnapshot getSnapshot(Class type) {
+        TypeMetrics metrics = types.get(type);
+
+        return metrics == null ? null : metrics.getSnapshot(type);
+    }
+
+    @Override
+    public void recordAllocation(Class type, long inclusiveBytes, long exclusiveBytes) {
+        TypeMetrics metrics = getOrCreateMetrics(type);
+
+        metrics.allocations.incrementAndGet();
+        metrics.allocatedBytesExclusive.addAndGet(exclusiveBytes);
+        metrics.allocatedBytesInclusive.addAndGet(inclusiveBytes);
+    }
+
+    @Override
+    public void recordCacheHit(Class type) {
+        getOrCreateMetrics(type).cacheHits.increment();
+    }
+
+    @Override
+    public void recordConstruction(Class type, Construction construction, long durationNanos) {
+        TypeMetrics metrics = getOrCreateMetrics(type);
+
+        metrics.constructions.incrementAndGet(construction.ordinal());
+        metrics.latency.record(durationNanos);
+    }
+
+    @Override
+    public void recordCreation(Class type) {
+        getOrCreateMetrics(type).creations.increment();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @param type The type to get the metrics of.
+     * @return The metrics of the type, which are created if they do not exist yet.
+     */
+    protected TypeMetrics getOrCreateMetrics(Class type) {
+        TypeMetrics metrics = types.get(type);
+
+        if (metrics != null) {
+            return metrics;
+        }
+
+        synchronized (types) {
+            metrics = types.get(type);
+
+            if (metrics == null) {
+                metrics = new TypeMetrics();
+                types.put(type, metrics);
+            }
+
+            return metrics;
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The metrics of a type, while they are being recorded.
+     */
+    protected static class TypeMetrics {
+
+        protected final AtomicLong allocatedBytesExclusive = new AtomicLong();
+        protected final AtomicLong allocatedBytesInclusive = new AtomicLong();
+        protected final AtomicLong allocations = new AtomicLong();
+        protected final StripedCounter cacheHits = new StripedCounter();
+        protected final AtomicLongArray constructions = new AtomicLongArray(Construction.values().length);
+        protected final StripedCounter creations = new StripedCounter();
+        protected final LatencyHistogram latency = new LatencyHistogram();
+
+        protected TypeSnapshot getSnapshot(Class type) {
+            long[] counts = new long[constructions.length()];
+
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = constructions.get(i);
+            }
+
+            return new TypeSnapshot(type, cacheHits.sum(), creations.sum(), counts, latency.getSnapshot(),
+                    allocations.get(), allocatedBytesInclusive.get(), allocatedBytesExclusive.get());
+        }
+
+    }
+
+    /**
+     * The metrics of a type at a point in time.
+     */
+    public static class TypeSnapshot {
+
+        protected final long allocatedBytesExclusive;
+        protected final long allocatedBytesInclusive;
+        protected final long allocations;
+        protected final long cacheHits;
+        protected final long[] constructions;
+        protected final long creations;
+        protected final LatencyHistogram.Snapshot latency;
+        protected final Class type;
+
+        protected TypeSnapshot(Class type, long cacheHits, long creations, long[] constructions,
+                               LatencyHistogram.Snapshot latency, long allocations,
+                               long allocatedBytesInclusive, long allocatedBytesExclusive) {
+            this.allocatedBytesExclusive = allocatedBytesExclusive;
+            this.allocatedBytesInclusive = allocatedBytesInclusive;
+            this.allocations = allocations;
+            this.cacheHits = cacheHits;
+            this.constructions = constructions;
+            this.creations = creations;
+            this.latency = latency;
+            this.type = type;
+        }
+
+        /**
+         * @return The bytes that were allocated to create the instances of the type, excluding
+         * the creation of their dependencies.
+         */
+        public long getAllocatedBytesExclusive() {
+            return allocatedBytesExclusive;
+        }
+
+        /**
+         * @return The bytes that were allocated to create the instances of the type, including
+         * the creation of their dependencies.
+         */
+        public long getAllocatedBytesInclusive() {
+            return allocatedBytesInclusive;
+        }
+
+        /**
+         * @return The number of creations whose allocations were recorded.
+         */
+        public long getAllocations() {
+            return allocations;
+        }
+
+        /**
+         * @return The number of requests that used an existing instance.
+         */
+        public long getCacheHits() {
+            return cacheHits;
+        }
+
+        /**
+         * @param construction The way the instances were constructed.
+         * @return The number of instances that were constructed that way.
+         */
+        public long getConstructions(Construction construction) {
+            return constructions[construction.ordinal()];
+        }
+
+        /**
+         * @return The number of requests that created a new instance.
+         */
+        public long getCreations() {
+            return creations;
+        }
+
+        /**
+         * @return The histogram of the construction durations.
+         */
+        public LatencyHistogram.Snapshot getLatency() {
+            return latency;
+        }
+
+        /**
+         * @return The type of the metrics.
+         */
+        public Class getType() {
+            return type;
+        }
+
+        @Override
+        public String toString() {
+            return type.getName() + " {cacheHits=" + cacheHits + ", creations=" + creations +
+                    ", reflection=" + getConstructions(Construction.REFLECTION) +
+                    ", factory=" + getConstructions(Construction.FACTORY) +
+                    ", generatedFactory=" + getConstructions(Construction.GENERATED_FACTORY) +
+                    ", p50=" + latency.getPercentileNanos(50) + "ns" +
+                    ", p99=" + latency.getPercentileNanos(99) + "ns" +
+                    ", max=" + latency.getMaxNanos() + "ns}";
+        }
+
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.cookingfox.chefling.impl.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that can be incremented by many threads without contention. It starts as a single
+ * value, and is split into stripes once concurrent increments collide: every thread increments the
+ * stripe that belongs to it, and the stripes are summed when the counter is read. The stripes are
+ * padded, so that threads do not share a cache line.
+ */
+public class StripedCounter {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTANTS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The number of values per stripe: a stripe fills a 64 byte cache line.
+     */
+    protected static final int PADDING = 8;
+
+    /**
+     * The number of stripes: the number of processors, rounded up to a power of two.
+     */
+    protected static final int STRIPES = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The value of the counter before it was striped.
+     */
+    protected final AtomicLong base = new AtomicLong();
+
+    /**
+     * The stripes, or null if the increments have not collided yet.
+     */
+    protected volatile AtomicLongArray stripes;
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Increments the counter.
+     */
+    public void increment() {
+        AtomicLongArray stripes = this.stripes;
+
+        if (stripes == null) {
+            long value = base.get();
+
+            // no collision, or only one stripe: done
+            if (base.compareAndSet(value, value + 1)) {
+                return;
+            } else if (STRIPES == 1) {
+                base.incrementAndGet();
+                return;
+            }
+
+            stripes = getOrCreateStripes();
+        }
+
+        stripes.getAndIncrement(getStripe(Thread.currentThread()) * PADDING);
+    }
+
+    /**
+     * @return The current value of the counter. Increments that happen while the stripes are
+     * summed may or may not be included.
+     */
+    public long sum() {
+        long sum = base.get();
+        AtomicLongArray stripes = this.stripes;
+
+        if (stripes != null) {
+            for (int i = 0; i < STRIPES; i++) {
+                sum += stripes.get(i * PADDING);
+            }
+        }
+
+        return sum;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @return The stripes of the counter, which are created if they do not exist yet.
+     */
+    protected synchronized AtomicLongArray getOrCreateStripes() {
+        if (stripes == null) {
+            stripes = new AtomicLongArray(STRIPES * PADDING);
+        }
+
+        return stripes;
+    }
+
+    /**
+     * @param thread The thread that increments the counter.
+     * @return The index of the thread's stripe.
+     */
+    protected static int getStripe(Thread thread) {
+        // spread the sequential thread ids over the stripes
+        long hash = thread.getId() * 0x9E3779B97F4A7C15L;
+
+        return (int) (hash >>> 32) & (STRIPES - 1);
+    }
+
+}
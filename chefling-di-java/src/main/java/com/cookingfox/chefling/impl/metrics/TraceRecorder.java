@@ -0,0 +1,236 @@
+package com.cookingfox.chefling.impl.metrics;
+
+import com.cookingfox.chefling.api.CheflingTracer;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Default implementation of {@link CheflingTracer}, which keeps the spans in memory and writes them
+ * as a timeline in the Chrome trace event format using {@link #writeTo(Appendable)}. The file can
+ * be opened in `chrome://tracing` or in Perfetto (https://ui.perfetto.dev), which show the spans of
+ * every thread as a flame chart: the configs and listeners of the builder, the warm-up, and the
+ * creation of every instance with its constructor or factory and its dependencies.
+ * <p>
+ * The timestamps are relative to the creation of the recorder, so it should be created right
+ * before the container is built.
+ */
+public class TraceRecorder implements CheflingTracer {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTANTS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The process id of the events: all threads are shown as part of the same process.
+     */
+    protected static final int PROCESS_ID = 1;
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The recorded events, in the order they were recorded.
+     */
+    protected final Queue<Event> events = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The time that the timestamps are relative to, in nanoseconds.
+     */
+    protected final long origin = System.nanoTime();
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public void begin(Category category, String name) {
+        events.add(new Event(true, category, name, Thread.currentThread(), System.nanoTime() - origin));
+    }
+
+    /**
+     * Removes all recorded events.
+     */
+    public void clear() {
+        events.clear();
+    }
+
+    @Override
+    public void end(Category category, String name) {
+        events.add(new Event(false, category, name, Thread.currentThread(), System.nanoTime() - origin));
+    }
+
+    /**
+     * @return The recorded events, in the order they were recorded.
+     */
+    public List<Event> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    /**
+     * Writes the recorded events as a JSON object in the Chrome trace event format.
+     *
+     * @param out The destination of the JSON.
+     * @throws IOException when writing fails.
+     */
+    public void writeTo(Appendable out) throws IOException {
+        Map<Long, String> threads = new LinkedHashMap<>();
+        boolean first = true;
+
+        out.append("{\"traceEvents\":[");
+
+        for (Event event : events) {
+            if (!threads.containsKey(event.threadId)) {
+                threads.put(event.threadId, event.threadName);
+            }
+
+            out.append(first ? "\n" : ",\n");
+            first = false;
+
+            out.append("{\"name\":");
+            appendString(out, event.name);
+            out.append(",\"cat\":");
+            appendString(out, event.category.name());
+            out.append(",\"ph\":\"").append(event.begin ? 'B' : 'E');
+            out.append("\",\"ts\":").append(formatMicros(event.timeNanos));
+            out.append(",\"pid\":").append(String.valueOf(PROCESS_ID));
+            out.append(",\"tid\":").append(String.valueOf(event.threadId)).append('}');
+        }
+
+        // metadata events, so that the threads are shown by name
+        for (Map.Entry<Long, String> thread : threads.entrySet()) {
+            out.append(first ? "\n" : ",\n");
+            first = false;
+
+            out.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":").append(String.valueOf(PROCESS_ID));
+            out.append(",\"tid\":").append(String.valueOf(thread.getKey()));
+            out.append(",\"args\":{\"name\":");
+            appendString(out, thread.getValue());
+            out.append("}}");
+        }
+
+        out.append("\n],\"displayTimeUnit\":\"ms\"}\n");
+    }
+
+    /**
+     * Writes the recorded events to a file, see {@link #writeTo(Appendable)}.
+     *
+     * @param file The file to write to, which is overwritten if it exists.
+     * @throws IOException when writing fails.
+     */
+    public void writeTo(File file) throws IOException {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+                Charset.forName("UTF-8")))) {
+            writeTo(writer);
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Appends a string as a quoted and escaped JSON string.
+     *
+     * @param out   The destination.
+     * @param value The string to append.
+     * @throws IOException when writing fails.
+     */
+    protected void appendString(Appendable out, String value) throws IOException {
+        out.append('"');
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+
+        out.append('"');
+    }
+
+    /**
+     * @param nanos A duration in nanoseconds.
+     * @return The duration in microseconds, the unit of the trace event format, with nanosecond
+     * precision.
+     */
+    protected String formatMicros(long nanos) {
+        return String.format(Locale.ROOT, "%d.%03d", nanos / 1000, nanos % 1000);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * A recorded begin or end of a span.
+     */
+    public static class Event {
+
+        protected final boolean begin;
+        protected final Category category;
+        protected final String name;
+        protected final long threadId;
+        protected final String threadName;
+        protected final long timeNanos;
+
+        protected Event(boolean begin, Category category, String name, Thread thread, long timeNanos) {
+            this.begin = begin;
+            this.category = category;
+            this.name = name;
+            this.threadId = thread.getId();
+            this.threadName = thread.getName();
+            this.timeNanos = timeNanos;
+        }
+
+        /**
+         * @return The kind of operation.
+         */
+        public Category getCategory() {
+            return category;
+        }
+
+        /**
+         * @return The name of the operation.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return The id of the thread that recorded the event.
+         */
+        public long getThreadId() {
+            return threadId;
+        }
+
+        /**
+         * @return The time of the event in nanoseconds, relative to the creation of the recorder.
+         */
+        public long getTimeNanos() {
+            return timeNanos;
+        }
+
+        /**
+         * @return Whether the event is the begin of a span, or else the end.
+         */
+        public boolean isBegin() {
+            return begin;
+        }
+
+        @Override
+        public String toString() {
+            return (begin ? "B " : "E ") + category + " " + name;
+        }
+
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.cookingfox.chefling;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.fixtures.chefling.SyntheticGraph;
+import com.cookingfox.fixtures.chefling.SyntheticGraphBuilder;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the container with generated dependency graphs of realistic sizes.
+ */
+public class ScaleTest extends AbstractTest {
+
+    @Test
+    public void builder_should_generate_same_graph_for_same_seed() throws Exception {
+        SyntheticGraphBuilder builder = new SyntheticGraphBuilder()
+                .setNumTypes(50)
+                .setInterfaceRatio(0.5)
+                .setFactoryRatio(0.5);
+
+        List<SyntheticGraph.Node> first = builder.buildGraph().getNodes();
+        List<SyntheticGraph.Node> second = builder.buildGraph().getNodes();
+
+        for (int i = 0; i < first.size(); i++) {
+            assertArrayEquals(first.get(i).dependencies, second.get(i).dependencies);
+            assertEquals(first.get(i).implementation == null, second.get(i).implementation == null);
+            assertEquals(first.get(i).factory == null, second.get(i).factory == null);
+        }
+    }
+
+    @Test
+    public void builder_should_apply_settings() throws Exception {
+        SyntheticGraph graph = new SyntheticGraphBuilder()
+                .setNumTypes(100)
+                .setDepth(4)
+                .setFanOut(2)
+                .setInterfaceRatio(1)
+                .setContainerTree(2, 3)
+                .buildGraph();
+
+        assertEquals(100, graph.getTypes().size());
+        assertEquals(25, graph.getRootTypes().size());
+        assertEquals(100, graph.getMappingCount());
+        assertEquals(13, graph.getContainerCount());
+
+        for (SyntheticGraph.Node node : graph.getNodes()) {
+            assertTrue(node.type.isInterface());
+            assertEquals(node.level == 0 ? 0 : 2, node.dependencies.length);
+        }
+    }
+
+    @Test
+    public void should_resolve_large_graph_in_container_tree() throws Exception {
+        SyntheticGraph graph = new SyntheticGraphBuilder()
+                .setNumTypes(2000)
+                .setDepth(10)
+                .setFanOut(4)
+                .setInterfaceRatio(0.3)
+                .setFactoryRatio(0.1)
+                .setContainerTree(2, 4)
+                .buildGraph();
+
+        List<CheflingContainer> containers = graph.configure(container);
+
+        assertEquals(21, containers.size());
+
+        container.validateContainer();
+
+        for (SyntheticGraph.Node node : graph.getNodes()) {
+            CheflingContainer leaf = containers.get(containers.size() - 1);
+
+            assertTrue(node.type.isInstance(leaf.getInstance(node.type)));
+            assertSame(container.getInstance(node.type), leaf.getInstance(node.type));
+        }
+
+        container.disposeContainer();
+    }
+
+}
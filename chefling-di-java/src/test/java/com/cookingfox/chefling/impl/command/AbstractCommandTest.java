@@ -1,6 +1,8 @@
 package com.cookingfox.chefling.impl.command;
 
 import com.cookingfox.chefling.AbstractTest;
+import com.cookingfox.chefling.api.exception.TypeNotAllowedException;
+import com.cookingfox.chefling.api.exception.TypeNotInstantiableException;
 import com.cookingfox.chefling.impl.helper.CommandContainerMatcher;
 import com.cookingfox.chefling.impl.helper.CommandContainerVisitor;
 import com.cookingfox.fixtures.chefling.NoConstructor;
@@ -10,9 +12,7 @@ import com.cookingfox.fixtures.chefling.NoMethodInterface;
 import org.junit.Before;
 import org.junit.Test;
 
-import java.util.HashSet;
 import java.util.LinkedHashSet;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -36,6 +36,41 @@ public class AbstractCommandTest extends AbstractTest {
         command = new AddChildContainerCommandImpl(container);
     }
 
+    //----------------------------------------------------------------------------------------------
+    // TESTS: ADMISSIBILITY
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void getAdmissibility_should_compute_verdict_once() throws Exception {
+        assertSame(AbstractCommand.getAdmissibility(NoConstructor.class),
+                AbstractCommand.getAdmissibility(NoConstructor.class));
+    }
+
+    @Test
+    public void getAdmissibility_should_prepare_messages() throws Exception {
+        AbstractCommand.Admissibility allowed = AbstractCommand.getAdmissibility(NoConstructor.class);
+        AbstractCommand.Admissibility notAllowed = AbstractCommand.getAdmissibility(String.class);
+        AbstractCommand.Admissibility notInstantiable = AbstractCommand.getAdmissibility(NoMethodInterface.class);
+
+        assertTrue(allowed.isInstantiable());
+        assertEquals(new TypeNotAllowedException(String.class, "a member of the `java.` package").getMessage(),
+                notAllowed.notAllowedMessage);
+        assertNull(notInstantiable.notAllowedMessage);
+        assertEquals(new TypeNotInstantiableException(NoMethodInterface.class, "it is an interface").getMessage(),
+                notInstantiable.notInstantiableMessage);
+    }
+
+    @Test
+    public void isInstantiable_should_throw_not_instantiable_for_abstract_class() throws Exception {
+        try {
+            command.isInstantiable(NoMethodAbstract.class);
+
+            fail("Expected exception");
+        } catch (TypeNotInstantiableException e) {
+            assertTrue(e.getMessage().contains("an abstract class"));
+        }
+    }
+
     //----------------------------------------------------------------------------------------------
     // TESTS: APPLY ALL
     //----------------------------------------------------------------------------------------------
@@ -72,54 +107,6 @@ public class AbstractCommandTest extends AbstractTest {
         assertEquals(5, counter.get());
     }
 
-    //----------------------------------------------------------------------------------------------
-    // TESTS: COMPILE TYPES
-    //----------------------------------------------------------------------------------------------
-
-    @Test
-    public void compileTypes_should_return_empty_if_no_instances_or_mappings() throws Exception {
-        Set<Class> result = command.compileTypes(container);
-
-        assertEquals(0, result.size());
-    }
-
-    @Test
-    public void compileTypes_should_return_types_of_one_container() throws Exception {
-        container.getInstance(NoConstructor.class);
-        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
-
-        Set<Class> expected = new HashSet<>();
-        expected.add(NoConstructor.class);
-        expected.add(NoMethodInterface.class);
-
-        Set<Class> result = command.compileTypes(container);
-
-        assertTrue(Objects.deepEquals(expected, result));
-    }
-
-    @Test
-    public void compileTypes_should_return_types_of_container_tree() throws Exception {
-        CommandContainer root = new CommandContainer();
-
-        CommandContainer childA = new CommandContainer();
-        childA.getInstance(NoConstructor.class);
-
-        CommandContainer childB = new CommandContainer();
-        childB.mapType(NoMethodInterface.class, NoMethodImplementation.class);
-
-        container.addChildContainer(childA);
-        root.addChildContainer(childB);
-        root.addChildContainer(container);
-
-        Set<Class> expected = new HashSet<>();
-        expected.add(NoConstructor.class);
-        expected.add(NoMethodInterface.class);
-
-        Set<Class> result = command.compileTypes(container);
-
-        assertTrue(Objects.deepEquals(expected, result));
-    }
-
     //----------------------------------------------------------------------------------------------
     // TESTS: FIND
     //----------------------------------------------------------------------------------------------
@@ -199,6 +186,42 @@ public class AbstractCommandTest extends AbstractTest {
         assertSame(NoMethodImplementation.class, result);
     }
 
+    //----------------------------------------------------------------------------------------------
+    // TESTS: FIND ONE WITH INSTANCE OR MAPPING
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void findOneWithInstanceOrMapping_should_return_correct_owners_concurrently() throws Exception {
+        final CommandContainer childA = new CommandContainer();
+        childA.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        final CommandContainer childB = new CommandContainer();
+        childB.mapType(NoMethodAbstract.class, NoMethodImplementation.class);
+
+        container.addChildContainer(childA);
+        container.addChildContainer(childB);
+
+        final AtomicInteger counter = new AtomicInteger(0);
+        final AtomicInteger mismatches = new AtomicInteger(0);
+
+        runConcurrencyTest(new Runnable() {
+            @Override
+            public void run() {
+                boolean even = counter.getAndIncrement() % 2 == 0;
+                Class type = even ? NoMethodInterface.class : NoMethodAbstract.class;
+                CommandContainer expected = even ? childA : childB;
+
+                for (int i = 0; i < 10000; i++) {
+                    if (command.findOneWithInstanceOrMapping(container, type) != expected) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            }
+        }, 8);
+
+        assertEquals(0, mismatches.get());
+    }
+
     //----------------------------------------------------------------------------------------------
     // TESTS: GET ROOT
     //----------------------------------------------------------------------------------------------
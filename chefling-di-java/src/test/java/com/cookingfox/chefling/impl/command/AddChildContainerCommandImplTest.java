@@ -2,13 +2,15 @@ package com.cookingfox.chefling.impl.command;
 
 import com.cookingfox.chefling.AbstractTest;
 import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.exception.ConfigurationConflictException;
 import com.cookingfox.chefling.api.exception.ContainerException;
 import com.cookingfox.fixtures.chefling.NoConstructor;
+import com.cookingfox.fixtures.chefling.NoMethodImplementation;
+import com.cookingfox.fixtures.chefling.NoMethodInterface;
 import com.cookingfox.fixtures.chefling.NoopContainer;
 import org.junit.Test;
 
-import static org.junit.Assert.assertSame;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  * Unit tests for {@link AddChildContainerCommandImpl}.
@@ -62,4 +64,25 @@ public class AddChildContainerCommandImplTest extends AbstractTest {
         container.addChildContainer(child);
     }
 
+    @Test
+    public void should_throw_if_mapping_conflict_in_child_tree() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        CommandContainer child = new CommandContainer();
+        CommandContainer grandChild = (CommandContainer) child.createChildContainer();
+        grandChild.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        try {
+            container.addChildContainer(child);
+
+            fail("Expected a ConfigurationConflictException");
+        } catch (ConfigurationConflictException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(NoMethodInterface.class.getName()));
+        }
+
+        // nothing is attached
+        assertNull(child.parent);
+        assertFalse(container.children.contains(child));
+    }
+
 }
@@ -4,20 +4,23 @@ import com.cookingfox.chefling.api.CheflingBuilder;
 import com.cookingfox.chefling.api.CheflingConfig;
 import com.cookingfox.chefling.api.CheflingContainer;
 import com.cookingfox.chefling.api.CheflingContainerListener;
+import com.cookingfox.chefling.api.CheflingFactory;
 import com.cookingfox.chefling.api.exception.ContainerBuilderException;
 import com.cookingfox.chefling.api.exception.ContainerException;
+import com.cookingfox.chefling.api.exception.ContainerValidationException;
 import com.cookingfox.chefling.impl.Chefling;
 import com.cookingfox.chefling.impl.helper.DefaultCheflingContainerListener;
-import com.cookingfox.fixtures.chefling.AddToListConfig;
-import com.cookingfox.fixtures.chefling.NoConstructor;
-import com.cookingfox.fixtures.chefling.NoopConfig;
-import com.cookingfox.fixtures.chefling.NoopContainer;
+import com.cookingfox.fixtures.chefling.*;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
@@ -234,6 +237,99 @@ public class CommandContainerBuilderTest {
         assertTrue(container.hasInstanceOrMapping(NoConstructor.class));
     }
 
+    //----------------------------------------------------------------------------------------------
+    // TESTS: setWarmUpExecutor
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void setAllocationAccounting_should_return_builder() throws Exception {
+        assertSame(builder, builder.setAllocationAccounting(false));
+    }
+
+    @Test(expected = ContainerBuilderException.class)
+    public void buildContainer_should_throw_if_allocation_accounting_without_metrics() throws Exception {
+        builder.setAllocationAccounting(true).buildContainer();
+    }
+
+    @Test
+    public void setMetrics_should_return_builder() throws Exception {
+        assertSame(builder, builder.setMetrics(null));
+    }
+
+    @Test
+    public void setTracer_should_return_builder() throws Exception {
+        assertSame(builder, builder.setTracer(null));
+    }
+
+    @Test
+    public void setWarmUpExecutor_should_return_builder() throws Exception {
+        assertSame(builder, builder.setWarmUpExecutor(null));
+    }
+
+    @Test
+    public void buildContainer_should_not_warm_up_by_default() throws Exception {
+        CheflingContainer container = builder.addConfig(new CheflingConfig() {
+            @Override
+            public void apply(CheflingContainer container) {
+                container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+            }
+        }).buildContainer();
+
+        assertFalse(container.hasInstanceOrMapping(NoMethodImplementation.class));
+    }
+
+    @Test
+    public void buildContainer_should_warm_up_in_dependency_order() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        LifecycleInitializeOrder.INITIALIZED.clear();
+
+        try {
+            CheflingContainer container = builder.addConfig(new CheflingConfig() {
+                @Override
+                public void apply(CheflingContainer container) {
+                    container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+                    container.mapType(LifecycleInitializeOrder.AbstractDependent.class,
+                            LifecycleInitializeOrder.Dependent.class);
+                    container.mapType(NoMethodAbstract.class, NoMethodAbstractWithDependency.class);
+                }
+            }).setWarmUpExecutor(executor).buildContainer();
+
+            assertTrue(container.hasInstanceOrMapping(NoMethodImplementation.class));
+            assertEquals(Arrays.<Class>asList(LifecycleInitializeOrder.Dependency.class,
+                    LifecycleInitializeOrder.Dependent.class), LifecycleInitializeOrder.INITIALIZED);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void buildContainer_should_throw_if_warm_up_fails() throws Exception {
+        builder.addConfig(new CheflingConfig() {
+            @Override
+            public void apply(CheflingContainer container) {
+                container.mapFactory(NoConstructor.class, new CheflingFactory<NoConstructor>() {
+                    @Override
+                    public NoConstructor createInstance(CheflingContainer container) {
+                        return null;
+                    }
+                });
+            }
+        }).setWarmUpExecutor(new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        });
+
+        try {
+            builder.buildContainer();
+
+            fail("Expected exception");
+        } catch (ContainerBuilderException e) {
+            assertTrue(e.getCause() instanceof ContainerValidationException);
+        }
+    }
+
     //----------------------------------------------------------------------------------------------
     // TESTS: removeConfig
     //----------------------------------------------------------------------------------------------
@@ -0,0 +1,218 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.AbstractTest;
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.fixtures.chefling.InterfaceSegregation;
+import com.cookingfox.fixtures.chefling.NoConstructor;
+import com.cookingfox.fixtures.chefling.NoMethodAbstract;
+import com.cookingfox.fixtures.chefling.NoMethodImplementation;
+import com.cookingfox.fixtures.chefling.NoMethodInterface;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CommandContainerIndex}.
+ */
+public class CommandContainerIndexTest extends AbstractTest {
+
+    @Test
+    public void should_not_index_default_types() throws Exception {
+        assertNull(container.index.get(CheflingContainer.class));
+        assertNull(container.index.get(CommandContainer.class));
+    }
+
+    @Test
+    public void should_index_mapping() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        assertSame(container, container.index.get(NoMethodInterface.class));
+    }
+
+    @Test
+    public void should_index_created_instance() throws Exception {
+        container.getInstance(NoConstructor.class);
+
+        assertSame(container, container.index.get(NoConstructor.class));
+    }
+
+    @Test
+    public void addChildContainer_should_share_and_merge_index() throws Exception {
+        CommandContainer child = new CommandContainer();
+        CommandContainer grandChild = new CommandContainer();
+        grandChild.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+        child.addChildContainer(grandChild);
+
+        container.addChildContainer(child);
+
+        assertSame(container.index, child.index);
+        assertSame(container.index, grandChild.index);
+        assertSame(grandChild, container.index.get(NoMethodInterface.class));
+    }
+
+    @Test
+    public void setParentContainer_should_share_and_merge_index() throws Exception {
+        CommandContainer parent = new CommandContainer();
+        parent.mapType(NoMethodAbstract.class, NoMethodImplementation.class);
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        container.setParentContainer(parent);
+
+        assertSame(parent.index, container.index);
+        assertSame(parent, container.index.get(NoMethodAbstract.class));
+        assertSame(container, container.index.get(NoMethodInterface.class));
+    }
+
+    @Test
+    public void sibling_should_find_owner_using_index() throws Exception {
+        CommandContainer childA = new CommandContainer();
+        CommandContainer childB = new CommandContainer();
+        container.addChildContainer(childA);
+        container.addChildContainer(childB);
+
+        NoConstructor instance = childA.getInstance(NoConstructor.class);
+
+        assertSame(instance, childB.getInstance(NoConstructor.class));
+    }
+
+    @Test
+    public void removeInstanceAndMapping_should_remove_from_index() throws Exception {
+        CommandContainer child = new CommandContainer();
+        container.addChildContainer(child);
+        child.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        container.removeInstanceAndMapping(NoMethodInterface.class);
+
+        assertNull(container.index.get(NoMethodInterface.class));
+        assertFalse(container.hasInstanceOrMapping(NoMethodInterface.class));
+    }
+
+    @Test
+    public void should_index_types_mapped_to_type() throws Exception {
+        container.mapType(InterfaceSegregation.Person.class, InterfaceSegregation.JohnDoe.class);
+        container.mapType(InterfaceSegregation.Talkable.class, InterfaceSegregation.Person.class);
+        container.mapInstance(NoMethodInterface.class, new NoMethodImplementation());
+
+        assertEquals(Collections.<Class>singleton(InterfaceSegregation.Talkable.class),
+                container.index.getTypesMappedTo(InterfaceSegregation.Person.class));
+        assertEquals(Collections.<Class>singleton(InterfaceSegregation.Person.class),
+                container.index.getTypesMappedTo(InterfaceSegregation.JohnDoe.class));
+        assertTrue(container.index.getTypesMappedTo(NoMethodImplementation.class).isEmpty());
+    }
+
+    @Test
+    public void addChildContainer_should_merge_types_mapped_to_type() throws Exception {
+        CommandContainer child = new CommandContainer();
+        child.mapType(InterfaceSegregation.Talkable.class, InterfaceSegregation.JohnDoe.class);
+
+        container.mapType(InterfaceSegregation.Walkable.class, InterfaceSegregation.JohnDoe.class);
+        container.addChildContainer(child);
+
+        assertEquals(new LinkedHashSet<>(Arrays.<Class>asList(InterfaceSegregation.Talkable.class,
+                        InterfaceSegregation.Walkable.class)),
+                container.index.getTypesMappedTo(InterfaceSegregation.JohnDoe.class));
+    }
+
+    @Test
+    public void removeInstanceAndMapping_should_remove_type_mapped_to_type() throws Exception {
+        container.mapType(InterfaceSegregation.Person.class, InterfaceSegregation.JohnDoe.class);
+        container.mapType(InterfaceSegregation.Talkable.class, InterfaceSegregation.Person.class);
+
+        container.removeInstanceAndMapping(InterfaceSegregation.Talkable.class);
+
+        assertTrue(container.index.getTypesMappedTo(InterfaceSegregation.Person.class).isEmpty());
+        assertFalse(container.index.mappedTo.containsKey(InterfaceSegregation.Person.class));
+        assertNull(container.index.mappingTargets.get(InterfaceSegregation.Talkable.class));
+    }
+
+    @Test
+    public void findConflict_should_find_type_of_both_indexes() throws Exception {
+        CommandContainer other = new CommandContainer();
+        other.mapType(NoMethodAbstract.class, NoMethodImplementation.class);
+        other.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+        container.mapInstance(NoMethodInterface.class, new NoMethodImplementation());
+
+        assertEquals(NoMethodInterface.class, container.index.findConflict(other.index));
+        assertEquals(NoMethodInterface.class, other.index.findConflict(container.index));
+    }
+
+    @Test
+    public void findConflict_should_return_null_if_no_conflict() throws Exception {
+        CommandContainer other = new CommandContainer();
+        other.mapType(NoMethodAbstract.class, NoMethodImplementation.class);
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        assertNull(container.index.findConflict(other.index));
+        assertNull(container.index.findConflict(new CommandContainerIndex()));
+    }
+
+    @Test
+    public void disposeContainer_should_reset_index() throws Exception {
+        CommandContainer child = new CommandContainer();
+        container.addChildContainer(child);
+        child.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        container.disposeContainer();
+
+        assertNotSame(container.index, child.index);
+        assertNull(container.index.get(NoMethodInterface.class));
+        assertNull(child.index.get(NoMethodInterface.class));
+    }
+
+    @Test
+    public void invalidate_should_invalidate_dependent_plans_only() throws Exception {
+        CommandContainerIndex index = new CommandContainerIndex();
+        ResolutionPlan dependent = createPlan(NoMethodInterface.class, NoConstructor.class);
+        ResolutionPlan other = createPlan(NoConstructor.class);
+
+        assertTrue(index.register(dependent, index.getModificationCount()));
+        assertTrue(index.register(other, index.getModificationCount()));
+
+        index.invalidate(NoMethodInterface.class);
+
+        assertFalse(dependent.isValid());
+        assertTrue(other.isValid());
+        assertFalse(index.plans.get(NoConstructor.class).contains(dependent));
+    }
+
+    @Test
+    public void register_should_reject_plan_compiled_during_modification() throws Exception {
+        CommandContainerIndex index = new CommandContainerIndex();
+        long modificationCount = index.getModificationCount();
+        ResolutionPlan plan = createPlan(NoConstructor.class);
+
+        index.invalidate(NoMethodInterface.class);
+
+        assertFalse(index.register(plan, modificationCount));
+        assertFalse(plan.isValid());
+        assertTrue(index.plans.get(NoConstructor.class).isEmpty());
+    }
+
+    @Test
+    public void disposeContainer_should_invalidate_plans() throws Exception {
+        ResolutionPlan plan = createPlan(NoConstructor.class);
+        container.index.register(plan, container.index.getModificationCount());
+
+        container.disposeContainer();
+
+        assertFalse(plan.isValid());
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPERS
+    //----------------------------------------------------------------------------------------------
+
+    private static ResolutionPlan createPlan(Class... dependencies) {
+        List<ResolutionPlan.Step> steps = new ArrayList<>();
+        steps.add(new ResolutionPlan.ReuseStep(new Object()));
+
+        return new ResolutionPlan(steps, new LinkedHashSet<>(Arrays.asList(dependencies)));
+    }
+
+}
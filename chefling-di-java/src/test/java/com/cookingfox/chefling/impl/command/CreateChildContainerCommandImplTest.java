@@ -7,6 +7,9 @@ import com.cookingfox.fixtures.chefling.NoMethodImplementation;
 import com.cookingfox.fixtures.chefling.NoMethodInterface;
 import org.junit.Test;
 
+import java.util.LinkedHashSet;
+import java.util.concurrent.ConcurrentHashMap;
+
 import static org.junit.Assert.*;
 
 /**
@@ -40,4 +43,32 @@ public class CreateChildContainerCommandImplTest extends AbstractTest {
         }
     }
 
+    @Test
+    public void should_share_index_of_parent() throws Exception {
+        CommandContainer child = (CommandContainer) container.createChildContainer();
+
+        assertSame(container.index, child.index);
+        assertSame(container, child.parent);
+    }
+
+    @Test
+    public void should_allocate_collections_and_commands_when_first_used() throws Exception {
+        CommandContainer child = (CommandContainer) container.createChildContainer();
+
+        assertNull(child.getInstance);
+        assertNull(child.createInstance);
+        assertNull(child.mapInstance);
+        assertNull(child.mapType);
+        assertFalse(child.dependencies instanceof ConcurrentHashMap);
+        assertFalse(child.children instanceof LinkedHashSet);
+
+        child.mapInstance(NoMethodInterface.class, new NoMethodImplementation());
+        child.getInstance(NoMethodInterface.class);
+
+        assertNotNull(child.getInstance);
+        assertNotNull(child.mapInstance);
+        assertNull(child.mapType);
+        assertTrue(container.children instanceof LinkedHashSet);
+    }
+
 }
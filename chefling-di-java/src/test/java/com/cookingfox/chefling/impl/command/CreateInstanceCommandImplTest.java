@@ -0,0 +1,472 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.AbstractTest;
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingFactory;
+import com.cookingfox.chefling.api.CheflingScope;
+import com.cookingfox.chefling.api.exception.ContainerException;
+import com.cookingfox.chefling.api.exception.NullValueNotAllowedException;
+import com.cookingfox.chefling.api.exception.TypeInstantiationException;
+import com.cookingfox.chefling.api.exception.TypeNotAllowedException;
+import com.cookingfox.chefling.api.exception.TypeNotInstantiableException;
+import com.cookingfox.chefling.impl.Chefling;
+import com.cookingfox.fixtures.chefling.*;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CreateInstanceCommandImpl}.
+ */
+public class CreateInstanceCommandImplTest extends AbstractTest {
+
+    @Test(expected = NullValueNotAllowedException.class)
+    public void should_throw_if_type_null() throws Exception {
+        container.createInstance(null);
+    }
+
+    @Test
+    public void should_throw_if_type_not_instantiable() {
+        for (Class type : NOT_INSTANTIABLE_TYPES) {
+            try {
+                container.createInstance(type);
+
+                fail("Did not get expected exception for type " + type);
+            } catch (ContainerException e) {
+                assertTrue(e.getMessage(), e instanceof TypeNotAllowedException);
+            }
+        }
+    }
+
+    @Test
+    public void should_resolve_no_constructor_class() throws Exception {
+        NoConstructor result = container.createInstance(NoConstructor.class);
+
+        assertNotNull(result);
+    }
+
+    @Test
+    public void should_resolve_one_param_constructor_class() throws Exception {
+        OneParamConstructor result = container.createInstance(OneParamConstructor.class);
+
+        assertNotNull(result);
+        assertNotNull(result.param);
+    }
+
+    @Test
+    public void should_resolve_two_level_dependencies() throws Exception {
+        TwoLevelDependencies result = container.createInstance(TwoLevelDependencies.class);
+
+        assertNotNull(result);
+        assertNotNull(result.first);
+        assertNotNull(result.second);
+    }
+
+    @Test
+    public void multiple_constructors_should_select_empty_constructor() throws Exception {
+        MultipleConstructorsVaryingParametersTargetEmpty result =
+                container.createInstance(MultipleConstructorsVaryingParametersTargetEmpty.class);
+
+        assertNotNull(result);
+        assertNull(result.first);
+        assertNull(result.second);
+    }
+
+    @Test
+    public void multiple_constructors_should_select_allowed_constructor() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        MultipleConstructorsVaryingParametersTargetAllowed result =
+                container.createInstance(MultipleConstructorsVaryingParametersTargetAllowed.class);
+
+        assertNotNull(result);
+        assertNotNull(result.first);
+        assertNotNull(result.second);
+        assertNull(result.third);
+        assertNull(result.fourth);
+    }
+
+    @Test
+    public void multiple_constructors_single_parameter_should_select_allowed() throws Exception {
+        Object result = container.createInstance(MultipleConstructorsSingleParameterOneResolvable.class);
+
+        assertNotNull(result);
+    }
+
+    @Test
+    public void should_use_subtype_mapping() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        NoMethodInterface result = container.createInstance(NoMethodInterface.class);
+
+        assertTrue(result instanceof NoMethodImplementation);
+    }
+
+    @Test
+    public void should_resolve_doubly_mapped_type() throws Exception {
+        container.mapType(NoMethodAbstract.class, NoMethodImplementation.class);
+        container.mapType(NoMethodInterface.class, NoMethodAbstract.class);
+
+        NoMethodInterface result = container.createInstance(NoMethodInterface.class);
+
+        assertNotNull(result);
+        assertTrue(result instanceof NoMethodImplementation);
+    }
+
+    @Test
+    public void should_resolve_quadruply_mapped_type() throws Exception {
+        container.mapType(QuadruplyTyped.D.class, QuadruplyTyped.E.class);
+        container.mapType(QuadruplyTyped.C.class, QuadruplyTyped.D.class);
+        container.mapType(QuadruplyTyped.B.class, QuadruplyTyped.C.class);
+        container.mapType(QuadruplyTyped.A.class, QuadruplyTyped.B.class);
+
+        Object result = container.createInstance(QuadruplyTyped.A.class);
+
+        assertNotNull(result);
+        assertTrue(result instanceof QuadruplyTyped.E);
+    }
+
+    /**
+     * Note: this test is only here to inspect and improve the error output.
+     */
+    @Test
+    public void should_provide_expected_stack_trace() throws Exception {
+        try {
+            container.createInstance(ThrowingConstructor.class);
+        } catch (Exception e) {
+            // e.printStackTrace();
+        }
+    }
+
+    /**
+     * Note: this test is only here to inspect and improve the error output.
+     */
+    @Test
+    public void should_create_proper_error_message() throws Exception {
+        try {
+            container.createInstance(RequiresProperErrorMessage.class);
+        } catch (Exception e) {
+            // e.printStackTrace();
+        }
+    }
+
+    @Test
+    public void should_use_type_cache() throws Exception {
+        assertFalse(CreateInstanceCommandImpl.TYPE_CACHE.containsConstructor(OneParamConstructor.class));
+        assertFalse(CreateInstanceCommandImpl.TYPE_CACHE.containsConstructor(NoConstructor.class));
+
+        // depends on `NoConstructor`
+        container.createInstance(OneParamConstructor.class);
+
+        assertTrue(CreateInstanceCommandImpl.TYPE_CACHE.containsConstructor(OneParamConstructor.class));
+        assertTrue(CreateInstanceCommandImpl.TYPE_CACHE.containsConstructor(NoConstructor.class));
+
+        // use cached constructor parameters
+        container.createInstance(OneParamConstructor.class);
+    }
+
+    @Test
+    public void type_cache_should_count_hits_and_misses() throws Exception {
+        container.createInstance(NoConstructor.class);
+
+        assertEquals(0, CreateInstanceCommandImpl.TYPE_CACHE.getHitCount());
+        assertEquals(1, CreateInstanceCommandImpl.TYPE_CACHE.getMissCount());
+
+        // the type cache is shared by all containers
+        Chefling.createContainer().createInstance(NoConstructor.class);
+
+        assertEquals(1, CreateInstanceCommandImpl.TYPE_CACHE.getHitCount());
+        assertEquals(1, CreateInstanceCommandImpl.TYPE_CACHE.getMissCount());
+    }
+
+    @Test
+    public void type_cache_should_not_reuse_constructor_of_other_container_mappings() throws Exception {
+        CommandContainer mappedContainer = new CommandContainer();
+        mappedContainer.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        Class type = MappingDependentConstructor.class;
+        TypeCache.Entry entry = CreateInstanceCommandImpl.TYPE_CACHE.getEntry(type);
+        long mappedKey = new CreateInstanceCommandImpl(mappedContainer).getMappingKey(entry, type);
+        long unmappedKey = new CreateInstanceCommandImpl(container).getMappingKey(entry, type);
+
+        assertNotEquals(mappedKey, unmappedKey);
+
+        // with mapping: the constructor is resolvable and cached for the mapping key
+        assertNotNull(mappedContainer.createInstance(MappingDependentConstructor.class).dependency);
+        assertTrue(entry.constructors.containsKey(mappedKey));
+
+        // without mapping: the cached constructor is not reused
+        try {
+            container.createInstance(MappingDependentConstructor.class);
+            fail("Expected exception");
+        } catch (TypeNotInstantiableException e) {
+            // expected
+        }
+
+        assertFalse(entry.constructors.containsKey(unmappedKey));
+        assertNotNull(mappedContainer.createInstance(MappingDependentConstructor.class).dependency);
+    }
+
+    @Test
+    public void should_cache_instantiator_handle() throws Exception {
+        container.createInstance(OneParamConstructor.class);
+
+        CreateInstanceCommandImpl.ConstructorParameters cached =
+                CreateInstanceCommandImpl.TYPE_CACHE.getEntry(OneParamConstructor.class).constructors.get(0L);
+
+        assertNotNull(cached.instantiator);
+
+        OneParamConstructor result = (OneParamConstructor) cached.newInstance(OneParamConstructor.class,
+                new Object[]{new NoConstructor()});
+
+        assertNotNull(result.param);
+    }
+
+    @Test
+    public void should_wrap_constructor_exception() throws Exception {
+        try {
+            container.createInstance(ThrowingConstructor.class);
+
+            fail("Expected exception");
+        } catch (TypeInstantiationException e) {
+            assertTrue(e.getMessage().contains("Example exception from constructor"));
+        }
+    }
+
+    @Test
+    public void should_use_generated_factory() throws Exception {
+        WithGeneratedFactory result = container.createInstance(WithGeneratedFactory.class);
+
+        assertTrue(result.createdByFactory);
+        assertSame(container.getInstance(NoConstructor.class), result.param);
+        assertFalse(CreateInstanceCommandImpl.TYPE_CACHE.containsConstructor(WithGeneratedFactory.class));
+    }
+
+    @Test
+    public void should_cache_missing_generated_factory() throws Exception {
+        container.createInstance(NoConstructor.class);
+
+        assertSame(CreateInstanceCommandImpl.NO_GENERATED_FACTORY,
+                CreateInstanceCommandImpl.TYPE_CACHE.getEntry(NoConstructor.class).generatedFactory);
+    }
+
+    @Test(expected = TypeInstantiationException.class)
+    public void should_wrap_exception_of_generated_factory() throws Exception {
+        container.createInstance(WithGeneratedFactory.Throwing.class);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: resolution plans
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void should_reuse_resolution_plan() throws Exception {
+        CreateInstanceCommandImpl command = new CreateInstanceCommandImpl(container);
+
+        // first request creates the `NoConstructor` singleton, which invalidates the plan
+        command.createInstance(OneParamConstructor.class);
+        command.createInstance(OneParamConstructor.class);
+
+        ResolutionPlan plan = command.plans.get(OneParamConstructor.class);
+
+        command.createInstance(OneParamConstructor.class);
+
+        assertTrue(plan.isValid());
+        assertSame(plan, command.plans.get(OneParamConstructor.class));
+        assertTrue(plan.steps[0] instanceof ResolutionPlan.ReuseStep);
+        assertTrue(plan.steps[1] instanceof ResolutionPlan.ConstructStep);
+    }
+
+    @Test
+    public void resolution_plan_should_pass_singletons_to_constructor() throws Exception {
+        NoConstructor dependency = container.getInstance(NoConstructor.class);
+
+        container.createInstance(OneParamConstructor.class);
+
+        assertSame(dependency, container.createInstance(OneParamConstructor.class).param);
+    }
+
+    @Test
+    public void resolution_plan_should_be_invalidated_by_mapping() throws Exception {
+        CreateInstanceCommandImpl command = new CreateInstanceCommandImpl(container);
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        // the first plan is invalidated when the dependency instance is stored
+        command.createInstance(MappingDependentConstructor.class);
+
+        assertNotNull(command.createInstance(MappingDependentConstructor.class).dependency);
+
+        ResolutionPlan plan = command.plans.get(MappingDependentConstructor.class);
+
+        assertTrue(plan.isValid());
+
+        container.removeInstanceAndMapping(NoMethodInterface.class);
+
+        assertFalse(plan.isValid());
+
+        // without the mapping the constructor is no longer resolvable
+        try {
+            command.createInstance(MappingDependentConstructor.class);
+            fail("Expected exception");
+        } catch (TypeNotInstantiableException e) {
+            // expected
+        }
+
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        assertNotNull(command.createInstance(MappingDependentConstructor.class).dependency);
+    }
+
+    @Test
+    public void resolution_plan_should_not_be_invalidated_by_unrelated_mapping() throws Exception {
+        CreateInstanceCommandImpl command = new CreateInstanceCommandImpl(container);
+
+        command.createInstance(NoConstructor.class);
+
+        ResolutionPlan plan = command.plans.get(NoConstructor.class);
+
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        assertTrue(plan.isValid());
+    }
+
+    @Test
+    public void resolution_plan_should_be_invalidated_by_child_container_mapping() throws Exception {
+        CreateInstanceCommandImpl command = new CreateInstanceCommandImpl(container);
+        NoMethodImplementation instance = new NoMethodImplementation();
+
+        command.createInstance(NoMethodImplementation.class);
+
+        ResolutionPlan plan = command.plans.get(NoMethodImplementation.class);
+
+        CheflingContainer child = Chefling.createContainer();
+        child.mapInstance(NoMethodImplementation.class, instance);
+        container.addChildContainer(child);
+
+        assertFalse(plan.isValid());
+        assertSame(instance, command.createInstance(NoMethodImplementation.class));
+    }
+
+    @Test
+    public void resolution_plan_should_call_initialize_of_mapped_type_once() throws Exception {
+        container.mapType(LifecycleWithCallLog.class, LifecycleWithCallLogSubType.class);
+
+        LifecycleWithCallLog result = container.createInstance(LifecycleWithCallLog.class);
+
+        assertTrue(result instanceof LifecycleWithCallLogSubType);
+        assertEquals(1, result.initializeCalls.size());
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: providers
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void provider_should_defer_construction_until_get() throws Exception {
+        ProviderConstructors.Expensive.constructorCalls.set(0);
+
+        ProviderConstructors.WithProvider result = container.createInstance(ProviderConstructors.WithProvider.class);
+
+        assertEquals(0, ProviderConstructors.Expensive.constructorCalls.get());
+
+        ProviderConstructors.Expensive expensive = result.provider.get();
+
+        assertEquals(1, ProviderConstructors.Expensive.constructorCalls.get());
+        assertSame(container.getInstance(ProviderConstructors.Expensive.class), expensive);
+    }
+
+    @Test
+    public void lazy_should_resolve_mapping_added_after_injection() throws Exception {
+        ProviderConstructors.WithLazy result = container.createInstance(ProviderConstructors.WithLazy.class);
+
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        NoMethodInterface instance = result.lazy.get();
+
+        assertTrue(instance instanceof NoMethodImplementation);
+        assertSame(instance, result.lazy.get());
+    }
+
+    @Test
+    public void lazy_should_memoize_instance() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        ProviderConstructors.WithLazy result = container.createInstance(ProviderConstructors.WithLazy.class);
+        NoMethodInterface first = result.lazy.get();
+
+        // the lazy handle does not ask the container again
+        container.removeInstanceAndMapping(NoMethodInterface.class);
+
+        assertSame(first, result.lazy.get());
+    }
+
+    @Test
+    public void lazy_should_return_same_transient_instance_to_concurrent_threads() throws Exception {
+        final int numThreads = 8;
+        final CountDownLatch allResolving = new CountDownLatch(numThreads);
+
+        // every thread gets its own transient instance, once all threads are resolving
+        container.mapFactory(NoMethodInterface.class, new CheflingFactory<NoMethodInterface>() {
+            @Override
+            public NoMethodInterface createInstance(CheflingContainer container) {
+                allResolving.countDown();
+
+                try {
+                    allResolving.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+
+                return new NoMethodImplementation();
+            }
+        }, CheflingScope.TRANSIENT);
+
+        final ProviderConstructors.WithLazy result = container.createInstance(ProviderConstructors.WithLazy.class);
+        final Set<Object> instances = Collections.synchronizedSet(
+                Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>()));
+
+        runConcurrencyTest(new Runnable() {
+            @Override
+            public void run() {
+                instances.add(result.lazy.get());
+            }
+        }, numThreads);
+
+        assertEquals(1, instances.size());
+        assertSame(instances.iterator().next(), result.lazy.get());
+    }
+
+    @Test(expected = TypeNotAllowedException.class)
+    public void should_throw_if_provider_has_no_type_argument() throws Exception {
+        container.createInstance(ProviderConstructors.WithRawProvider.class);
+    }
+
+    @Test(expected = TypeNotAllowedException.class)
+    public void should_throw_if_provided_type_not_allowed() throws Exception {
+        container.createInstance(ProviderConstructors.WithNotAllowedProvider.class);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: createInstanceUsingCache
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void constructInstance_should_return_instance_created_with_type_cache() throws Exception {
+        CreateInstanceCommandImpl createInstanceCommand = new CreateInstanceCommandImpl(container);
+
+        createInstanceCommand.createInstanceUsingCache(NoConstructor.class);
+
+        assertTrue(CreateInstanceCommandImpl.TYPE_CACHE.containsConstructor(NoConstructor.class));
+
+        NoConstructor createdWithCache = createInstanceCommand.createInstanceUsingCache(NoConstructor.class);
+
+        assertNotNull(createdWithCache);
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.AbstractTest;
+import com.cookingfox.fixtures.chefling.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link DependencyGraph}.
+ */
+public class DependencyGraphTest extends AbstractTest {
+
+    @Test
+    public void should_split_unconnected_nodes_into_components() throws Exception {
+        DependencyGraph graph = new DependencyGraph();
+        DependencyGraph.Node a = graph.add(NoMethodInterface.class, container);
+        DependencyGraph.Node b = graph.add(NoMethodImplementation.class, container);
+        graph.add(NoConstructor.class, container);
+
+        graph.addDependency(a, b);
+
+        List<List<DependencyGraph.Node>> components = graph.getComponents();
+
+        assertEquals(2, components.size());
+        assertEquals(Arrays.<Class>asList(NoMethodImplementation.class, NoMethodInterface.class), types(components.get(0)));
+        assertEquals(Arrays.<Class>asList(NoConstructor.class), types(components.get(1)));
+    }
+
+    @Test
+    public void should_sort_dependencies_first() throws Exception {
+        DependencyGraph graph = new DependencyGraph();
+        DependencyGraph.Node a = graph.add(TwoLevelDependencies.class, container);
+        DependencyGraph.Node b = graph.add(OneParamConstructor.class, container);
+        DependencyGraph.Node c = graph.add(NoConstructor.class, container);
+
+        graph.addDependency(a, b);
+        graph.addDependency(b, c);
+        graph.addDependency(a, c);
+
+        List<List<DependencyGraph.Node>> components = graph.getComponents();
+
+        assertEquals(1, components.size());
+        assertEquals(Arrays.<Class>asList(NoConstructor.class, OneParamConstructor.class, TwoLevelDependencies.class),
+                types(components.get(0)));
+    }
+
+    @Test
+    public void should_include_circular_dependencies_once() throws Exception {
+        DependencyGraph graph = new DependencyGraph();
+        DependencyGraph.Node a = graph.add(CircularSelf.class, container);
+        DependencyGraph.Node b = graph.add(NoConstructor.class, container);
+
+        graph.addDependency(a, b);
+        graph.addDependency(b, a);
+
+        List<List<DependencyGraph.Node>> components = graph.getComponents();
+
+        assertEquals(1, components.size());
+        assertEquals(2, components.get(0).size());
+    }
+
+    @Test
+    public void getLevels_should_group_nodes_by_dependency_depth() throws Exception {
+        DependencyGraph graph = new DependencyGraph();
+        DependencyGraph.Node a = graph.add(TwoLevelDependencies.class, container);
+        DependencyGraph.Node b = graph.add(OneParamConstructor.class, container);
+        DependencyGraph.Node c = graph.add(NoConstructor.class, container);
+        DependencyGraph.Node d = graph.add(NoMethodImplementation.class, container);
+
+        graph.addDependency(a, b);
+        graph.addDependency(b, c);
+        graph.addDependency(a, c);
+
+        List<List<DependencyGraph.Node>> levels = graph.getLevels();
+
+        assertEquals(3, levels.size());
+        assertEquals(Arrays.<Class>asList(NoConstructor.class, NoMethodImplementation.class), types(levels.get(0)));
+        assertEquals(Arrays.<Class>asList(OneParamConstructor.class), types(levels.get(1)));
+        assertEquals(Arrays.<Class>asList(TwoLevelDependencies.class), types(levels.get(2)));
+    }
+
+    @Test
+    public void getLevels_should_add_circular_dependencies_as_last_level() throws Exception {
+        DependencyGraph graph = new DependencyGraph();
+        DependencyGraph.Node a = graph.add(CircularSelf.class, container);
+        DependencyGraph.Node b = graph.add(NoConstructor.class, container);
+        graph.add(NoMethodImplementation.class, container);
+
+        graph.addDependency(a, b);
+        graph.addDependency(b, a);
+
+        List<List<DependencyGraph.Node>> levels = graph.getLevels();
+
+        assertEquals(2, levels.size());
+        assertEquals(Arrays.<Class>asList(NoMethodImplementation.class), types(levels.get(0)));
+        assertEquals(Arrays.<Class>asList(CircularSelf.class, NoConstructor.class), types(levels.get(1)));
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPERS
+    //----------------------------------------------------------------------------------------------
+
+    private static List<Class> types(List<DependencyGraph.Node> nodes) {
+        List<Class> types = new ArrayList<>();
+
+        for (DependencyGraph.Node node : nodes) {
+            types.add(node.type);
+        }
+
+        return types;
+    }
+
+}
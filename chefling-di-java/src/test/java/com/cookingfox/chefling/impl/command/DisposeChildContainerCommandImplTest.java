@@ -0,0 +1,114 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.AbstractTest;
+import com.cookingfox.chefling.api.exception.InvalidChildContainerException;
+import com.cookingfox.fixtures.chefling.LifecycleDisposeOrder;
+import com.cookingfox.fixtures.chefling.LifecycleDisposeOrder.Dependency;
+import com.cookingfox.fixtures.chefling.LifecycleDisposeOrder.Dependent;
+import com.cookingfox.fixtures.chefling.NoMethodImplementation;
+import com.cookingfox.fixtures.chefling.NoMethodInterface;
+import com.cookingfox.fixtures.chefling.NoopContainer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link DisposeChildContainerCommandImpl}.
+ */
+public class DisposeChildContainerCommandImplTest extends AbstractTest {
+
+    @Before
+    public void clearDisposed() throws Exception {
+        LifecycleDisposeOrder.DISPOSED.clear();
+    }
+
+    @Test(expected = InvalidChildContainerException.class)
+    public void should_throw_if_null() throws Exception {
+        container.disposeChildContainer(null);
+    }
+
+    @Test(expected = InvalidChildContainerException.class)
+    public void should_throw_if_not_command_container() throws Exception {
+        container.disposeChildContainer(new NoopContainer());
+    }
+
+    @Test(expected = InvalidChildContainerException.class)
+    public void should_throw_if_not_direct_child() throws Exception {
+        CommandContainer child = (CommandContainer) container.createChildContainer();
+        CommandContainer grandChild = (CommandContainer) child.createChildContainer();
+
+        container.disposeChildContainer(grandChild);
+    }
+
+    @Test
+    public void should_dispose_child_subtree_only() throws Exception {
+        CommandContainer child = (CommandContainer) container.createChildContainer();
+        CommandContainer grandChild = (CommandContainer) child.createChildContainer();
+        CommandContainer sibling = (CommandContainer) container.createChildContainer();
+
+        Dependency dependency = container.getInstance(Dependency.class);
+        grandChild.getInstance(Dependent.class);
+        sibling.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        container.disposeChildContainer(child);
+
+        assertEquals(Collections.<Class>singletonList(Dependent.class), LifecycleDisposeOrder.DISPOSED);
+
+        // the child is detached and cleared
+        assertEquals(Collections.singleton(sibling), container.children);
+        assertNull(child.parent);
+        assertTrue(child.children.isEmpty());
+        assertNull(grandChild.parent);
+        assertTrue(grandChild.instances.isEmpty());
+
+        // the rest of the tree is not affected
+        assertSame(dependency, container.getInstance(Dependency.class));
+        assertSame(container, sibling.parent);
+        assertTrue(container.hasInstanceOrMapping(NoMethodInterface.class));
+        assertFalse(container.hasInstanceOrMapping(Dependent.class));
+    }
+
+    @Test
+    public void should_remove_child_types_from_index() throws Exception {
+        CommandContainer child = (CommandContainer) container.createChildContainer();
+        child.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        container.disposeChildContainer(child);
+
+        assertNull(container.index.get(NoMethodInterface.class));
+        assertNotSame(container.index, child.index);
+
+        // the type can be mapped again
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+    }
+
+    @Test
+    public void should_keep_plans_of_tree_and_unregister_plans_of_child() throws Exception {
+        CommandContainer child = (CommandContainer) container.createChildContainer();
+
+        container.getInstance(Dependency.class);
+        container.createInstance(Dependent.class);
+        child.createInstance(Dependent.class);
+
+        CreateInstanceCommandImpl command = (CreateInstanceCommandImpl) container.createInstance;
+        CreateInstanceCommandImpl childCommand = (CreateInstanceCommandImpl) child.createInstance;
+
+        ResolutionPlan plan = command.plans.get(Dependent.class);
+        ResolutionPlan childPlan = childCommand.plans.get(Dependent.class);
+        Set<ResolutionPlan> dependents = container.index.plans.get(Dependency.class);
+
+        assertTrue(dependents.contains(childPlan));
+
+        container.disposeChildContainer(child);
+
+        assertTrue(plan.isValid());
+        assertFalse(childPlan.isValid());
+        assertTrue(dependents.contains(plan));
+        assertFalse(dependents.contains(childPlan));
+    }
+
+}
@@ -0,0 +1,278 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.AbstractTest;
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingContainerListener;
+import com.cookingfox.chefling.api.exception.ContainerDisposeException;
+import com.cookingfox.chefling.impl.Chefling;
+import com.cookingfox.chefling.impl.helper.DefaultCheflingContainerListener;
+import com.cookingfox.fixtures.chefling.LifecycleDisposeOrder;
+import com.cookingfox.fixtures.chefling.LifecycleDisposeOrder.*;
+import com.cookingfox.fixtures.chefling.NoMethodImplementation;
+import com.cookingfox.fixtures.chefling.NoMethodInterface;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link DisposeContainerCommandImpl}.
+ */
+public class DisposeContainerCommandImplTest extends AbstractTest {
+
+    @Before
+    public void clearDisposed() throws Exception {
+        LifecycleDisposeOrder.DISPOSED.clear();
+    }
+
+    @Test
+    public void should_remove_mappings_and_instances_and_listeners() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+        container.getInstance(NoMethodInterface.class);
+
+        container.disposeContainer();
+
+        assertFalse(container.hasInstanceOrMapping(NoMethodInterface.class));
+
+        assertTrue(container.containerListeners.isEmpty());
+        assertTrue(container.instances.isEmpty());
+        assertTrue(container.mappings.isEmpty());
+    }
+
+    @Test
+    public void should_remove_children_and_parent() throws Exception {
+        CommandContainer childContainer = (CommandContainer) Chefling.createContainer();
+        CommandContainer parentContainer = (CommandContainer) Chefling.createContainer();
+
+        container.addChildContainer(childContainer);
+        container.setParentContainer(parentContainer);
+
+        container.disposeContainer();
+
+        assertTrue(container.children.isEmpty());
+        assertNull(container.parent);
+
+        assertTrue(childContainer.children.isEmpty());
+        assertNull(childContainer.parent);
+
+        assertTrue(parentContainer.children.isEmpty());
+        assertNull(parentContainer.parent);
+    }
+
+    @Test
+    public void should_call_container_listener_methods() throws Exception {
+        final AtomicInteger preContainerDisposeCalls = new AtomicInteger(0);
+        final AtomicInteger postContainerDisposeCalls = new AtomicInteger(0);
+
+        container.addContainerListeners(Collections.<CheflingContainerListener>singleton(
+                new DefaultCheflingContainerListener() {
+                    @Override
+                    public void preContainerDispose(CheflingContainer container) {
+                        preContainerDisposeCalls.getAndIncrement();
+                    }
+
+                    @Override
+                    public void postContainerDispose(CheflingContainer container) {
+                        postContainerDisposeCalls.getAndIncrement();
+                    }
+                }
+        ));
+
+        container.disposeContainer();
+
+        assertEquals(1, preContainerDisposeCalls.get());
+        assertEquals(1, postContainerDisposeCalls.get());
+    }
+
+    @Test
+    public void should_clear_container_listeners() throws Exception {
+        CheflingContainerListener listener = new DefaultCheflingContainerListener();
+
+        container.addContainerListeners(Collections.singleton(listener));
+
+        assertTrue(container.containerListeners.contains(listener));
+
+        container.disposeContainer();
+
+        assertFalse(container.containerListeners.contains(listener));
+    }
+
+    @Test
+    public void should_record_dependencies_of_created_instances() throws Exception {
+        Dependency dependency = container.getInstance(Dependency.class);
+        container.getInstance(Dependent.class);
+
+        assertEquals(Collections.<Object>singleton(dependency), container.dependencies.get(Dependent.class));
+        assertNull(container.dependencies.get(Dependency.class));
+
+        container.disposeContainer();
+
+        assertTrue(container.dependencies.isEmpty());
+    }
+
+    @Test
+    public void should_dispose_dependents_before_dependencies() throws Exception {
+        container.getInstance(TopDependent.class);
+
+        container.disposeContainer();
+
+        assertDisposeOrder();
+    }
+
+    @Test
+    public void should_dispose_dependents_before_dependencies_in_parallel() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            container.setDisposeExecutor(executor);
+            container.getInstance(TopDependent.class);
+
+            container.disposeContainer();
+        } finally {
+            executor.shutdown();
+        }
+
+        assertDisposeOrder();
+    }
+
+    @Test
+    public void should_dispose_in_calling_thread_if_executor_rejects() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+
+        container.setDisposeExecutor(executor);
+        container.getInstance(TopDependent.class);
+
+        container.disposeContainer();
+
+        assertDisposeOrder();
+    }
+
+    @Test
+    public void should_release_dependencies_if_dispose_throws_error_in_parallel() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            container.setDisposeExecutor(executor);
+            container.getInstance(ErrorDependent.class);
+
+            container.disposeContainer();
+
+            fail("Expected an AssertionError");
+        } catch (AssertionError e) {
+            assertEquals("Dispose failed", e.getMessage());
+        } finally {
+            executor.shutdown();
+        }
+
+        // the dependency is still disposed and the container is cleared
+        assertEquals(Collections.<Class>singletonList(Dependency.class), LifecycleDisposeOrder.DISPOSED);
+        assertTrue(container.instances.isEmpty());
+    }
+
+    @Test
+    public void should_dispose_dependencies_of_child_containers() throws Exception {
+        CommandContainer childContainer = (CommandContainer) container.createChildContainer();
+
+        container.getInstance(Dependency.class);
+        childContainer.getInstance(Dependent.class);
+
+        container.disposeContainer();
+
+        assertEquals(Arrays.<Class>asList(Dependent.class, Dependency.class), LifecycleDisposeOrder.DISPOSED);
+    }
+
+    @Test
+    public void should_dispose_instance_stored_twice_once() throws Exception {
+        Dependency dependency = new Dependency();
+
+        container.mapInstance(Dependency.class, dependency);
+        container.mapInstance(AbstractLogging.class, dependency);
+        container.getInstance(Dependency.class);
+        container.getInstance(AbstractLogging.class);
+
+        container.disposeContainer();
+
+        assertEquals(Collections.<Class>singletonList(Dependency.class), LifecycleDisposeOrder.DISPOSED);
+    }
+
+    @Test
+    public void should_collect_dispose_failures() throws Exception {
+        container.getInstance(ThrowingDependent.class);
+
+        try {
+            container.disposeContainer();
+
+            fail("Expected a ContainerDisposeException");
+        } catch (ContainerDisposeException e) {
+            assertEquals(1, e.getFailures().size());
+            assertEquals(IllegalStateException.class, e.getFailures().get(0).getClass());
+            assertTrue(e.getNotDisposed().isEmpty());
+        }
+
+        // the dependency is still disposed and the container is cleared
+        assertEquals(Collections.<Class>singletonList(Dependency.class), LifecycleDisposeOrder.DISPOSED);
+        assertTrue(container.instances.isEmpty());
+    }
+
+    @Test
+    public void should_skip_instances_after_deadline() throws Exception {
+        container.setDisposeTimeout(50, TimeUnit.MILLISECONDS);
+        container.getInstance(SlowDependent.class);
+
+        try {
+            container.disposeContainer();
+
+            fail("Expected a ContainerDisposeException");
+        } catch (ContainerDisposeException e) {
+            assertTrue(e.getFailures().isEmpty());
+            assertEquals(Collections.<Class>singletonList(Dependency.class), e.getNotDisposed());
+        }
+
+        assertEquals(Collections.<Class>singletonList(SlowDependent.class), LifecycleDisposeOrder.DISPOSED);
+        assertTrue(container.instances.isEmpty());
+    }
+
+    @Test
+    public void should_skip_instances_after_deadline_in_parallel() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            container.setDisposeExecutor(executor);
+            container.setDisposeTimeout(50, TimeUnit.MILLISECONDS);
+            container.getInstance(SlowDependent.class);
+
+            try {
+                container.disposeContainer();
+
+                fail("Expected a ContainerDisposeException");
+            } catch (ContainerDisposeException e) {
+                assertEquals(Collections.<Class>singletonList(Dependency.class), e.getNotDisposed());
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        }
+
+        // the dependency is skipped, even though the slow dependent completed after the deadline
+        assertEquals(Collections.<Class>singletonList(SlowDependent.class), LifecycleDisposeOrder.DISPOSED);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPERS
+    //----------------------------------------------------------------------------------------------
+
+    private static void assertDisposeOrder() {
+        assertEquals(4, LifecycleDisposeOrder.DISPOSED.size());
+        assertEquals(TopDependent.class, LifecycleDisposeOrder.DISPOSED.get(0));
+        assertEquals(Dependency.class, LifecycleDisposeOrder.DISPOSED.get(3));
+    }
+
+}
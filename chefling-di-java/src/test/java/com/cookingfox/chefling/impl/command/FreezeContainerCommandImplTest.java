@@ -0,0 +1,137 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.AbstractTest;
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingScope;
+import com.cookingfox.chefling.api.exception.ContainerFrozenException;
+import com.cookingfox.chefling.api.exception.NullValueNotAllowedException;
+import com.cookingfox.fixtures.chefling.*;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link FreezeContainerCommandImpl}.
+ */
+public class FreezeContainerCommandImplTest extends AbstractTest {
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: freezeContainer
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void should_return_same_instances() throws Exception {
+        NoMethodImplementation instance = container.getInstance(NoMethodImplementation.class);
+
+        CheflingContainer frozen = container.freezeContainer();
+
+        assertSame(instance, frozen.getInstance(NoMethodImplementation.class));
+    }
+
+    @Test
+    public void should_resolve_mappings_of_all_containers() throws Exception {
+        CheflingContainer child = container.createChildContainer();
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+        child.mapFactory(NoConstructor.class, new NoConstructorFactory());
+
+        CheflingContainer frozen = container.freezeContainer();
+
+        assertSame(container.getInstance(NoMethodInterface.class), frozen.getInstance(NoMethodInterface.class));
+        assertSame(child.getInstance(NoConstructor.class), frozen.getInstance(NoConstructor.class));
+    }
+
+    @Test
+    public void should_contain_dependencies_of_resolved_types() throws Exception {
+        TwoLevelDependencies instance = container.getInstance(TwoLevelDependencies.class);
+
+        CheflingContainer frozen = container.freezeContainer();
+
+        assertSame(instance.first, frozen.getInstance(OneParamConstructor.class));
+        assertSame(instance.first.param, frozen.getInstance(NoConstructor.class));
+    }
+
+    @Test
+    public void should_create_new_instances_for_transient_mappings() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class, CheflingScope.TRANSIENT);
+
+        CheflingContainer frozen = container.freezeContainer();
+
+        assertNotSame(frozen.getInstance(NoMethodInterface.class), frozen.getInstance(NoMethodInterface.class));
+    }
+
+    @Test
+    public void should_map_container_types_to_frozen_container() throws Exception {
+        CheflingContainer frozen = container.freezeContainer();
+
+        assertSame(frozen, frozen.getInstance(CheflingContainer.class));
+        assertSame(frozen, frozen.getInstance(FrozenContainer.class));
+        assertFalse(frozen.hasInstanceOrMapping(CommandContainer.class));
+    }
+
+    @Test
+    public void should_not_see_later_changes() throws Exception {
+        CheflingContainer frozen = container.freezeContainer();
+
+        container.getInstance(NoMethodImplementation.class);
+
+        assertFalse(frozen.hasInstanceOrMapping(NoMethodImplementation.class));
+    }
+
+    @Test
+    public void freeze_should_return_frozen_container() throws Exception {
+        CheflingContainer frozen = container.freezeContainer();
+
+        assertSame(frozen, frozen.freezeContainer());
+    }
+
+    @Test
+    public void dispose_should_dispose_source_tree() throws Exception {
+        container.getInstance(LifecycleWithCallLog.class);
+
+        container.freezeContainer().disposeContainer();
+
+        assertFalse(container.hasInstanceOrMapping(LifecycleWithCallLog.class));
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: frozen container restrictions
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = NullValueNotAllowedException.class)
+    public void get_instance_should_throw_if_null() throws Exception {
+        container.freezeContainer().getInstance(null);
+    }
+
+    @Test(expected = ContainerFrozenException.class)
+    public void get_instance_should_throw_if_not_resolved() throws Exception {
+        container.freezeContainer().getInstance(NoMethodImplementation.class);
+    }
+
+    @Test(expected = ContainerFrozenException.class)
+    public void create_instance_should_throw() throws Exception {
+        container.freezeContainer().createInstance(NoMethodImplementation.class);
+    }
+
+    @Test(expected = ContainerFrozenException.class)
+    public void create_child_container_should_throw() throws Exception {
+        container.freezeContainer().createChildContainer();
+    }
+
+    @Test(expected = ContainerFrozenException.class)
+    public void map_instance_should_throw() throws Exception {
+        container.freezeContainer().mapInstance(NoMethodImplementation.class, new NoMethodImplementation());
+    }
+
+    @Test(expected = ContainerFrozenException.class)
+    public void map_type_should_throw() throws Exception {
+        container.freezeContainer().mapType(NoMethodInterface.class, NoMethodImplementation.class);
+    }
+
+    @Test(expected = ContainerFrozenException.class)
+    public void remove_instance_and_mapping_should_throw() throws Exception {
+        container.getInstance(NoMethodImplementation.class);
+
+        container.freezeContainer().removeInstanceAndMapping(NoMethodImplementation.class);
+    }
+
+}
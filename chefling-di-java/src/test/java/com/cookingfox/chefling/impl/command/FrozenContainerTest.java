@@ -0,0 +1,78 @@
+package com.cookingfox.chefling.impl.command;
+
+import org.junit.Test;
+
+import java.lang.reflect.Array;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link FrozenContainer}.
+ */
+public class FrozenContainerTest {
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: TypeTable
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void table_should_find_every_type() throws Exception {
+        Map<Class, Object> entries = createEntries(1000);
+
+        FrozenContainer.TypeTable table = FrozenContainer.TypeTable.create(entries);
+
+        for (Map.Entry<Class, Object> entry : entries.entrySet()) {
+            assertSame(entry.getValue(), table.get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void table_should_not_find_unknown_type() throws Exception {
+        FrozenContainer.TypeTable table = FrozenContainer.TypeTable.create(createEntries(100));
+
+        assertNull(table.get(FrozenContainerTest.class));
+    }
+
+    @Test
+    public void table_should_support_single_type() throws Exception {
+        Map<Class, Object> entries = new LinkedHashMap<>();
+        entries.put(String.class, "value");
+
+        FrozenContainer.TypeTable table = FrozenContainer.TypeTable.create(entries);
+
+        assertEquals("value", table.get(String.class));
+        assertNull(table.get(Integer.class));
+    }
+
+    @Test
+    public void table_should_keep_load_factor() throws Exception {
+        FrozenContainer.TypeTable table = FrozenContainer.TypeTable.create(createEntries(1000));
+
+        assertTrue(table.getSize() <= 4096);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPERS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates entries for distinct types: array types of increasing dimension.
+     */
+    private static Map<Class, Object> createEntries(int count) {
+        Class[] components = {String.class, Integer.class, Long.class, Object.class, Thread.class};
+        Map<Class, Object> entries = new LinkedHashMap<>();
+        Class[] types = components.clone();
+
+        while (entries.size() < count) {
+            for (int i = 0; i < types.length && entries.size() < count; i++) {
+                entries.put(types[i], new Object());
+                types[i] = Array.newInstance(types[i], 0).getClass();
+            }
+        }
+
+        return entries;
+    }
+
+}
@@ -9,6 +9,12 @@ import com.cookingfox.chefling.api.exception.NullValueNotAllowedException;
 import com.cookingfox.fixtures.chefling.*;
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.*;
 
 /**
@@ -145,6 +151,24 @@ public class GetInstanceCommandImplTest extends AbstractTest {
         assertSame(instance, result);
     }
 
+    @Test
+    public void factory_mapping_of_child_should_create_one_instance_for_tree() throws Exception {
+        CheflingContainer first = container.createChildContainer();
+        CheflingContainer second = container.createChildContainer();
+
+        first.mapFactory(NoMethodInterface.class, new CheflingFactory<NoMethodInterface>() {
+            @Override
+            public NoMethodInterface createInstance(CheflingContainer container) {
+                return new NoMethodImplementation();
+            }
+        });
+
+        NoMethodInterface result = container.getInstance(NoMethodInterface.class);
+
+        assertSame(result, second.getInstance(NoMethodInterface.class));
+        assertSame(result, first.getInstance(NoMethodInterface.class));
+    }
+
     @Test
     public void should_return_mapped_instance_of_parent() throws Exception {
         CheflingContainer parentContainer = new CommandContainer();
@@ -204,6 +228,142 @@ public class GetInstanceCommandImplTest extends AbstractTest {
         runConcurrencyTest(test, 10);
     }
 
+    @Test
+    public void concurrent_requests_should_create_one_instance() throws Exception {
+        CountingSlowConstructor.constructorCalls.set(0);
+
+        final Set<Object> results = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+
+        runConcurrencyTest(new Runnable() {
+            @Override
+            public void run() {
+                results.add(container.getInstance(CountingSlowConstructor.class));
+            }
+        }, 10);
+
+        assertEquals(1, CountingSlowConstructor.constructorCalls.get());
+        assertEquals(1, results.size());
+    }
+
+    @Test
+    public void concurrent_requests_through_containers_of_tree_should_create_one_instance() throws Exception {
+        CountingSlowConstructor.constructorCalls.set(0);
+
+        final CommandContainer childA = new CommandContainer();
+        final CommandContainer childB = new CommandContainer();
+        final AtomicInteger counter = new AtomicInteger(0);
+        final Set<Object> results = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+
+        container.addChildContainer(childA);
+        container.addChildContainer(childB);
+
+        runConcurrencyTest(new Runnable() {
+            @Override
+            public void run() {
+                // half of the threads request the type through each child
+                CommandContainer child = counter.getAndIncrement() % 2 == 0 ? childA : childB;
+
+                results.add(child.getInstance(CountingSlowConstructor.class));
+            }
+        }, 10);
+
+        CommandContainer owner = container.index.get(CountingSlowConstructor.class);
+
+        assertEquals(1, CountingSlowConstructor.constructorCalls.get());
+        assertEquals(1, results.size());
+        assertSame(owner.instances.get(CountingSlowConstructor.class), results.iterator().next());
+        assertNull((owner == childA ? childB : childA).instances.get(CountingSlowConstructor.class));
+    }
+
+    @Test(timeout = 5000)
+    public void creation_of_type_should_not_block_unrelated_type() throws Exception {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                container.getInstance(BlockingConstructor.class);
+            }
+        });
+
+        thread.start();
+        BlockingConstructor.entered.await();
+
+        // would block if all creations used the same lock
+        assertNotNull(container.getInstance(NoConstructor.class));
+
+        BlockingConstructor.release.countDown();
+        thread.join();
+
+        assertTrue(container.instances.get(BlockingConstructor.class) instanceof BlockingConstructor);
+    }
+
+    @Test(timeout = 5000)
+    public void should_detect_circular_dependency_between_threads() throws Exception {
+        final AtomicInteger counter = new AtomicInteger(0);
+        final AtomicInteger circularErrors = new AtomicInteger(0);
+
+        runConcurrencyTest(new Runnable() {
+            @Override
+            public void run() {
+                // half of the threads start at A, the other half at B
+                Class type = counter.getAndIncrement() % 2 == 0 ? CircularSimple.A.class : CircularSimple.B.class;
+
+                try {
+                    container.getInstance(type);
+                } catch (CircularDependencyDetectedException e) {
+                    circularErrors.incrementAndGet();
+                }
+            }
+        }, 8);
+
+        assertEquals(8, circularErrors.get());
+    }
+
+    @Test(timeout = 5000)
+    public void should_detect_circular_dependency_between_threads_and_containers() throws Exception {
+        final CheflingContainer child = container.createChildContainer();
+        final CountDownLatch bothCreating = new CountDownLatch(2);
+        final AtomicInteger counter = new AtomicInteger(0);
+        final AtomicInteger circularErrors = new AtomicInteger(0);
+
+        // the child owns the first type and the parent the second: each needs the other
+        child.mapFactory(NoConstructor.class, new CheflingFactory<NoConstructor>() {
+            @Override
+            public NoConstructor createInstance(CheflingContainer container) {
+                awaitOtherCreation(bothCreating);
+                container.getInstance(NoMethodImplementation.class);
+
+                return new NoConstructor();
+            }
+        });
+
+        container.mapFactory(NoMethodImplementation.class, new CheflingFactory<NoMethodImplementation>() {
+            @Override
+            public NoMethodImplementation createInstance(CheflingContainer container) {
+                awaitOtherCreation(bothCreating);
+                child.getInstance(NoConstructor.class);
+
+                return new NoMethodImplementation();
+            }
+        });
+
+        runConcurrencyTest(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (counter.getAndIncrement() == 0) {
+                        child.getInstance(NoConstructor.class);
+                    } else {
+                        container.getInstance(NoMethodImplementation.class);
+                    }
+                } catch (CircularDependencyDetectedException e) {
+                    circularErrors.incrementAndGet();
+                }
+            }
+        }, 2);
+
+        assertEquals(2, circularErrors.get());
+    }
+
     /**
      * Note: this test is only here to inspect and improve the error output.
      */
@@ -236,4 +396,18 @@ public class GetInstanceCommandImplTest extends AbstractTest {
         }
     }
 
+    //----------------------------------------------------------------------------------------------
+    // HELPERS
+    //----------------------------------------------------------------------------------------------
+
+    private static void awaitOtherCreation(CountDownLatch bothCreating) {
+        bothCreating.countDown();
+
+        try {
+            bothCreating.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
 }
@@ -3,6 +3,7 @@ package com.cookingfox.chefling.impl.command;
 import com.cookingfox.chefling.AbstractTest;
 import com.cookingfox.chefling.api.CheflingContainer;
 import com.cookingfox.chefling.api.CheflingFactory;
+import com.cookingfox.chefling.api.CheflingScope;
 import com.cookingfox.chefling.api.exception.*;
 import com.cookingfox.fixtures.chefling.*;
 import org.junit.Assert;
@@ -10,6 +11,7 @@ import org.junit.Test;
 
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertNull;
 
@@ -239,6 +241,39 @@ public class MapFactoryCommandImplTest extends AbstractTest {
         Assert.assertEquals("Expected number of exceptions", numTests - 1, exceptions.size());
     }
 
+    @Test
+    public void transient_should_call_factory_for_every_request() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+
+        container.mapFactory(NoMethodInterface.class, new CheflingFactory<NoMethodInterface>() {
+            @Override
+            public NoMethodInterface createInstance(CheflingContainer container) {
+                calls.incrementAndGet();
+
+                return new NoMethodImplementation();
+            }
+        }, CheflingScope.TRANSIENT);
+
+        NoMethodInterface first = container.getInstance(NoMethodInterface.class);
+        NoMethodInterface second = container.getInstance(NoMethodInterface.class);
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(2, calls.get());
+        Assert.assertFalse(container.instances.containsKey(NoMethodInterface.class));
+    }
+
+    @Test(expected = CircularDependencyDetectedException.class)
+    public void transient_should_detect_circular_dependency() throws Exception {
+        container.mapFactory(NoMethodInterface.class, new CheflingFactory<NoMethodInterface>() {
+            @Override
+            public NoMethodInterface createInstance(CheflingContainer container) {
+                return container.getInstance(NoMethodInterface.class);
+            }
+        }, CheflingScope.TRANSIENT);
+
+        container.getInstance(NoMethodInterface.class);
+    }
+
     //----------------------------------------------------------------------------------------------
     // TESTS: getGenericType
     //----------------------------------------------------------------------------------------------
@@ -0,0 +1,214 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.AbstractTest;
+import com.cookingfox.chefling.api.CheflingScope;
+import com.cookingfox.chefling.api.exception.*;
+import com.cookingfox.fixtures.chefling.*;
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link MapTypeCommandImpl}.
+ */
+public class MapTypeCommandTest extends AbstractTest {
+
+    @Test(expected = NullValueNotAllowedException.class)
+    public void should_throw_if_type_null() throws Exception {
+        container.mapType(null, NoConstructor.class);
+    }
+
+    @Test(expected = NullValueNotAllowedException.class)
+    public void should_throw_if_subType_null() throws Exception {
+        container.mapType(getClass(), null);
+    }
+
+    @Test(expected = TypeMappingAlreadyExistsException.class)
+    public void should_throw_if_mapping_exists() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+    }
+
+    @Test(expected = NotASubTypeException.class)
+    public void should_throw_if_sub_type_same_as_type() throws Exception {
+        container.mapType(NoMethodImplementation.class, NoMethodImplementation.class);
+    }
+
+    @Test(expected = NotASubTypeException.class)
+    public void should_throw_if_sub_type_not_extends_type() throws Exception {
+        Class type = NoConstructor.class;
+        Class subType = Object.class;
+
+        container.mapType(type, subType);
+    }
+
+    @Test
+    public void should_throw_if_base_type_not_allowed() throws Exception {
+        for (Map.Entry<Class, Class> entry : NOT_ALLOWED_SUB_TYPES.entrySet()) {
+            try {
+                container.mapType(entry.getKey(), entry.getValue());
+
+                fail("Did not receive expected exception for type " + entry.getKey());
+            } catch (ContainerException e) {
+                assertTrue(e.getMessage(), e instanceof TypeNotAllowedException);
+            }
+        }
+    }
+
+    @Test(expected = TypeNotInstantiableException.class)
+    public void should_throw_if_sub_type_not_instantiable() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodAbstract.class);
+    }
+
+    @Test(expected = TypeMappingAlreadyExistsException.class)
+    public void should_throw_when_first_mapInstance_then_mapType() throws Exception {
+        container.mapInstance(NoMethodInterface.class, new NoMethodImplementation());
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+    }
+
+    @Test
+    public void should_allow_to_map_to_previous_mapping() throws Exception {
+        container.mapType(NoMethodAbstract.class, NoMethodImplementation.class);
+        container.mapType(NoMethodInterface.class, NoMethodAbstract.class);
+    }
+
+    @Test
+    public void should_take_into_account_subType_instance_mapping() throws Exception {
+        container.mapInstance(InterfaceSegregation.Person.class, new InterfaceSegregation.JohnDoe());
+        container.mapType(InterfaceSegregation.Talkable.class, InterfaceSegregation.Person.class);
+        container.mapType(InterfaceSegregation.Walkable.class, InterfaceSegregation.Person.class);
+    }
+
+    @Test(expected = NullValueNotAllowedException.class)
+    public void should_throw_if_scope_null() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class, null);
+    }
+
+    @Test
+    public void transient_should_create_new_instance_for_every_request() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class, CheflingScope.TRANSIENT);
+
+        NoMethodInterface first = container.getInstance(NoMethodInterface.class);
+        NoMethodInterface second = container.getInstance(NoMethodInterface.class);
+
+        assertTrue(first instanceof NoMethodImplementation);
+        assertNotSame(first, second);
+        assertFalse(container.instances.containsKey(NoMethodInterface.class));
+        assertFalse(container.instances.containsKey(NoMethodImplementation.class));
+    }
+
+    @Test
+    public void transient_should_share_singleton_dependencies() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+        container.mapType(NoMethodAbstract.class, NoMethodAbstractWithDependency.class, CheflingScope.TRANSIENT);
+
+        NoMethodAbstractWithDependency first = (NoMethodAbstractWithDependency) container.getInstance(NoMethodAbstract.class);
+        NoMethodAbstractWithDependency second = (NoMethodAbstractWithDependency) container.getInstance(NoMethodAbstract.class);
+
+        assertNotSame(first, second);
+        assertSame(first.dependency, second.dependency);
+    }
+
+    @Test
+    public void transient_should_apply_to_child_containers() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class, CheflingScope.TRANSIENT);
+
+        CommandContainer child = (CommandContainer) container.createChildContainer();
+
+        assertNotSame(child.getInstance(NoMethodInterface.class), child.getInstance(NoMethodInterface.class));
+        assertFalse(child.instances.containsKey(NoMethodInterface.class));
+    }
+
+    @Test
+    public void transient_dependency_should_create_new_instance_for_every_dependent() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class, CheflingScope.TRANSIENT);
+        container.mapType(NoMethodAbstract.class, NoMethodAbstractWithDependency.class, CheflingScope.TRANSIENT);
+
+        NoMethodAbstractWithDependency first = (NoMethodAbstractWithDependency) container.getInstance(NoMethodAbstract.class);
+        NoMethodAbstractWithDependency second = (NoMethodAbstractWithDependency) container.getInstance(NoMethodAbstract.class);
+
+        assertNotSame(first.dependency, second.dependency);
+    }
+
+    @Test
+    public void thread_should_create_one_instance_per_thread() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class, CheflingScope.THREAD);
+
+        final NoMethodInterface first = container.getInstance(NoMethodInterface.class);
+        final Object[] other = new Object[2];
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                other[0] = container.getInstance(NoMethodInterface.class);
+                other[1] = container.getInstance(NoMethodInterface.class);
+            }
+        });
+
+        thread.start();
+        thread.join();
+
+        assertSame(first, container.getInstance(NoMethodInterface.class));
+        assertNotNull(other[0]);
+        assertSame(other[0], other[1]);
+        assertNotSame(first, other[0]);
+        assertFalse(container.instances.containsKey(NoMethodInterface.class));
+    }
+
+    @Test
+    public void thread_instances_should_be_disposed_with_container() throws Exception {
+        container.mapType(LifecycleWithCallLog.class, LifecycleWithCallLogSubType.class, CheflingScope.THREAD);
+
+        final Object[] other = new Object[1];
+        LifecycleWithCallLog first = container.getInstance(LifecycleWithCallLog.class);
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                other[0] = container.getInstance(LifecycleWithCallLog.class);
+            }
+        });
+
+        thread.start();
+        thread.join();
+
+        container.disposeContainer();
+
+        assertEquals(1, first.disposeCalls.size());
+        assertEquals(1, ((LifecycleWithCallLog) other[0]).disposeCalls.size());
+    }
+
+    @Test
+    public void remove_should_remove_scope() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class, CheflingScope.TRANSIENT);
+        container.removeInstanceAndMapping(NoMethodInterface.class);
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        assertSame(container.getInstance(NoMethodInterface.class), container.getInstance(NoMethodInterface.class));
+    }
+
+    @Test
+    public void should_pass_concurrency_test() {
+        int numTests = 10;
+        final LinkedList<Exception> exceptions = new LinkedList<>();
+
+        Runnable test = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+                } catch (ContainerException e) {
+                    exceptions.add(e);
+                }
+            }
+        };
+
+        runConcurrencyTest(test, numTests);
+
+        assertEquals("Expected number of exceptions", numTests - 1, exceptions.size());
+    }
+
+}
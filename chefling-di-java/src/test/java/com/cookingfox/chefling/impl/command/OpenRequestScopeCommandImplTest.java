@@ -0,0 +1,192 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.AbstractTest;
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingFactory;
+import com.cookingfox.chefling.api.CheflingRequestScope;
+import com.cookingfox.chefling.api.CheflingScope;
+import com.cookingfox.chefling.api.exception.ContainerDisposeException;
+import com.cookingfox.chefling.api.exception.ScopeNotActiveException;
+import com.cookingfox.fixtures.chefling.*;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link OpenRequestScopeCommandImpl}.
+ */
+public class OpenRequestScopeCommandImplTest extends AbstractTest {
+
+    @Test(expected = ScopeNotActiveException.class)
+    public void should_throw_if_no_scope_active() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class, CheflingScope.REQUEST);
+        container.getInstance(NoMethodInterface.class);
+    }
+
+    @Test
+    public void should_create_one_instance_per_scope() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class, CheflingScope.REQUEST);
+
+        NoMethodInterface first;
+        NoMethodInterface second;
+
+        try (CheflingRequestScope ignored = container.openRequestScope()) {
+            first = container.getInstance(NoMethodInterface.class);
+
+            assertSame(first, container.getInstance(NoMethodInterface.class));
+        }
+
+        try (CheflingRequestScope ignored = container.openRequestScope()) {
+            second = container.getInstance(NoMethodInterface.class);
+        }
+
+        assertTrue(first instanceof NoMethodImplementation);
+        assertNotSame(first, second);
+        assertFalse(container.instances.containsKey(NoMethodInterface.class));
+    }
+
+    @Test
+    public void should_share_singleton_dependencies() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+        container.mapType(NoMethodAbstract.class, NoMethodAbstractWithDependency.class, CheflingScope.REQUEST);
+
+        NoMethodAbstractWithDependency first;
+        NoMethodAbstractWithDependency second;
+
+        try (CheflingRequestScope ignored = container.openRequestScope()) {
+            first = (NoMethodAbstractWithDependency) container.getInstance(NoMethodAbstract.class);
+        }
+
+        try (CheflingRequestScope ignored = container.openRequestScope()) {
+            second = (NoMethodAbstractWithDependency) container.getInstance(NoMethodAbstract.class);
+        }
+
+        assertNotSame(first, second);
+        assertSame(first.dependency, second.dependency);
+    }
+
+    @Test
+    public void close_should_dispose_instances() throws Exception {
+        container.mapType(LifecycleWithCallLog.class, LifecycleWithCallLogSubType.class, CheflingScope.REQUEST);
+
+        LifecycleWithCallLog instance;
+
+        try (CheflingRequestScope ignored = container.openRequestScope()) {
+            instance = container.getInstance(LifecycleWithCallLog.class);
+
+            assertTrue(instance.disposeCalls.isEmpty());
+        }
+
+        assertEquals(1, instance.disposeCalls.size());
+    }
+
+    @Test
+    public void close_should_be_idempotent() throws Exception {
+        container.mapType(LifecycleWithCallLog.class, LifecycleWithCallLogSubType.class, CheflingScope.REQUEST);
+
+        CheflingRequestScope scope = container.openRequestScope();
+        LifecycleWithCallLog instance = container.getInstance(LifecycleWithCallLog.class);
+
+        scope.close();
+        scope.close();
+
+        assertEquals(1, instance.disposeCalls.size());
+    }
+
+    @Test
+    public void close_should_throw_if_dispose_throws() throws Exception {
+        container.mapFactory(LifecycleWithCallLog.class, new CheflingFactory<LifecycleWithCallLog>() {
+            @Override
+            public LifecycleWithCallLog createInstance(CheflingContainer container) {
+                return new LifecycleWithCallLog() {
+                    @Override
+                    public void dispose() {
+                        throw new IllegalStateException("dispose");
+                    }
+                };
+            }
+        }, CheflingScope.REQUEST);
+
+        CheflingRequestScope scope = container.openRequestScope();
+        container.getInstance(LifecycleWithCallLog.class);
+
+        try {
+            scope.close();
+
+            fail("Expected dispose exception");
+        } catch (ContainerDisposeException e) {
+            assertEquals(1, e.getFailures().size());
+        }
+
+        // the scope is closed anyway
+        try {
+            container.getInstance(LifecycleWithCallLog.class);
+
+            fail("Expected scope not active exception");
+        } catch (ScopeNotActiveException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void nested_scope_should_restore_previous_scope() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class, CheflingScope.REQUEST);
+
+        try (CheflingRequestScope ignored = container.openRequestScope()) {
+            NoMethodInterface outer = container.getInstance(NoMethodInterface.class);
+
+            try (CheflingRequestScope ignoredNested = container.openRequestScope()) {
+                assertNotSame(outer, container.getInstance(NoMethodInterface.class));
+            }
+
+            assertSame(outer, container.getInstance(NoMethodInterface.class));
+        }
+    }
+
+    @Test
+    public void should_not_share_instances_between_containers() throws Exception {
+        CheflingContainer other = new CommandContainer();
+
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class, CheflingScope.REQUEST);
+        other.mapType(NoMethodInterface.class, NoMethodImplementation.class, CheflingScope.REQUEST);
+
+        try (CheflingRequestScope ignored = container.openRequestScope()) {
+            NoMethodInterface instance = container.getInstance(NoMethodInterface.class);
+
+            assertNotSame(instance, other.getInstance(NoMethodInterface.class));
+            assertSame(instance, container.getInstance(NoMethodInterface.class));
+        }
+    }
+
+    @Test
+    public void should_not_share_scope_between_threads() throws Exception {
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class, CheflingScope.REQUEST);
+
+        final Exception[] exception = new Exception[1];
+
+        try (CheflingRequestScope ignored = container.openRequestScope()) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        container.getInstance(NoMethodInterface.class);
+                    } catch (Exception e) {
+                        exception[0] = e;
+                    }
+                }
+            });
+
+            thread.start();
+            thread.join();
+        }
+
+        assertTrue(exception[0] instanceof ScopeNotActiveException);
+    }
+
+    @Test
+    public void validate_should_resolve_request_scoped_mappings() throws Exception {
+        container.mapType(LifecycleWithCallLog.class, LifecycleWithCallLogSubType.class, CheflingScope.REQUEST);
+        container.validateContainer();
+    }
+
+}
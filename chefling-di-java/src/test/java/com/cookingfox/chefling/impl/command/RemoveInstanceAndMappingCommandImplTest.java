@@ -174,4 +174,32 @@ public class RemoveInstanceAndMappingCommandImplTest extends AbstractTest {
         container.removeInstanceAndMapping(InterfaceSegregation.Person.class);
     }
 
+    @Test
+    public void should_not_remove_anything_if_has_alias() throws Exception {
+        container.mapType(InterfaceSegregation.Person.class, InterfaceSegregation.JohnDoe.class);
+        container.mapType(InterfaceSegregation.Talkable.class, InterfaceSegregation.Person.class);
+
+        try {
+            container.removeInstanceAndMapping(InterfaceSegregation.Person.class);
+
+            fail("Expected a RemoveTypeNotAllowedException");
+        } catch (RemoveTypeNotAllowedException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(InterfaceSegregation.Talkable.class.getName()));
+        }
+
+        assertTrue(container.hasInstanceOrMapping(InterfaceSegregation.Person.class));
+        assertTrue(container.hasInstanceOrMapping(InterfaceSegregation.Talkable.class));
+    }
+
+    @Test
+    public void should_remove_type_after_alias_is_removed() throws Exception {
+        container.mapType(InterfaceSegregation.Person.class, InterfaceSegregation.JohnDoe.class);
+        container.mapType(InterfaceSegregation.Talkable.class, InterfaceSegregation.Person.class);
+
+        container.removeInstanceAndMapping(InterfaceSegregation.Talkable.class);
+        container.removeInstanceAndMapping(InterfaceSegregation.Person.class);
+
+        assertFalse(container.hasInstanceOrMapping(InterfaceSegregation.Person.class));
+    }
+
 }
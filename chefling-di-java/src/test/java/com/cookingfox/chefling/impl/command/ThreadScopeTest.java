@@ -0,0 +1,97 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.fixtures.chefling.LifecycleWithCallLog;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ThreadScope}.
+ */
+public class ThreadScopeTest {
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS SETUP
+    //----------------------------------------------------------------------------------------------
+
+    private ThreadScope scope;
+
+    @Before
+    public void setUp() throws Exception {
+        scope = new ThreadScope();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void getStore_should_return_same_store_for_thread() throws Exception {
+        assertSame(scope.getStore(), scope.getStore());
+    }
+
+    @Test
+    public void getStore_should_return_new_store_after_dispose() throws Exception {
+        final ScopeStore[] otherStores = new ScopeStore[2];
+        final LifecycleWithCallLog instance = new LifecycleWithCallLog();
+        final CountDownLatch created = new CountDownLatch(1);
+        final CountDownLatch disposed = new CountDownLatch(1);
+        ScopeStore store = scope.getStore();
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                otherStores[0] = scope.getStore();
+                created.countDown();
+
+                try {
+                    disposed.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                otherStores[1] = scope.getStore();
+                otherStores[1].put(LifecycleWithCallLog.class, instance);
+            }
+        });
+
+        thread.start();
+        created.await();
+        scope.dispose();
+        disposed.countDown();
+        thread.join();
+
+        // the new store of the other thread is registered, so its instance is disposed
+        assertNotSame(store, scope.getStore());
+        assertNotSame(otherStores[0], otherStores[1]);
+        assertTrue(scope.dispose().isEmpty());
+        assertEquals(1, instance.disposeCalls.size());
+    }
+
+    @Test
+    public void getStore_should_dispose_stores_of_terminated_threads() throws Exception {
+        final LifecycleWithCallLog instance = new LifecycleWithCallLog();
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                scope.getStore().put(LifecycleWithCallLog.class, instance);
+            }
+        });
+
+        thread.start();
+        thread.join();
+
+        assertEquals(0, instance.disposeCalls.size());
+
+        // a new store of another thread removes the store of the terminated thread
+        scope.getStore();
+
+        assertEquals(1, instance.disposeCalls.size());
+        assertEquals(1, scope.allStores.size());
+    }
+
+}
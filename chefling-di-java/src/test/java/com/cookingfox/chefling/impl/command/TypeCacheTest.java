@@ -0,0 +1,68 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.fixtures.chefling.NoConstructor;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link TypeCache}.
+ */
+public class TypeCacheTest {
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS SETUP
+    //----------------------------------------------------------------------------------------------
+
+    private TypeCache cache;
+    private CreateInstanceCommandImpl.ConstructorParameters constructor;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new TypeCache();
+        constructor = new CreateInstanceCommandImpl.ConstructorParameters(
+                NoConstructor.class.getConstructor(), new Class[0]);
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void should_store_constructor_per_mapping_key() throws Exception {
+        TypeCache.Entry entry = cache.getEntry(NoConstructor.class);
+
+        cache.putConstructor(entry, 1L, constructor);
+
+        assertSame(constructor, cache.getConstructor(entry, 1L));
+        assertNull(cache.getConstructor(entry, 2L));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void should_not_cache_uncacheable_key() throws Exception {
+        TypeCache.Entry entry = cache.getEntry(NoConstructor.class);
+
+        cache.putConstructor(entry, TypeCache.UNCACHEABLE, constructor);
+
+        assertFalse(cache.containsConstructor(NoConstructor.class));
+        assertNull(cache.getConstructor(entry, TypeCache.UNCACHEABLE));
+    }
+
+    @Test
+    public void clear_should_remove_entries_and_reset_counters() throws Exception {
+        TypeCache.Entry entry = cache.getEntry(NoConstructor.class);
+
+        cache.putConstructor(entry, 0L, constructor);
+        cache.getConstructor(entry, 0L);
+        cache.clear();
+
+        assertFalse(cache.containsConstructor(NoConstructor.class));
+        assertNotSame(entry, cache.getEntry(NoConstructor.class));
+        assertEquals(0, cache.getHitCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.cookingfox.chefling.impl.command;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link TypeIdMap} and {@link TypeIds}.
+ */
+public class TypeIdMapTest {
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS SETUP
+    //----------------------------------------------------------------------------------------------
+
+    private TypeIdMap<Object> map;
+
+    @Before
+    public void setUp() throws Exception {
+        map = new TypeIdMap<>();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: TypeIds
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void type_ids_should_be_stable_and_unique() throws Exception {
+        int stringId = TypeIds.get(String.class);
+        int integerId = TypeIds.get(Integer.class);
+
+        assertEquals(stringId, TypeIds.get(String.class));
+        assertNotEquals(stringId, integerId);
+        assertTrue(TypeIds.getCount() > Math.max(stringId, integerId));
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: TypeIdMap
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void should_put_get_and_remove() throws Exception {
+        assertNull(map.put(String.class, "first"));
+        assertEquals("first", map.put(String.class, "second"));
+
+        assertEquals("second", map.get(String.class));
+        assertEquals("second", map.getById(TypeIds.get(String.class)));
+        assertTrue(map.containsKey(String.class));
+        assertTrue(map.containsId(TypeIds.get(String.class)));
+        assertEquals(1, map.size());
+
+        assertEquals("second", map.remove(String.class));
+        assertNull(map.get(String.class));
+        assertFalse(map.containsKey(String.class));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void should_not_contain_unknown_keys() throws Exception {
+        map.put(String.class, "value");
+
+        assertNull(map.get(Integer.class));
+        assertNull(map.get("not a class"));
+        assertNull(map.getById(Integer.MAX_VALUE));
+        assertNull(map.remove(Integer.class));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void put_should_throw_if_null_value() throws Exception {
+        map.put(String.class, null);
+    }
+
+    @Test
+    public void should_iterate_all_entries() throws Exception {
+        Map<Class, Object> expected = createEntries(500);
+
+        map.putAll(expected);
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, new HashMap<>(map));
+        assertEquals(expected.keySet(), map.keySet());
+    }
+
+    @Test
+    public void iterator_should_remove_entries() throws Exception {
+        map.putAll(createEntries(100));
+
+        Iterator<Class> iterator = map.keySet().iterator();
+
+        while (iterator.hasNext()) {
+            if (iterator.next().isArray()) {
+                iterator.remove();
+            }
+        }
+
+        for (Class type : map.keySet()) {
+            assertFalse(type.isArray());
+        }
+
+        assertEquals(5, map.size());
+    }
+
+    @Test
+    public void should_only_allocate_table_and_page_of_ids_in_use() throws Exception {
+        int id = TypeIds.get(String.class);
+
+        map.put(String.class, "value");
+
+        int tableNumber = id >>> (TypeIdMap.PAGE_SHIFT + TypeIdMap.TABLE_SHIFT);
+        int pages = 0;
+
+        assertEquals(tableNumber + 1, map.tables.length);
+
+        for (int i = 0; i < map.tables.length; i++) {
+            assertEquals(i == tableNumber, map.tables[i] != null);
+        }
+
+        for (Object page : map.tables[tableNumber]) {
+            if (page != null) {
+                pages++;
+            }
+        }
+
+        assertEquals(1, pages);
+    }
+
+    @Test
+    public void clear_should_remove_all_entries() throws Exception {
+        map.putAll(createEntries(100));
+
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertFalse(map.entrySet().iterator().hasNext());
+        assertNull(map.get(String.class));
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPERS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates entries for distinct types: five classes and array types of increasing dimension.
+     */
+    private static Map<Class, Object> createEntries(int count) {
+        Class[] types = {String.class, Integer.class, Long.class, Object.class, Thread.class};
+        Map<Class, Object> entries = new LinkedHashMap<>();
+
+        while (entries.size() < count) {
+            for (int i = 0; i < types.length && entries.size() < count; i++) {
+                entries.put(types[i], new Object());
+                types[i] = Array.newInstance(types[i], 0).getClass();
+            }
+        }
+
+        return entries;
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.cookingfox.chefling.impl.command;
+
+import com.cookingfox.chefling.AbstractTest;
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingFactory;
+import com.cookingfox.chefling.api.exception.ContainerException;
+import com.cookingfox.chefling.api.exception.ContainerValidationException;
+import com.cookingfox.chefling.api.exception.FactoryReturnedNullException;
+import com.cookingfox.fixtures.chefling.*;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ValidateContainerCommandImpl}.
+ */
+public class ValidateContainerCommandImplTest extends AbstractTest {
+
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+        pool.shutdown();
+    }
+
+    @Test
+    public void should_resolve_all_current_mappings() throws Exception {
+        final AtomicBoolean factoryCalled = new AtomicBoolean(false);
+
+        container.mapFactory(NoConstructor.class, new CheflingFactory<NoConstructor>() {
+            @Override
+            public NoConstructor createInstance(CheflingContainer container) {
+                factoryCalled.set(true);
+                return new NoConstructor();
+            }
+        });
+
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        assertFalse(container.hasInstanceOrMapping(NoMethodImplementation.class));
+
+        container.validateContainer();
+
+        assertTrue(factoryCalled.get());
+        assertTrue(container.hasInstanceOrMapping(NoMethodImplementation.class));
+    }
+
+    @Test
+    public void should_resolve_container_children_mappings() throws Exception {
+        final AtomicBoolean firstCalled = new AtomicBoolean(false);
+        final AtomicBoolean secondCalled = new AtomicBoolean(false);
+
+        container.mapFactory(NoConstructor.class, new CheflingFactory<NoConstructor>() {
+            @Override
+            public NoConstructor createInstance(CheflingContainer container) {
+                firstCalled.set(true);
+                return new NoConstructor();
+            }
+        });
+
+        CheflingContainer childContainer = container.createChildContainer();
+
+        childContainer.mapFactory(NoMethodInterface.class, new CheflingFactory<NoMethodInterface>() {
+            @Override
+            public NoMethodInterface createInstance(CheflingContainer container) {
+                secondCalled.set(true);
+                return new NoMethodImplementation();
+            }
+        });
+
+        container.validateContainer();
+
+        assertTrue(firstCalled.get());
+        assertTrue(secondCalled.get());
+    }
+
+    @Test(expected = ContainerException.class)
+    public void should_throw_if_unresolvable() throws Exception {
+        container.mapFactory(NoConstructor.class, new CheflingFactory<NoConstructor>() {
+            @Override
+            public NoConstructor createInstance(CheflingContainer container) {
+                return null;
+            }
+        });
+
+        container.validateContainer();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS: parallel validation
+    //----------------------------------------------------------------------------------------------
+
+    @Test(expected = NullPointerException.class)
+    public void parallel_should_throw_if_pool_null() throws Exception {
+        container.validateContainer(null);
+    }
+
+    @Test
+    public void parallel_should_resolve_all_mappings() throws Exception {
+        CheflingContainer child = container.createChildContainer();
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+        child.mapType(NoMethodAbstract.class, NoMethodImplementation.class);
+
+        container.validateContainer(pool);
+
+        assertTrue(container.hasInstanceOrMapping(NoMethodImplementation.class));
+        assertNotNull(container.getInstance(NoMethodAbstract.class));
+    }
+
+    @Test
+    public void parallel_should_resolve_dependencies_first() throws Exception {
+        container.mapType(NoMethodAbstract.class, NoMethodAbstractWithDependency.class);
+        container.mapType(NoMethodInterface.class, NoMethodImplementation.class);
+
+        container.validateContainer(pool);
+
+        NoMethodAbstractWithDependency result =
+                (NoMethodAbstractWithDependency) container.getInstance(NoMethodAbstract.class);
+
+        assertSame(container.getInstance(NoMethodInterface.class), result.dependency);
+    }
+
+    @Test
+    public void parallel_should_report_all_failures() throws Exception {
+        container.mapFactory(NoConstructor.class, new CheflingFactory<NoConstructor>() {
+            @Override
+            public NoConstructor createInstance(CheflingContainer container) {
+                return null;
+            }
+        });
+
+        container.mapFactory(NoMethodInterface.class, new CheflingFactory<NoMethodInterface>() {
+            @Override
+            public NoMethodInterface createInstance(CheflingContainer container) {
+                throw new IllegalStateException("Example exception from factory");
+            }
+        });
+
+        container.mapType(NoMethodAbstract.class, NoMethodImplementation.class);
+
+        try {
+            container.validateContainer(pool);
+
+            fail("Expected exception");
+        } catch (ContainerValidationException e) {
+            assertEquals(2, e.getFailures().size());
+            assertTrue(e.getFailures().get(NoConstructor.class) instanceof FactoryReturnedNullException);
+            assertTrue(e.getFailures().get(NoMethodInterface.class) instanceof IllegalStateException);
+            assertEquals(2, e.getSuppressed().length);
+        }
+
+        assertTrue(container.hasInstanceOrMapping(NoMethodImplementation.class));
+    }
+
+    @Test
+    public void parallel_should_skip_dependents_of_failed_type() throws Exception {
+        final AtomicInteger factoryCalls = new AtomicInteger();
+
+        container.mapFactory(NoMethodInterface.class, new CheflingFactory<NoMethodInterface>() {
+            @Override
+            public NoMethodInterface createInstance(CheflingContainer container) {
+                factoryCalls.incrementAndGet();
+                return null;
+            }
+        });
+
+        container.mapType(NoMethodAbstract.class, NoMethodAbstractWithDependency.class);
+
+        try {
+            container.validateContainer(pool);
+
+            fail("Expected exception");
+        } catch (ContainerValidationException e) {
+            assertEquals(Collections.singleton(NoMethodInterface.class), e.getFailures().keySet());
+        }
+
+        assertEquals(1, factoryCalls.get());
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.cookingfox.chefling.impl.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS SETUP
+    //----------------------------------------------------------------------------------------------
+
+    private LatencyHistogram histogram;
+
+    @Before
+    public void setUp() throws Exception {
+        histogram = new LatencyHistogram();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void getBucket_should_use_powers_of_two() throws Exception {
+        assertEquals(0, LatencyHistogram.getBucket(0));
+        assertEquals(1, LatencyHistogram.getBucket(1));
+        assertEquals(2, LatencyHistogram.getBucket(2));
+        assertEquals(2, LatencyHistogram.getBucket(3));
+        assertEquals(3, LatencyHistogram.getBucket(4));
+        assertEquals(63, LatencyHistogram.getBucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void snapshot_should_be_empty_if_nothing_recorded() throws Exception {
+        LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getMaxNanos());
+        assertEquals(0, snapshot.getMeanNanos(), 0);
+        assertEquals(0, snapshot.getPercentileNanos(99));
+    }
+
+    @Test
+    public void snapshot_should_contain_count_total_mean_and_max() throws Exception {
+        histogram.record(100);
+        histogram.record(300);
+        histogram.record(-5);
+
+        LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+
+        assertEquals(3, snapshot.getCount());
+        assertEquals(400, snapshot.getTotalNanos());
+        assertEquals(400 / 3.0, snapshot.getMeanNanos(), 0.001);
+        assertEquals(300, snapshot.getMaxNanos());
+    }
+
+    @Test
+    public void getPercentileNanos_should_return_upper_bound_of_bucket() throws Exception {
+        for (int i = 0; i < 90; i++) {
+            histogram.record(100);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            histogram.record(5000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.getSnapshot();
+
+        // 100 is in the bucket of 64..127, 5000 in the bucket of 4096..8191
+        assertEquals(127, snapshot.getPercentileNanos(50));
+        assertEquals(127, snapshot.getPercentileNanos(90));
+        assertEquals(5000, snapshot.getPercentileNanos(99));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getPercentileNanos_should_throw_if_out_of_range() throws Exception {
+        histogram.getSnapshot().getPercentileNanos(101);
+    }
+
+}
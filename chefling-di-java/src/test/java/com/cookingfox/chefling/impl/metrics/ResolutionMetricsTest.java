@@ -0,0 +1,255 @@
+package com.cookingfox.chefling.impl.metrics;
+
+import com.cookingfox.chefling.AbstractTest;
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingFactory;
+import com.cookingfox.chefling.api.CheflingMetrics.Construction;
+import com.cookingfox.chefling.api.CheflingScope;
+import com.cookingfox.chefling.impl.command.AllocationRecorder;
+import com.cookingfox.chefling.impl.command.CommandContainerBuilder;
+import com.cookingfox.fixtures.chefling.AllocatingConstructor;
+import com.cookingfox.fixtures.chefling.NoConstructor;
+import com.cookingfox.fixtures.chefling.NoConstructorFactory;
+import com.cookingfox.fixtures.chefling.OneParamConstructor;
+import com.cookingfox.fixtures.chefling.WithGeneratedFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Unit tests for {@link ResolutionMetrics}.
+ */
+public class ResolutionMetricsTest extends AbstractTest {
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS SETUP
+    //----------------------------------------------------------------------------------------------
+
+    private CheflingContainer metricsContainer;
+    private ResolutionMetrics metrics;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+
+        metrics = new ResolutionMetrics();
+        metricsContainer = new CommandContainerBuilder().setMetrics(metrics).buildContainer();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void getSnapshot_should_return_null_if_type_not_recorded() throws Exception {
+        assertNull(metrics.getSnapshot(NoConstructor.class));
+        assertTrue(metrics.getSnapshot().isEmpty());
+    }
+
+    @Test
+    public void should_record_cache_hits_and_creations() throws Exception {
+        metricsContainer.getInstance(NoConstructor.class);
+        metricsContainer.getInstance(NoConstructor.class);
+        metricsContainer.getInstance(NoConstructor.class);
+
+        ResolutionMetrics.TypeSnapshot snapshot = metrics.getSnapshot(NoConstructor.class);
+
+        assertEquals(NoConstructor.class, snapshot.getType());
+        assertEquals(1, snapshot.getCreations());
+        assertEquals(2, snapshot.getCacheHits());
+    }
+
+    @Test
+    public void should_record_dependencies_of_created_instance() throws Exception {
+        metricsContainer.getInstance(OneParamConstructor.class);
+
+        assertEquals(1, metrics.getSnapshot(OneParamConstructor.class).getCreations());
+        assertEquals(1, metrics.getSnapshot(NoConstructor.class).getCreations());
+        assertEquals(2, metrics.getSnapshot().size());
+    }
+
+    @Test
+    public void should_record_reflective_constructions() throws Exception {
+        metricsContainer.createInstance(NoConstructor.class);
+        metricsContainer.createInstance(NoConstructor.class);
+
+        ResolutionMetrics.TypeSnapshot snapshot = metrics.getSnapshot(NoConstructor.class);
+
+        assertEquals(2, snapshot.getConstructions(Construction.REFLECTION));
+        assertEquals(0, snapshot.getConstructions(Construction.FACTORY));
+        assertEquals(2, snapshot.getLatency().getCount());
+    }
+
+    @Test
+    public void should_record_factory_constructions() throws Exception {
+        metricsContainer.mapFactory(NoConstructor.class, new NoConstructorFactory());
+        metricsContainer.getInstance(NoConstructor.class);
+
+        ResolutionMetrics.TypeSnapshot snapshot = metrics.getSnapshot(NoConstructor.class);
+
+        assertEquals(1, snapshot.getConstructions(Construction.FACTORY));
+        assertEquals(0, snapshot.getConstructions(Construction.REFLECTION));
+        assertEquals(1, snapshot.getCreations());
+    }
+
+    @Test
+    public void should_record_generated_factory_constructions() throws Exception {
+        metricsContainer.getInstance(WithGeneratedFactory.class);
+
+        ResolutionMetrics.TypeSnapshot snapshot = metrics.getSnapshot(WithGeneratedFactory.class);
+
+        assertEquals(1, snapshot.getConstructions(Construction.GENERATED_FACTORY));
+        assertEquals(0, snapshot.getConstructions(Construction.REFLECTION));
+    }
+
+    @Test
+    public void should_record_creation_for_every_transient_instance() throws Exception {
+        metricsContainer.mapFactory(NoConstructor.class, new NoConstructorFactory(), CheflingScope.TRANSIENT);
+        metricsContainer.getInstance(NoConstructor.class);
+        metricsContainer.getInstance(NoConstructor.class);
+
+        ResolutionMetrics.TypeSnapshot snapshot = metrics.getSnapshot(NoConstructor.class);
+
+        assertEquals(2, snapshot.getCreations());
+        assertEquals(0, snapshot.getCacheHits());
+    }
+
+    @Test
+    public void child_container_should_use_metrics_of_parent() throws Exception {
+        CheflingContainer child = metricsContainer.createChildContainer();
+
+        child.getInstance(NoConstructor.class);
+        child.getInstance(NoConstructor.class);
+
+        ResolutionMetrics.TypeSnapshot snapshot = metrics.getSnapshot(NoConstructor.class);
+
+        assertEquals(1, snapshot.getCreations());
+        assertEquals(1, snapshot.getCacheHits());
+    }
+
+    @Test
+    public void should_not_record_without_metrics() throws Exception {
+        container.getInstance(NoConstructor.class);
+
+        assertNull(metrics.getSnapshot(NoConstructor.class));
+    }
+
+    @Test
+    public void should_not_record_allocations_by_default() throws Exception {
+        metricsContainer.getInstance(AllocatingConstructor.class);
+
+        assertEquals(0, metrics.getSnapshot(AllocatingConstructor.class).getAllocations());
+        assertEquals(0, metrics.getSnapshot(AllocatingConstructor.class).getAllocatedBytesInclusive());
+    }
+
+    @Test
+    public void should_record_allocations_inclusive_and_exclusive_of_dependencies() throws Exception {
+        assumeTrue(AllocationRecorder.isSupported());
+
+        CheflingContainer container = new CommandContainerBuilder()
+                .setMetrics(metrics)
+                .setAllocationAccounting(true)
+                .buildContainer();
+
+        container.getInstance(AllocatingConstructor.class);
+
+        ResolutionMetrics.TypeSnapshot type = metrics.getSnapshot(AllocatingConstructor.class);
+        ResolutionMetrics.TypeSnapshot dependency = metrics.getSnapshot(AllocatingConstructor.Dependency.class);
+
+        assertEquals(1, type.getAllocations());
+        assertEquals(1, dependency.getAllocations());
+
+        // the dependency is created by the creation of the type
+        assertTrue(dependency.getAllocatedBytesExclusive() >= AllocatingConstructor.SIZE);
+        assertEquals(dependency.getAllocatedBytesExclusive(), dependency.getAllocatedBytesInclusive());
+        assertTrue(type.getAllocatedBytesExclusive() >= AllocatingConstructor.SIZE);
+        assertTrue(type.getAllocatedBytesExclusive() < 2 * AllocatingConstructor.SIZE);
+        assertEquals(type.getAllocatedBytesExclusive() + dependency.getAllocatedBytesInclusive(),
+                type.getAllocatedBytesInclusive());
+    }
+
+    @Test
+    public void should_not_record_container_allocations_on_first_creation() throws Exception {
+        assumeTrue(AllocationRecorder.isSupported());
+
+        CheflingContainer container = new CommandContainerBuilder()
+                .setMetrics(metrics)
+                .setAllocationAccounting(true)
+                .setTracer(new TraceRecorder())
+                .buildContainer();
+
+        // the first creation compiles the resolution plans of both types
+        container.getInstance(OneParamConstructor.class);
+
+        ResolutionMetrics.TypeSnapshot type = metrics.getSnapshot(OneParamConstructor.class);
+        ResolutionMetrics.TypeSnapshot dependency = metrics.getSnapshot(NoConstructor.class);
+
+        // only the instances themselves are allocated by the constructors
+        assertTrue(type.getAllocatedBytesExclusive() < 100);
+        assertTrue(dependency.getAllocatedBytesExclusive() < 100);
+        assertEquals(type.getAllocatedBytesExclusive() + dependency.getAllocatedBytesInclusive(),
+                type.getAllocatedBytesInclusive());
+    }
+
+    @Test
+    public void should_not_record_nested_creations_of_factory() throws Exception {
+        assumeTrue(AllocationRecorder.isSupported());
+
+        CheflingContainer container = new CommandContainerBuilder()
+                .setMetrics(metrics)
+                .setAllocationAccounting(true)
+                .buildContainer();
+
+        container.mapFactory(OneParamConstructor.class, new CheflingFactory<OneParamConstructor>() {
+            @Override
+            public OneParamConstructor createInstance(CheflingContainer container) {
+                container.getInstance(AllocatingConstructor.class);
+
+                return new OneParamConstructor(container.getInstance(NoConstructor.class));
+            }
+        });
+
+        container.getInstance(OneParamConstructor.class);
+
+        ResolutionMetrics.TypeSnapshot type = metrics.getSnapshot(OneParamConstructor.class);
+
+        // the factory only allocates the instance itself: the created dependencies are excluded
+        assertTrue(type.getAllocatedBytesExclusive() < 100);
+        assertTrue(type.getAllocatedBytesInclusive() >= 2 * AllocatingConstructor.SIZE);
+    }
+
+    @Test
+    public void getAllocationReport_should_sort_by_exclusive_bytes() throws Exception {
+        metrics.recordAllocation(NoConstructor.class, 100, 100);
+        metrics.recordAllocation(OneParamConstructor.class, 1100, 1000);
+        metrics.recordCacheHit(WithGeneratedFactory.class);
+
+        String[] lines = metrics.getAllocationReport().split("\\r?\\n");
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[1].endsWith(OneParamConstructor.class.getName()));
+        assertTrue(lines[2].endsWith(NoConstructor.class.getName()));
+    }
+
+    @Test
+    public void should_count_concurrent_cache_hits() throws Exception {
+        final int numRequests = 1000;
+        int numThreads = 10;
+
+        metricsContainer.getInstance(NoConstructor.class);
+
+        runConcurrencyTest(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < numRequests; i++) {
+                    metricsContainer.getInstance(NoConstructor.class);
+                }
+            }
+        }, numThreads);
+
+        assertEquals(numRequests * numThreads, metrics.getSnapshot(NoConstructor.class).getCacheHits());
+    }
+
+}
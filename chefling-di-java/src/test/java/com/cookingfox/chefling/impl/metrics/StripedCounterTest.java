@@ -0,0 +1,58 @@
+package com.cookingfox.chefling.impl.metrics;
+
+import com.cookingfox.chefling.AbstractTest;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link StripedCounter}.
+ */
+public class StripedCounterTest extends AbstractTest {
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void sum_should_return_zero_for_new_counter() throws Exception {
+        assertEquals(0, new StripedCounter().sum());
+    }
+
+    @Test
+    public void sum_should_return_number_of_increments() throws Exception {
+        StripedCounter counter = new StripedCounter();
+
+        for (int i = 0; i < 5; i++) {
+            counter.increment();
+        }
+
+        assertEquals(5, counter.sum());
+    }
+
+    @Test
+    public void sum_should_include_concurrent_increments() throws Exception {
+        final StripedCounter counter = new StripedCounter();
+        final int numIncrements = 10000;
+        int numThreads = 8;
+
+        runConcurrencyTest(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < numIncrements; i++) {
+                    counter.increment();
+                }
+            }
+        }, numThreads);
+
+        assertEquals(numIncrements * numThreads, counter.sum());
+    }
+
+    @Test
+    public void getStripe_should_be_within_stripes() throws Exception {
+        int stripe = StripedCounter.getStripe(Thread.currentThread());
+
+        assertTrue(stripe >= 0 && stripe < StripedCounter.STRIPES);
+    }
+
+}
@@ -0,0 +1,202 @@
+package com.cookingfox.chefling.impl.metrics;
+
+import com.cookingfox.chefling.AbstractTest;
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingContainerListener;
+import com.cookingfox.chefling.api.CheflingTracer.Category;
+import com.cookingfox.chefling.api.exception.ContainerException;
+import com.cookingfox.chefling.impl.command.CommandContainerBuilder;
+import com.cookingfox.fixtures.chefling.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link TraceRecorder}.
+ */
+public class TraceRecorderTest extends AbstractTest {
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS SETUP
+    //----------------------------------------------------------------------------------------------
+
+    private TraceRecorder recorder;
+    private CheflingContainer tracedContainer;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+
+        recorder = new TraceRecorder();
+        tracedContainer = new CommandContainerBuilder().setTracer(recorder).buildContainer();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void should_trace_nested_resolutions() throws Exception {
+        tracedContainer.getInstance(OneParamConstructor.class);
+
+        assertEquals(spans(
+                "B RESOLUTION " + OneParamConstructor.class.getName(),
+                "B RESOLUTION " + NoConstructor.class.getName(),
+                "B CONSTRUCTOR " + NoConstructor.class.getName(),
+                "E CONSTRUCTOR " + NoConstructor.class.getName(),
+                "E RESOLUTION " + NoConstructor.class.getName(),
+                "B CONSTRUCTOR " + OneParamConstructor.class.getName(),
+                "E CONSTRUCTOR " + OneParamConstructor.class.getName(),
+                "E RESOLUTION " + OneParamConstructor.class.getName()
+        ), traced());
+    }
+
+    @Test
+    public void should_trace_factories_and_initialize() throws Exception {
+        tracedContainer.mapFactory(NoConstructor.class, new NoConstructorFactory());
+        tracedContainer.getInstance(NoConstructor.class);
+        tracedContainer.getInstance(WithGeneratedFactory.class);
+        tracedContainer.getInstance(LifecycleWithCallLog.class);
+
+        List<String> traced = traced();
+
+        assertTrue(traced.contains("B FACTORY " + NoConstructor.class.getName()));
+        assertTrue(traced.contains("B GENERATED_FACTORY " + WithGeneratedFactory.class.getName()));
+        assertTrue(traced.contains("B INITIALIZE " + LifecycleWithCallLog.class.getName()));
+        assertTrue(traced.indexOf("E INITIALIZE " + LifecycleWithCallLog.class.getName())
+                < traced.indexOf("E RESOLUTION " + LifecycleWithCallLog.class.getName()));
+    }
+
+    @Test
+    public void should_not_trace_cache_hits() throws Exception {
+        tracedContainer.getInstance(NoConstructor.class);
+        recorder.clear();
+        tracedContainer.getInstance(NoConstructor.class);
+
+        assertTrue(recorder.getEvents().isEmpty());
+    }
+
+    @Test
+    public void should_end_spans_if_creation_throws() throws Exception {
+        try {
+            tracedContainer.getInstance(ThrowingConstructor.class);
+            fail("Expected exception");
+        } catch (ContainerException e) {
+            // expected
+        }
+
+        assertEquals(spans(
+                "B RESOLUTION " + ThrowingConstructor.class.getName(),
+                "B CONSTRUCTOR " + ThrowingConstructor.class.getName(),
+                "E CONSTRUCTOR " + ThrowingConstructor.class.getName(),
+                "E RESOLUTION " + ThrowingConstructor.class.getName()
+        ), traced());
+    }
+
+    @Test
+    public void should_trace_builder_configs_and_listeners() throws Exception {
+        TraceRecorder recorder = new TraceRecorder();
+        CheflingContainerListener listener = new CheflingContainerListener() {
+            @Override
+            public void preBuilderApply(CheflingContainer container) {
+            }
+
+            @Override
+            public void postBuilderApply(CheflingContainer container) {
+            }
+
+            @Override
+            public void preContainerDispose(CheflingContainer container) {
+            }
+
+            @Override
+            public void postContainerDispose(CheflingContainer container) {
+            }
+        };
+
+        new CommandContainerBuilder()
+                .setTracer(recorder)
+                .addConfig(new NoopConfig())
+                .addContainerListener(listener)
+                .buildContainer();
+
+        String listenerName = listener.getClass().getName();
+
+        assertEquals(spans(
+                "B LISTENER " + listenerName + ".preBuilderApply",
+                "E LISTENER " + listenerName + ".preBuilderApply",
+                "B CONFIG " + NoopConfig.class.getName(),
+                "E CONFIG " + NoopConfig.class.getName(),
+                "B LISTENER " + listenerName + ".postBuilderApply",
+                "E LISTENER " + listenerName + ".postBuilderApply"
+        ), traced(recorder));
+    }
+
+    @Test
+    public void child_container_should_use_tracer_of_parent() throws Exception {
+        tracedContainer.createChildContainer().getInstance(NoConstructor.class);
+
+        assertTrue(traced().contains("B RESOLUTION " + NoConstructor.class.getName()));
+    }
+
+    @Test
+    public void writeTo_should_write_trace_event_json() throws Exception {
+        tracedContainer.getInstance(NoConstructor.class);
+        recorder.begin(Category.CONFIG, "quote\" backslash\\ newline\n");
+        recorder.end(Category.CONFIG, "quote\" backslash\\ newline\n");
+
+        StringBuilder json = new StringBuilder();
+        recorder.writeTo(json);
+        String result = json.toString();
+        long threadId = Thread.currentThread().getId();
+
+        assertTrue(result.startsWith("{\"traceEvents\":["));
+        assertTrue(result.contains("{\"name\":\"" + NoConstructor.class.getName()
+                + "\",\"cat\":\"RESOLUTION\",\"ph\":\"B\",\"ts\":"));
+        assertTrue(result.contains(",\"pid\":1,\"tid\":" + threadId + "}"));
+        assertTrue(result.contains("\"quote\\\" backslash\\\\ newline\\u000a\""));
+        assertTrue(result.contains("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":" + threadId));
+        assertTrue(result.trim().endsWith("],\"displayTimeUnit\":\"ms\"}"));
+    }
+
+    @Test
+    public void writeTo_should_write_empty_trace() throws Exception {
+        StringBuilder json = new StringBuilder();
+        recorder.writeTo(json);
+
+        assertEquals("{\"traceEvents\":[\n],\"displayTimeUnit\":\"ms\"}\n", json.toString());
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPER METHODS
+    //----------------------------------------------------------------------------------------------
+
+    private static List<String> spans(String... spans) {
+        List<String> list = new ArrayList<>();
+
+        for (String span : spans) {
+            list.add(span);
+        }
+
+        return list;
+    }
+
+    private List<String> traced() {
+        return traced(recorder);
+    }
+
+    private static List<String> traced(TraceRecorder recorder) {
+        List<String> traced = new ArrayList<>();
+
+        for (TraceRecorder.Event event : recorder.getEvents()) {
+            traced.add(event.toString());
+        }
+
+        return traced;
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.cookingfox.fixtures.chefling;
+
+/**
+ * A class with a constructor that allocates a large array, and a dependency that does the same.
+ */
+public class AllocatingConstructor {
+
+    public static final int SIZE = 100000;
+
+    public final byte[] bytes = new byte[SIZE];
+    public final Dependency dependency;
+
+    public AllocatingConstructor(Dependency dependency) {
+        this.dependency = dependency;
+    }
+
+    /**
+     * The dependency, which allocates an array of the same size.
+     */
+    public static class Dependency {
+
+        public final byte[] bytes = new byte[SIZE];
+
+    }
+
+}
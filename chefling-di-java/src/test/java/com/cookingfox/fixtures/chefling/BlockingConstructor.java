@@ -0,0 +1,18 @@
+package com.cookingfox.fixtures.chefling;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * A class with a constructor that blocks until {@link #release} is counted down.
+ */
+public class BlockingConstructor {
+
+    public static final CountDownLatch entered = new CountDownLatch(1);
+    public static final CountDownLatch release = new CountDownLatch(1);
+
+    public BlockingConstructor() throws InterruptedException {
+        entered.countDown();
+        release.await();
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.cookingfox.fixtures.chefling;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A class with a slow constructor, that counts the number of times it is called.
+ */
+public class CountingSlowConstructor {
+
+    public static final AtomicInteger constructorCalls = new AtomicInteger(0);
+
+    public CountingSlowConstructor() throws InterruptedException {
+        constructorCalls.incrementAndGet();
+
+        Thread.sleep(50);
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.cookingfox.fixtures.chefling;
+
+import com.cookingfox.chefling.api.CheflingLifecycle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lifecycle classes that depend on each other and log the order in which they are disposed.
+ */
+public class LifecycleDisposeOrder {
+
+    public static final List<Class> DISPOSED = Collections.synchronizedList(new ArrayList<Class>());
+
+    public static abstract class AbstractLogging implements CheflingLifecycle {
+
+        @Override
+        public void initialize() {
+        }
+
+        @Override
+        public void dispose() {
+            DISPOSED.add(getClass());
+        }
+
+    }
+
+    public static class Dependency extends AbstractLogging {
+    }
+
+    public static class Dependent extends AbstractLogging {
+
+        public Dependent(Dependency dependency) {
+        }
+
+    }
+
+    public static class OtherDependent extends AbstractLogging {
+
+        public OtherDependent(Dependency dependency) {
+        }
+
+    }
+
+    public static class TopDependent extends AbstractLogging {
+
+        public TopDependent(Dependent dependent, OtherDependent otherDependent) {
+        }
+
+    }
+
+    public static class SlowDependent extends AbstractLogging {
+
+        public SlowDependent(Dependency dependency) {
+        }
+
+        @Override
+        public void dispose() {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            super.dispose();
+        }
+
+    }
+
+    public static class ErrorDependent extends AbstractLogging {
+
+        public ErrorDependent(Dependency dependency) {
+        }
+
+        @Override
+        public void dispose() {
+            throw new AssertionError("Dispose failed");
+        }
+
+    }
+
+    public static class ThrowingDependent extends AbstractLogging {
+
+        public ThrowingDependent(Dependency dependency) {
+        }
+
+        @Override
+        public void dispose() {
+            throw new IllegalStateException("Dispose failed");
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.cookingfox.fixtures.chefling;
+
+import com.cookingfox.chefling.api.CheflingLifecycle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Lifecycle classes that depend on each other and log the order in which they are initialized.
+ */
+public class LifecycleInitializeOrder {
+
+    public static final List<Class> INITIALIZED = Collections.synchronizedList(new ArrayList<Class>());
+
+    public static class Dependency implements CheflingLifecycle {
+
+        @Override
+        public void initialize() {
+            INITIALIZED.add(Dependency.class);
+        }
+
+        @Override
+        public void dispose() {
+        }
+
+    }
+
+    public static abstract class AbstractDependent implements CheflingLifecycle {
+    }
+
+    public static class Dependent extends AbstractDependent {
+
+        public final Dependency dependency;
+
+        public Dependent(Dependency dependency) {
+            this.dependency = dependency;
+        }
+
+        @Override
+        public void initialize() {
+            INITIALIZED.add(Dependent.class);
+        }
+
+        @Override
+        public void dispose() {
+        }
+
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.cookingfox.fixtures.chefling;
+
+/**
+ * Subtype of {@link LifecycleWithCallLog}, so it can be used as a type mapping.
+ */
+public class LifecycleWithCallLogSubType extends LifecycleWithCallLog {
+}
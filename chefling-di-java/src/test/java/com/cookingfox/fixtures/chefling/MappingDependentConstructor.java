@@ -0,0 +1,15 @@
+package com.cookingfox.fixtures.chefling;
+
+/**
+ * Class with a single constructor, which is only resolvable when the container has a mapping for
+ * {@link NoMethodInterface}.
+ */
+public class MappingDependentConstructor {
+
+    public NoMethodInterface dependency;
+
+    public MappingDependentConstructor(NoMethodInterface dependency) {
+        this.dependency = dependency;
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.cookingfox.fixtures.chefling;
+
+/**
+ * Implementation of {@link NoMethodAbstract} that depends on {@link NoMethodInterface}.
+ */
+public class NoMethodAbstractWithDependency extends NoMethodAbstract {
+
+    public final NoMethodInterface dependency;
+
+    public NoMethodAbstractWithDependency(NoMethodInterface dependency) {
+        this.dependency = dependency;
+    }
+
+}
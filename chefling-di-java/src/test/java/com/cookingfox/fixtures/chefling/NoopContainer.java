@@ -2,6 +2,10 @@ package com.cookingfox.fixtures.chefling;
 
 import com.cookingfox.chefling.api.CheflingContainer;
 import com.cookingfox.chefling.api.CheflingFactory;
+import com.cookingfox.chefling.api.CheflingRequestScope;
+import com.cookingfox.chefling.api.CheflingScope;
+
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Implementation of {@link CheflingContainer} interface without any functionality.
@@ -38,6 +42,11 @@ public class NoopContainer implements CheflingContainer {
 
     }
 
+    @Override
+    public <T> void mapFactory(Class<T> type, CheflingFactory<T> factory, CheflingScope scope) {
+
+    }
+
     @Override
     public <T> void mapInstance(Class<T> type, T instance) {
 
@@ -48,16 +57,36 @@ public class NoopContainer implements CheflingContainer {
 
     }
 
+    @Override
+    public <T> void mapType(Class<T> type, Class<? extends T> subType, CheflingScope scope) {
+
+    }
+
+    @Override
+    public CheflingRequestScope openRequestScope() {
+        return null;
+    }
+
     @Override
     public void removeInstanceAndMapping(Class type) {
 
     }
 
+    @Override
+    public void disposeChildContainer(CheflingContainer container) {
+
+    }
+
     @Override
     public void disposeContainer() {
 
     }
 
+    @Override
+    public CheflingContainer freezeContainer() {
+        return null;
+    }
+
     @Override
     public void setParentContainer(CheflingContainer container) {
 
@@ -68,4 +97,9 @@ public class NoopContainer implements CheflingContainer {
 
     }
 
+    @Override
+    public void validateContainer(ForkJoinPool pool) {
+
+    }
+
 }
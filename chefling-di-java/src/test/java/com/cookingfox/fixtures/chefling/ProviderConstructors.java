@@ -0,0 +1,61 @@
+package com.cookingfox.fixtures.chefling;
+
+import com.cookingfox.chefling.api.CheflingLazy;
+import com.cookingfox.chefling.api.CheflingProvider;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classes with {@link CheflingProvider} and {@link CheflingLazy} constructor parameters.
+ */
+public class ProviderConstructors {
+
+    /**
+     * Counts the number of times it is constructed.
+     */
+    public static class Expensive {
+
+        public static final AtomicInteger constructorCalls = new AtomicInteger(0);
+
+        public Expensive() {
+            constructorCalls.incrementAndGet();
+        }
+
+    }
+
+    public static class WithProvider {
+
+        public final CheflingProvider<Expensive> provider;
+
+        public WithProvider(CheflingProvider<Expensive> provider) {
+            this.provider = provider;
+        }
+
+    }
+
+    public static class WithLazy {
+
+        public final CheflingLazy<NoMethodInterface> lazy;
+
+        public WithLazy(CheflingLazy<NoMethodInterface> lazy) {
+            this.lazy = lazy;
+        }
+
+    }
+
+    public static class WithRawProvider {
+
+        @SuppressWarnings("rawtypes")
+        public WithRawProvider(CheflingProvider provider) {
+        }
+
+    }
+
+    public static class WithNotAllowedProvider {
+
+        public WithNotAllowedProvider(CheflingProvider<String> provider) {
+        }
+
+    }
+
+}
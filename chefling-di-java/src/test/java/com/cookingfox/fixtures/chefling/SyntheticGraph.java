@@ -0,0 +1,214 @@
+package com.cookingfox.fixtures.chefling;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A generated dependency graph, see {@link SyntheticGraphBuilder}.
+ */
+public class SyntheticGraph {
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    protected final int containerDepth;
+    protected final int containerFanOut;
+    protected final Node[] nodes;
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTRUCTORS
+    //----------------------------------------------------------------------------------------------
+
+    protected SyntheticGraph(Node[] nodes, int containerDepth, int containerFanOut) {
+        this.containerDepth = containerDepth;
+        this.containerFanOut = containerFanOut;
+        this.nodes = nodes;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Creates the container tree below the root container, and maps the interfaces and factories
+     * of the graph in the containers of the tree.
+     *
+     * @param root The root container.
+     * @return All containers of the tree, breadth-first: the root container first.
+     */
+    @SuppressWarnings("unchecked")
+    public List<CheflingContainer> configure(CheflingContainer root) {
+        List<CheflingContainer> containers = new ArrayList<>();
+        containers.add(root);
+
+        // breadth-first, so the containers match the indexes of `countContainers`
+        for (int i = 0; containers.size() < getContainerCount(); i++) {
+            for (int j = 0; j < containerFanOut; j++) {
+                containers.add(containers.get(i).createChildContainer());
+            }
+        }
+
+        for (Node node : nodes) {
+            CheflingContainer container = containers.get(node.container);
+
+            if (node.factory != null) {
+                container.mapFactory(node.type, node.createFactory());
+            } else if (node.implementation != null) {
+                container.mapType(node.type, node.implementation);
+            }
+        }
+
+        return containers;
+    }
+
+    /**
+     * @return The number of containers in the tree.
+     */
+    public int getContainerCount() {
+        return countContainers(containerDepth, containerFanOut);
+    }
+
+    /**
+     * @return The number of types with a mapping: the interfaces and the types with a factory.
+     */
+    public int getMappingCount() {
+        int count = 0;
+
+        for (Node node : nodes) {
+            if (node.factory != null || node.implementation != null) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * @return The nodes of the graph, lowest level first.
+     */
+    public List<Node> getNodes() {
+        return Collections.unmodifiableList(Arrays.asList(nodes));
+    }
+
+    /**
+     * @return The types of the highest level, which (indirectly) depend on the lower levels.
+     */
+    public List<Class> getRootTypes() {
+        List<Class> types = new ArrayList<>();
+        int top = nodes[nodes.length - 1].level;
+
+        for (Node node : nodes) {
+            if (node.level == top) {
+                types.add(node.type);
+            }
+        }
+
+        return types;
+    }
+
+    /**
+     * @return The type of every node: the interface if the node has one.
+     */
+    public List<Class> getTypes() {
+        List<Class> types = new ArrayList<>();
+
+        for (Node node : nodes) {
+            types.add(node.type);
+        }
+
+        return types;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPERS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * @param depth  The number of levels below the root container.
+     * @param fanOut The number of children of every container.
+     * @return The number of containers in the tree, including the root container.
+     */
+    protected static int countContainers(int depth, int fanOut) {
+        int count = 1;
+        int level = 1;
+
+        for (int i = 0; i < depth; i++) {
+            level *= fanOut;
+            count += level;
+        }
+
+        return count;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // INNER CLASSES
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * A type of the graph.
+     */
+    public static class Node {
+
+        public final int index;
+        public final int level;
+
+        /**
+         * The index of the container that maps the type, in {@link #configure(CheflingContainer)}.
+         */
+        public int container;
+
+        /**
+         * The indexes of the nodes this type depends on.
+         */
+        public int[] dependencies = new int[0];
+
+        /**
+         * The generated factory class, or null if the type is not created by a factory.
+         */
+        public Class factory;
+
+        /**
+         * The implementation of the interface, or null if the type is a class.
+         */
+        public Class implementation;
+
+        /**
+         * The type that is requested from the container.
+         */
+        public Class type;
+
+        protected boolean hasFactory;
+        protected boolean hasInterface;
+
+        protected Node(int index, int level) {
+            this.index = index;
+            this.level = level;
+        }
+
+        /**
+         * @return A new instance of the generated factory.
+         */
+        public CheflingFactory createFactory() {
+            try {
+                return (CheflingFactory) factory.newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * @return The simple name of the type.
+         */
+        public String getName() {
+            return "Type" + index;
+        }
+
+    }
+
+}
@@ -0,0 +1,392 @@
+package com.cookingfox.fixtures.chefling;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * Generates a dependency graph of any size: emits the source code of the types, compiles it and
+ * loads the classes, so that scale tests and benchmarks do not need hand-written fixtures.
+ * <p>
+ * The types are divided over `depth` levels. Every type depends on `fanOut` types of the level
+ * below it, so the graph is as deep as its number of levels. A part of the types is exposed as an
+ * interface with a separate implementation, and a part of the types is created by a factory. The
+ * mappings can be spread over a tree of containers. The same settings and seed always generate
+ * the same graph.
+ */
+public class SyntheticGraphBuilder {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTANTS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * The class that the generated types are nested in: not in the Chefling package, since the
+     * container does not resolve library types.
+     */
+    public static final String OUTER_CLASS = "synthetic.Graph";
+
+    //----------------------------------------------------------------------------------------------
+    // PROPERTIES
+    //----------------------------------------------------------------------------------------------
+
+    protected int containerDepth = 0;
+    protected int containerFanOut = 0;
+    protected int depth = 5;
+    protected double factoryRatio = 0;
+    protected int fanOut = 3;
+    protected double interfaceRatio = 0;
+    protected int numTypes = 100;
+    protected long seed = 1;
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Generates, compiles and loads the types.
+     *
+     * @return The generated graph.
+     * @throws IllegalStateException when the generated source code can not be compiled.
+     */
+    public SyntheticGraph buildGraph() {
+        Random random = new Random(seed);
+        SyntheticGraph.Node[] nodes = createNodes(random);
+        Path directory = null;
+
+        try {
+            directory = Files.createTempDirectory("chefling-synthetic");
+
+            compile(directory, nodes);
+
+            return load(directory, nodes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not generate the synthetic graph", e);
+        } finally {
+            if (directory != null) {
+                delete(directory);
+            }
+        }
+    }
+
+    /**
+     * @param depth  The number of levels of the container tree below the root container. Zero
+     *               (default) to map all types in the root container.
+     * @param fanOut The number of children of every container in the tree.
+     * @return The builder.
+     */
+    public SyntheticGraphBuilder setContainerTree(int depth, int fanOut) {
+        this.containerDepth = depth;
+        this.containerFanOut = fanOut;
+        return this;
+    }
+
+    /**
+     * @param depth The number of levels of the graph (default: 5).
+     * @return The builder.
+     */
+    public SyntheticGraphBuilder setDepth(int depth) {
+        this.depth = depth;
+        return this;
+    }
+
+    /**
+     * @param factoryRatio The part of the types that is created by a mapped factory, between 0
+     *                     (default) and 1.
+     * @return The builder.
+     */
+    public SyntheticGraphBuilder setFactoryRatio(double factoryRatio) {
+        this.factoryRatio = factoryRatio;
+        return this;
+    }
+
+    /**
+     * @param fanOut The number of dependencies of every type above the lowest level (default: 3).
+     * @return The builder.
+     */
+    public SyntheticGraphBuilder setFanOut(int fanOut) {
+        this.fanOut = fanOut;
+        return this;
+    }
+
+    /**
+     * @param interfaceRatio The part of the types that is exposed as an interface, which is mapped
+     *                       to its implementation, between 0 (default) and 1.
+     * @return The builder.
+     */
+    public SyntheticGraphBuilder setInterfaceRatio(double interfaceRatio) {
+        this.interfaceRatio = interfaceRatio;
+        return this;
+    }
+
+    /**
+     * @param numTypes The number of types in the graph (default: 100). An interface and its
+     *                 implementation count as one type.
+     * @return The builder.
+     */
+    public SyntheticGraphBuilder setNumTypes(int numTypes) {
+        this.numTypes = numTypes;
+        return this;
+    }
+
+    /**
+     * @param seed The seed for the random choices (default: 1).
+     * @return The builder.
+     */
+    public SyntheticGraphBuilder setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Compiles the source code of the nodes.
+     *
+     * @param directory The directory for the class files.
+     * @param nodes     The nodes of the graph.
+     * @throws IOException when the class files can not be written.
+     */
+    protected void compile(Path directory, SyntheticGraph.Node[] nodes) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+        if (compiler == null) {
+            throw new IllegalStateException("The synthetic graph can only be compiled on a JDK");
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StringBuilder body = new StringBuilder();
+
+        // a single compilation unit compiles much faster than a file per type
+        for (SyntheticGraph.Node node : nodes) {
+            appendSource(body, node, nodes);
+        }
+
+        JavaFileObject source = createSource(body);
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singleton(directory.toFile()));
+            fileManager.setLocation(StandardLocation.CLASS_PATH, Collections.singleton(getLocation(CheflingContainer.class)));
+
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-proc:none", "-nowarn"), null, Collections.singleton(source));
+
+            if (!task.call()) {
+                throw new IllegalStateException("Could not compile the synthetic graph: " + diagnostics.getDiagnostics());
+            }
+        }
+    }
+
+    /**
+     * Creates the nodes of the graph: distributes them over the levels and containers, and
+     * chooses their dependencies, interfaces and factories.
+     *
+     * @param random The source of the random choices.
+     * @return The nodes.
+     */
+    protected SyntheticGraph.Node[] createNodes(Random random) {
+        SyntheticGraph.Node[] nodes = new SyntheticGraph.Node[numTypes];
+        int numLevels = Math.max(1, Math.min(depth, numTypes));
+        int numContainers = SyntheticGraph.countContainers(containerDepth, containerFanOut);
+        int previousStart = 0;
+        int start = 0;
+
+        for (int level = 0; level < numLevels; level++) {
+            // spread the remainder over the lowest levels
+            int size = numTypes / numLevels + (level < numTypes % numLevels ? 1 : 0);
+
+            for (int i = start; i < start + size; i++) {
+                SyntheticGraph.Node node = new SyntheticGraph.Node(i, level);
+                node.container = i % numContainers;
+                node.hasFactory = random.nextDouble() < factoryRatio;
+                node.hasInterface = random.nextDouble() < interfaceRatio;
+
+                if (level > 0) {
+                    node.dependencies = pickDependencies(random, previousStart, start);
+                }
+
+                nodes[i] = node;
+            }
+
+            previousStart = start;
+            start += size;
+        }
+
+        return nodes;
+    }
+
+    /**
+     * Loads the compiled classes. All classes are loaded immediately, so that the class files can
+     * be deleted.
+     *
+     * @param directory The directory with the class files.
+     * @param nodes     The nodes of the graph.
+     * @return The graph.
+     * @throws IOException when the classes can not be loaded.
+     */
+    protected SyntheticGraph load(Path directory, SyntheticGraph.Node[] nodes) throws IOException {
+        ClassLoader classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()},
+                CheflingContainer.class.getClassLoader());
+
+        try {
+            // the nested types refer to their outer class
+            classLoader.loadClass(OUTER_CLASS);
+
+            for (SyntheticGraph.Node node : nodes) {
+                String name = OUTER_CLASS + "$" + node.getName();
+                node.type = classLoader.loadClass(name);
+
+                if (node.hasInterface) {
+                    node.implementation = classLoader.loadClass(name + "Impl");
+                }
+
+                if (node.hasFactory) {
+                    node.factory = classLoader.loadClass(name + "Factory");
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+
+        return new SyntheticGraph(nodes, containerDepth, containerFanOut);
+    }
+
+    /**
+     * Picks the dependencies of a node from the level below it.
+     *
+     * @param random The source of the random choices.
+     * @param from   The index of the first node of the level below.
+     * @param to     The index after the last node of the level below.
+     * @return The indexes of the dependencies.
+     */
+    protected int[] pickDependencies(Random random, int from, int to) {
+        int[] candidates = new int[to - from];
+        int count = Math.min(fanOut, candidates.length);
+
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = from + i;
+        }
+
+        // partial shuffle: the first `count` candidates are distinct random picks
+        for (int i = 0; i < count; i++) {
+            int pick = i + random.nextInt(candidates.length - i);
+            int swap = candidates[i];
+            candidates[i] = candidates[pick];
+            candidates[pick] = swap;
+        }
+
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * Appends the source code of a node: its type, and its implementation and factory if it has
+     * them. The types are nested in {@link #OUTER_CLASS}.
+     *
+     * @param body  The body of the outer class.
+     * @param node  The node to append the source code of.
+     * @param nodes All nodes, to refer to the dependencies.
+     */
+    protected void appendSource(StringBuilder body, SyntheticGraph.Node node, SyntheticGraph.Node[] nodes) {
+        String name = node.getName();
+        String className = node.hasInterface ? name + "Impl" : name;
+        StringBuilder parameters = new StringBuilder();
+        StringBuilder arguments = new StringBuilder();
+
+        for (int i = 0; i < node.dependencies.length; i++) {
+            String dependency = nodes[node.dependencies[i]].getName();
+            String separator = i == 0 ? "" : ", ";
+
+            parameters.append(separator).append(dependency).append(" d").append(i);
+            arguments.append(separator).append("container.getInstance(").append(dependency).append(".class)");
+        }
+
+        if (node.hasInterface) {
+            body.append("public interface ").append(name).append(" {}\n");
+        }
+
+        body.append("public static class ").append(className);
+        body.append(node.hasInterface ? " implements " + name : "");
+        body.append(" { public ").append(className).append("(").append(parameters).append(") {} }\n");
+
+        if (node.hasFactory) {
+            body.append("public static class ").append(name).append("Factory implements CheflingFactory<");
+            body.append(name).append("> { public ").append(name).append(" createInstance(CheflingContainer container) { ");
+            body.append("return new ").append(className).append("(").append(arguments).append("); } }\n");
+        }
+    }
+
+    /**
+     * @param body The body of the outer class.
+     * @return The compilation unit of the outer class.
+     */
+    protected JavaFileObject createSource(StringBuilder body) {
+        int separator = OUTER_CLASS.lastIndexOf('.');
+        final String code = "package " + OUTER_CLASS.substring(0, separator) + ";\n\n" +
+                "import com.cookingfox.chefling.api.CheflingContainer;\n" +
+                "import com.cookingfox.chefling.api.CheflingFactory;\n\n" +
+                "public class " + OUTER_CLASS.substring(separator + 1) + " {\n" + body + "}\n";
+
+        URI uri = URI.create("string:///" + OUTER_CLASS.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPERS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Deletes the directory and its contents. Failures are ignored, since the directory is
+     * temporary.
+     *
+     * @param directory The directory to delete.
+     */
+    protected static void delete(Path directory) {
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    /**
+     * @param type A class.
+     * @return The directory or jar the class was loaded from.
+     */
+    protected static File getLocation(Class type) {
+        try {
+            return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.cookingfox.fixtures.chefling;
+
+/**
+ * A class that has a (hand-written) generated factory: {@link WithGeneratedFactory_CheflingFactory}.
+ */
+public class WithGeneratedFactory {
+
+    public final NoConstructor param;
+    public final boolean createdByFactory;
+
+    public WithGeneratedFactory(NoConstructor param) {
+        this(param, false);
+    }
+
+    WithGeneratedFactory(NoConstructor param, boolean createdByFactory) {
+        this.param = param;
+        this.createdByFactory = createdByFactory;
+    }
+
+    /**
+     * A member class with a generated factory that throws.
+     */
+    public static class Throwing {
+    }
+
+}
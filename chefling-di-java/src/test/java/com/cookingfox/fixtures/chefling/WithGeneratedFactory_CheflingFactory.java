@@ -0,0 +1,16 @@
+package com.cookingfox.fixtures.chefling;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingFactory;
+
+/**
+ * Example of a factory as generated by the Chefling annotation processor.
+ */
+public final class WithGeneratedFactory_CheflingFactory implements CheflingFactory<WithGeneratedFactory> {
+
+    @Override
+    public WithGeneratedFactory createInstance(CheflingContainer container) {
+        return new WithGeneratedFactory(container.getInstance(NoConstructor.class), true);
+    }
+
+}
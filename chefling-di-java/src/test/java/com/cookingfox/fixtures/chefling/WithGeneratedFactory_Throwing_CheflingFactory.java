@@ -0,0 +1,16 @@
+package com.cookingfox.fixtures.chefling;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingFactory;
+
+/**
+ * Example of a generated factory for a type whose constructor throws.
+ */
+public final class WithGeneratedFactory_Throwing_CheflingFactory implements CheflingFactory<WithGeneratedFactory.Throwing> {
+
+    @Override
+    public WithGeneratedFactory.Throwing createInstance(CheflingContainer container) {
+        throw new RuntimeException("Example exception from constructor");
+    }
+
+}
@@ -0,0 +1,313 @@
+package com.cookingfox.chefling.processor;
+
+import com.cookingfox.chefling.api.CheflingFactory;
+import com.cookingfox.chefling.impl.helper.GeneratedFactories;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor that generates a {@link CheflingFactory} implementation for every class or
+ * constructor annotated with {@link CheflingInject}. The generated factory calls the constructor
+ * directly, so the container does not need reflection to create an instance of the class.
+ *
+ * @see GeneratedFactories
+ */
+@SupportedAnnotationTypes("com.cookingfox.chefling.processor.CheflingInject")
+public class CheflingFactoryProcessor extends AbstractProcessor {
+
+    //----------------------------------------------------------------------------------------------
+    // CONSTANTS
+    //----------------------------------------------------------------------------------------------
+
+    protected static final String LAZY_CLASS = "com.cookingfox.chefling.api.CheflingLazy";
+    protected static final String PROVIDER_CLASS = "com.cookingfox.chefling.api.CheflingProvider";
+    protected static final String PROVIDERS_CLASS = "com.cookingfox.chefling.impl.helper.Providers";
+
+    //----------------------------------------------------------------------------------------------
+    // PUBLIC METHODS
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<TypeElement, ExecutableElement> constructors = new LinkedHashMap<>();
+        Set<? extends Element> elements = roundEnv.getElementsAnnotatedWith(CheflingInject.class);
+
+        // annotated constructors first, since they take precedence over annotated classes
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(elements)) {
+            TypeElement type = (TypeElement) constructor.getEnclosingElement();
+
+            if (constructors.containsKey(type)) {
+                error(constructor, "Only one constructor of a class can be annotated with @CheflingInject");
+            } else {
+                constructors.put(type, constructor);
+            }
+        }
+
+        for (TypeElement type : ElementFilter.typesIn(elements)) {
+            if (!constructors.containsKey(type)) {
+                ExecutableElement constructor = selectConstructor(type);
+
+                if (constructor != null) {
+                    constructors.put(type, constructor);
+                }
+            }
+        }
+
+        for (Map.Entry<TypeElement, ExecutableElement> entry : constructors.entrySet()) {
+            if (isValid(entry.getKey(), entry.getValue())) {
+                generateFactory(entry.getKey(), entry.getValue());
+            }
+        }
+
+        return true;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // PROTECTED METHODS
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Builds the source code of the factory.
+     *
+     * @param packageName The package of the factory and its type.
+     * @param simpleName  The simple name of the factory class.
+     * @param type        The type the factory creates.
+     * @param constructor The constructor the factory calls.
+     * @return The source code of the factory.
+     */
+    protected String buildSource(String packageName, String simpleName, TypeElement type,
+                                 ExecutableElement constructor) {
+        String typeName = type.getQualifiedName().toString();
+        List<? extends VariableElement> parameters = constructor.getParameters();
+        boolean throwsChecked = !constructor.getThrownTypes().isEmpty();
+        String indent = throwsChecked ? "            " : "        ";
+        StringBuilder source = new StringBuilder();
+
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+
+        source.append("import com.cookingfox.chefling.api.CheflingContainer;\n");
+        source.append("import com.cookingfox.chefling.api.CheflingFactory;\n");
+
+        if (throwsChecked) {
+            source.append("import com.cookingfox.chefling.api.exception.TypeInstantiationException;\n");
+        }
+
+        source.append("\n/**\n");
+        source.append(" * Generated by the Chefling annotation processor for {@link ").append(typeName).append("}.\n");
+        source.append(" * Do not edit.\n");
+        source.append(" */\n");
+        source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        source.append("public final class ").append(simpleName);
+        source.append(" implements CheflingFactory<").append(typeName).append("> {\n\n");
+        source.append("    @Override\n");
+        source.append("    public ").append(typeName).append(" createInstance(CheflingContainer container) {\n");
+
+        if (throwsChecked) {
+            source.append("        try {\n");
+        }
+
+        source.append(indent).append("return new ").append(typeName).append("(");
+
+        // resolve every constructor parameter using the container
+        for (int i = 0; i < parameters.size(); i++) {
+            TypeMirror parameterType = processingEnv.getTypeUtils().erasure(parameters.get(i).asType());
+            String providerMethod = getProviderMethod(parameterType);
+
+            source.append(i == 0 ? "\n" : ",\n");
+
+            if (providerMethod == null) {
+                source.append(indent).append("        container.getInstance(");
+                source.append(parameterType.toString()).append(".class)");
+            } else {
+                // providers resolve their type when they are used
+                source.append(indent).append("        ").append(PROVIDERS_CLASS).append(".");
+                source.append(providerMethod).append("(container, ");
+                source.append(getProvidedType(parameters.get(i))).append(".class)");
+            }
+        }
+
+        source.append(");\n");
+
+        if (throwsChecked) {
+            source.append("        } catch (RuntimeException e) {\n");
+            source.append("            throw e;\n");
+            source.append("        } catch (Exception e) {\n");
+            source.append("            throw new TypeInstantiationException(").append(typeName).append(".class, e);\n");
+            source.append("        }\n");
+        }
+
+        source.append("    }\n\n");
+        source.append("}\n");
+
+        return source.toString();
+    }
+
+    /**
+     * Prints an error message for the element, which fails the compilation.
+     *
+     * @param element The element the error applies to.
+     * @param message The error message.
+     */
+    protected void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * Writes the source file of the factory for the provided type and constructor.
+     *
+     * @param type        The type to generate a factory for.
+     * @param constructor The constructor the factory should call.
+     */
+    protected void generateFactory(TypeElement type, ExecutableElement constructor) {
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String factoryName = GeneratedFactories.getFactoryClassName(binaryName);
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String simpleName = factoryName.substring(factoryName.lastIndexOf('.') + 1);
+
+        try (Writer writer = processingEnv.getFiler().createSourceFile(factoryName, type).openWriter()) {
+            writer.write(buildSource(packageName, simpleName, type, constructor));
+        } catch (IOException e) {
+            error(type, "Could not write Chefling factory: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param parameter A constructor parameter of type {@link #PROVIDER_CLASS} or
+     *                  {@link #LAZY_CLASS}.
+     * @return The erasure of the provided type, or null if the parameter has no type argument or
+     * the type argument is not a class or interface.
+     */
+    protected TypeMirror getProvidedType(VariableElement parameter) {
+        List<? extends TypeMirror> arguments = ((DeclaredType) parameter.asType()).getTypeArguments();
+
+        if (arguments.size() != 1 || arguments.get(0).getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+
+        return processingEnv.getTypeUtils().erasure(arguments.get(0));
+    }
+
+    /**
+     * @param parameterType The erasure of a constructor parameter type.
+     * @return The name of the {@link #PROVIDERS_CLASS} method that creates the parameter value, or
+     * null if the parameter is not a provider.
+     */
+    protected String getProviderMethod(TypeMirror parameterType) {
+        String name = parameterType.toString();
+
+        if (PROVIDER_CLASS.equals(name)) {
+            return "createProvider";
+        } else if (LAZY_CLASS.equals(name)) {
+            return "createLazy";
+        }
+
+        return null;
+    }
+
+    /**
+     * Validates that every provider parameter of the constructor has a type argument that the
+     * generated factory can resolve.
+     *
+     * @param constructor The constructor to validate.
+     * @return Whether the provider parameters are valid.
+     */
+    protected boolean hasValidProviders(ExecutableElement constructor) {
+        boolean valid = true;
+
+        for (VariableElement parameter : constructor.getParameters()) {
+            TypeMirror parameterType = processingEnv.getTypeUtils().erasure(parameter.asType());
+
+            if (getProviderMethod(parameterType) != null && getProvidedType(parameter) == null) {
+                error(parameter, "Provider parameters must have a class or interface type argument");
+                valid = false;
+            }
+        }
+
+        return valid;
+    }
+
+    /**
+     * Validates that the container is allowed to create the type, and that the generated factory
+     * can call the constructor.
+     *
+     * @param type        The type to validate.
+     * @param constructor The constructor to validate.
+     * @return Whether the type and constructor are valid.
+     */
+    protected boolean isValid(TypeElement type, ExecutableElement constructor) {
+        Set<Modifier> modifiers = type.getModifiers();
+
+        if (type.getKind() != ElementKind.CLASS) {
+            error(type, "@CheflingInject can only be used on classes");
+        } else if (modifiers.contains(Modifier.ABSTRACT)) {
+            error(type, "@CheflingInject can not be used on abstract classes");
+        } else if (!modifiers.contains(Modifier.PUBLIC)) {
+            error(type, "@CheflingInject can only be used on public classes");
+        } else if (type.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC)) {
+            error(type, "@CheflingInject can not be used on non-static member classes");
+        } else if (type.getNestingKind() != NestingKind.TOP_LEVEL && type.getNestingKind() != NestingKind.MEMBER) {
+            error(type, "@CheflingInject can not be used on local or anonymous classes");
+        } else if (!constructor.getModifiers().contains(Modifier.PUBLIC)) {
+            error(constructor, "@CheflingInject can only be used on public constructors");
+        } else {
+            return hasValidProviders(constructor);
+        }
+
+        return false;
+    }
+
+    /**
+     * Selects the constructor of an annotated class: the class must have exactly one public
+     * constructor.
+     *
+     * @param type The annotated class.
+     * @return The selected constructor, or null if no constructor could be selected.
+     */
+    protected ExecutableElement selectConstructor(TypeElement type) {
+        ExecutableElement selected = null;
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (!constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                continue;
+            }
+
+            if (selected != null) {
+                error(type, "Class has multiple public constructors: annotate the constructor that " +
+                        "should be used with @CheflingInject");
+
+                return null;
+            }
+
+            selected = constructor;
+        }
+
+        if (selected == null) {
+            error(type, "@CheflingInject can only be used on classes with a public constructor");
+        }
+
+        return selected;
+    }
+
+}
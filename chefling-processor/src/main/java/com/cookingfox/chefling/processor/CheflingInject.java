@@ -0,0 +1,16 @@
+package com.cookingfox.chefling.processor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class or constructor for which the {@link CheflingFactoryProcessor} should generate a
+ * reflection-free factory at compile time. When a class is annotated, it must have exactly one
+ * public constructor. When a constructor is annotated, that constructor is used.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.TYPE, ElementType.CONSTRUCTOR})
+public @interface CheflingInject {
+}
@@ -0,0 +1,212 @@
+package com.cookingfox.chefling.processor;
+
+import com.cookingfox.chefling.api.CheflingContainer;
+import com.cookingfox.chefling.api.CheflingLazy;
+import com.cookingfox.chefling.api.CheflingProvider;
+import com.cookingfox.chefling.impl.Chefling;
+import com.cookingfox.chefling.impl.helper.GeneratedFactories;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.tools.*;
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link CheflingFactoryProcessor}.
+ */
+public class CheflingFactoryProcessorTest {
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS SETUP
+    //----------------------------------------------------------------------------------------------
+
+    private File outputDir;
+    private DiagnosticCollector<JavaFileObject> diagnostics;
+
+    @Before
+    public void setUp() throws Exception {
+        outputDir = Files.createTempDirectory("chefling-processor").toFile();
+        diagnostics = new DiagnosticCollector<>();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // TESTS
+    //----------------------------------------------------------------------------------------------
+
+    @Test
+    public void should_generate_factory_for_annotated_class() throws Exception {
+        boolean success = compile(
+                source("example.Dependency", "package example; public class Dependency {}"),
+                source("example.Service", "package example; " +
+                        "@com.cookingfox.chefling.processor.CheflingInject " +
+                        "public class Service { public final Dependency dependency; " +
+                        "public Service(Dependency dependency) { this.dependency = dependency; } }"));
+
+        assertTrue(diagnostics.getDiagnostics().toString(), success);
+        assertTrue(new File(outputDir, "example/Service_CheflingFactory.class").exists());
+    }
+
+    @Test
+    public void container_should_use_generated_factory() throws Exception {
+        compile(source("example.Dependency", "package example; public class Dependency {}"),
+                source("example.Outer", "package example; public class Outer { " +
+                        "public static class Inner { public final Dependency dependency; " +
+                        "public Inner() { this(null); } " +
+                        "@com.cookingfox.chefling.processor.CheflingInject " +
+                        "public Inner(Dependency dependency) { this.dependency = dependency; } } }"));
+
+        ClassLoader classLoader = new URLClassLoader(new URL[]{outputDir.toURI().toURL()},
+                getClass().getClassLoader());
+
+        Class inner = classLoader.loadClass("example.Outer$Inner");
+        Class dependency = classLoader.loadClass("example.Dependency");
+
+        assertNotNull(GeneratedFactories.find(inner));
+
+        CheflingContainer container = Chefling.createContainer();
+        Object instance = container.getInstance(inner);
+
+        // the reflective path would not have been able to choose between the constructors
+        assertSame(container.getInstance(dependency), inner.getField("dependency").get(instance));
+    }
+
+    @Test
+    public void generated_factory_should_inject_providers() throws Exception {
+        compile(source("example.Dependency", "package example; public class Dependency {}"),
+                source("example.Deferred", "package example; " +
+                        "import com.cookingfox.chefling.api.*; " +
+                        "@com.cookingfox.chefling.processor.CheflingInject " +
+                        "public class Deferred { public final CheflingProvider<Dependency> provider; " +
+                        "public final CheflingLazy<Dependency> lazy; " +
+                        "public Deferred(CheflingProvider<Dependency> provider, CheflingLazy<Dependency> lazy) { " +
+                        "this.provider = provider; this.lazy = lazy; } }"));
+
+        ClassLoader classLoader = new URLClassLoader(new URL[]{outputDir.toURI().toURL()},
+                getClass().getClassLoader());
+
+        Class deferred = classLoader.loadClass("example.Deferred");
+        Class dependency = classLoader.loadClass("example.Dependency");
+
+        assertNotNull(GeneratedFactories.find(deferred));
+
+        CheflingContainer container = Chefling.createContainer();
+        Object instance = container.getInstance(deferred);
+
+        assertFalse(container.hasInstanceOrMapping(dependency));
+        assertSame(container.getInstance(dependency),
+                ((CheflingProvider) deferred.getField("provider").get(instance)).get());
+        assertSame(container.getInstance(dependency),
+                ((CheflingLazy) deferred.getField("lazy").get(instance)).get());
+    }
+
+    @Test
+    public void should_fail_if_raw_provider() throws Exception {
+        boolean success = compile(source("example.Raw", "package example; " +
+                "@com.cookingfox.chefling.processor.CheflingInject " +
+                "public class Raw { public Raw(com.cookingfox.chefling.api.CheflingProvider provider) {} }"));
+
+        assertFalse(success);
+        assertErrorContains("Provider parameters must have");
+    }
+
+    @Test
+    public void should_wrap_checked_constructor_exceptions() throws Exception {
+        compile(source("example.Checked", "package example; " +
+                "@com.cookingfox.chefling.processor.CheflingInject " +
+                "public class Checked { public Checked() throws java.io.IOException {} }"));
+
+        String generated = new String(Files.readAllBytes(
+                new File(outputDir, "example/Checked_CheflingFactory.java").toPath()), StandardCharsets.UTF_8);
+
+        assertTrue(generated.contains("throw new TypeInstantiationException(example.Checked.class, e);"));
+    }
+
+    @Test
+    public void should_fail_if_multiple_public_constructors() throws Exception {
+        boolean success = compile(source("example.Ambiguous", "package example; " +
+                "@com.cookingfox.chefling.processor.CheflingInject " +
+                "public class Ambiguous { public Ambiguous() {} public Ambiguous(Object o) {} }"));
+
+        assertFalse(success);
+        assertErrorContains("multiple public constructors");
+    }
+
+    @Test
+    public void should_fail_if_constructor_not_public() throws Exception {
+        boolean success = compile(source("example.Hidden", "package example; " +
+                "public class Hidden { @com.cookingfox.chefling.processor.CheflingInject Hidden() {} }"));
+
+        assertFalse(success);
+        assertErrorContains("public constructors");
+    }
+
+    @Test
+    public void should_fail_if_non_static_member_class() throws Exception {
+        boolean success = compile(source("example.Member", "package example; public class Member { " +
+                "@com.cookingfox.chefling.processor.CheflingInject public class Inner {} }"));
+
+        assertFalse(success);
+        assertErrorContains("non-static member classes");
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // HELPERS
+    //----------------------------------------------------------------------------------------------
+
+    private void assertErrorContains(String expected) {
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR && diagnostic.getMessage(null).contains(expected)) {
+                return;
+            }
+        }
+
+        fail("Expected error containing '" + expected + "', got: " + diagnostics.getDiagnostics());
+    }
+
+    private boolean compile(JavaFileObject... sources) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+
+        // the compiled classes need the Chefling library and the annotation
+        List<File> classPath = Arrays.asList(getLocation(CheflingContainer.class), getLocation(CheflingInject.class));
+
+        fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singleton(outputDir));
+        fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singleton(outputDir));
+        fileManager.setLocation(StandardLocation.CLASS_PATH, classPath);
+
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, null, null,
+                Arrays.asList(sources));
+
+        task.setProcessors(Collections.singleton(new CheflingFactoryProcessor()));
+
+        try {
+            return task.call();
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    private static File getLocation(Class type) throws Exception {
+        return new File(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private static JavaFileObject source(String className, final String code) {
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+}